@@ -1,9 +1,12 @@
 package com.example.bomba.android;
 
+import android.content.pm.PackageManager;
+import android.os.Build;
 import android.os.Bundle;
 
 import com.badlogic.gdx.backends.android.AndroidApplication;
 import com.badlogic.gdx.backends.android.AndroidApplicationConfiguration;
+import com.example.bomba.MapSettings;
 import com.example.bomba.MyBombermanGame;
 
 /** Launches the Android application. */
@@ -13,6 +16,26 @@ public class AndroidLauncher extends AndroidApplication {
         super.onCreate(savedInstanceState);
         AndroidApplicationConfiguration configuration = new AndroidApplicationConfiguration();
         configuration.useImmersiveMode = true; // Recommended, but not required.
-        initialize(new MyBombermanGame(), configuration);
+        // Modo en red: adb shell am start -n com.example.bomba/.android.AndroidLauncher --es server host:puerto
+        // Arena grande: ... --es arena 255x255
+        initialize(new MyBombermanGame(getIntent().getStringExtra("server"), deviceInfo(),
+            arena(getIntent().getStringExtra("arena"))), configuration);
+    }
+
+    private static MapSettings arena(String size) {
+        if (size == null) return null;
+        int x = size.indexOf('x');
+        return MyBombermanGame.arena(Integer.parseInt(size.substring(0, x)), Integer.parseInt(size.substring(x + 1)));
+    }
+
+    /** Modelo, versión de Android y de la aplicación, para el registro de rendimiento. */
+    private String deviceInfo() {
+        String version;
+        try {
+            version = getPackageManager().getPackageInfo(getPackageName(), 0).versionName;
+        } catch (PackageManager.NameNotFoundException e) {
+            version = "?";
+        }
+        return Build.MANUFACTURER + " " + Build.MODEL + " (Android " + Build.VERSION.RELEASE + ") v" + version;
     }
 }
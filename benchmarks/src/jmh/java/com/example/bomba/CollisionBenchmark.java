@@ -0,0 +1,105 @@
+package com.example.bomba;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.math.Vector2;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Colisión AABB contra la rejilla ({@link Player#canMoveTo}, {@link Enemy#canMoveTo} y
+ * {@link GridCollision}) sobre un lote de posiciones aleatorias dentro del mapa.
+ *
+ * {@code moveStep} es el paso normal de un jugador en un tick; {@code moveSweep} barre varias
+ * celdas de golpe, el caso de velocidades altas o ticks largos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark {
+    private static final int POSITIONS = 1024;
+
+    @Param({"15x25", "255x255"})
+    public String mapSize;
+
+    private GameMap map;
+    private Player player;
+    private final float[] xs = new float[POSITIONS];
+    private final float[] ys = new float[POSITIONS];
+    private final Direction[] directions = new Direction[POSITIONS];
+    private final Vector2 out = new Vector2();
+
+    @Setup
+    public void setUp() {
+        map = Fixtures.map(mapSize);
+        player = new Player(0, GameMap.TILE_SIZE, GameMap.TILE_SIZE);
+        Random random = new Random(Fixtures.SEED);
+        float maxX = (map.getCols() - 2) * GameMap.TILE_SIZE;
+        float maxY = (map.getRows() - 2) * GameMap.TILE_SIZE;
+        for (int i = 0; i < POSITIONS; i++) {
+            xs[i] = GameMap.TILE_SIZE + random.nextFloat() * (maxX - GameMap.TILE_SIZE);
+            ys[i] = GameMap.TILE_SIZE + random.nextFloat() * (maxY - GameMap.TILE_SIZE);
+            directions[i] = Direction.values()[random.nextInt(4)];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public int playerCanMoveTo() {
+        int passable = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            if (player.canMoveTo(xs[i], ys[i], map)) passable++;
+        }
+        return passable;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public int enemyCanMoveTo() {
+        int passable = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            if (Enemy.canMoveTo(xs[i], ys[i], map)) passable++;
+        }
+        return passable;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public int gridIsFree() {
+        int passable = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            if (GridCollision.isFree(map, xs[i], ys[i], Enemy.WIDTH, Enemy.HEIGHT)) passable++;
+        }
+        return passable;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public float moveStep() {
+        return move(2.5f);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public float moveSweep() {
+        return move(4f * GameMap.TILE_SIZE);
+    }
+
+    private float move(float distance) {
+        float sum = 0f;
+        for (int i = 0; i < POSITIONS; i++) {
+            GridCollision.move(map, xs[i], ys[i], 26, 26, directions[i], distance, 12f, out);
+            sum += out.x + out.y;
+        }
+        return sum;
+    }
+}
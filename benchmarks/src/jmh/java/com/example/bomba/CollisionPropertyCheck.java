@@ -0,0 +1,149 @@
+package com.example.bomba;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Comprueba propiedades de {@link GridCollision} sobre muchos casos al azar: mapas de
+ * {@link ProceduralMapGenerator} con distintas densidades, cajas en posiciones libres y
+ * movimientos de hasta varias celdas.
+ *
+ * <ul>
+ *   <li>{@link GridCollision#isFree} da lo mismo que la comprobación de referencia (división en coma
+ *   flotante y límites del mapa), también con cajas que se salen del mapa, sin lanzar excepciones.</li>
+ *   <li>Tras un movimiento la caja sigue en suelo, no ha avanzado más de lo pedido y, sin
+ *   deslizamiento, ha pasado solo por posiciones libres (no atraviesa muros).</li>
+ *   <li>Un movimiento largo acaba donde acabarían muchos pasos de un píxel, salvo la fracción de
+ *   píxel que los pasos cortos pueden arañar antes de pegarse al muro (la caja se mide en píxeles
+ *   enteros y el barrido la deja justo en el borde).</li>
+ *   <li>Si no se mueve, devuelve la posición de partida.</li>
+ *   <li>Mover no reserva memoria una vez caliente.</li>
+ * </ul>
+ *
+ * Se ejecuta con la tarea {@code benchmarks:checkCollisions} (incluida en {@code check}) y termina
+ * con error si falla algún caso, imprimiendo el primero para poder repetirlo.
+ */
+public final class CollisionPropertyCheck {
+    private static final int MAPS = 200;
+    private static final int CASES_PER_MAP = 20_000;
+    private static final int SIZE = 26;
+    private static final float EPSILON = 1e-3f;
+
+    private CollisionPropertyCheck() {}
+
+    public static void main(String[] args) {
+        Random random = new Random(Fixtures.SEED);
+        ProceduralMapGenerator generator = new ProceduralMapGenerator();
+        Vector2 out = new Vector2();
+        Vector2 stepped = new Vector2();
+        Direction[] directions = Direction.values();
+        long cases = 0, moved = 0, nudged = 0;
+
+        for (int m = 0; m < MAPS; m++) {
+            MapSettings settings = new MapSettings(9 + random.nextInt(40), 9 + random.nextInt(40), 4,
+                random.nextFloat(), random.nextFloat() * 0.3f);
+            GameMap map = generator.generate(settings, Fixtures.SEED + m);
+            float width = map.getCols() * GameMap.TILE_SIZE;
+            float height = map.getRows() * GameMap.TILE_SIZE;
+
+            for (int i = 0; i < CASES_PER_MAP; i++, cases++) {
+                // Referencia de isFree con cualquier posición, dentro o fuera del mapa
+                float qx = -64f + random.nextFloat() * (width + 128f);
+                float qy = -64f + random.nextFloat() * (height + 128f);
+                if (GridCollision.isFree(map, qx, qy, SIZE, SIZE) != referenceIsFree(map, qx, qy, SIZE, SIZE)) {
+                    fail("isFree distinto de la referencia en (" + qx + ", " + qy + ")", map, m);
+                }
+
+                float x = random.nextFloat() * width;
+                float y = random.nextFloat() * height;
+                if (!GridCollision.isFree(map, x, y, SIZE, SIZE)) continue;
+                Direction direction = directions[random.nextInt(directions.length)];
+                float distance = random.nextFloat() * 3f * GameMap.TILE_SIZE;
+                float nudge = random.nextBoolean() ? 0f : 12f;
+                String where = direction + " " + distance + " desde (" + x + ", " + y + "), deslizamiento " + nudge;
+
+                boolean didMove = GridCollision.move(map, x, y, SIZE, SIZE, direction, distance, nudge, out);
+                if (!didMove && (out.x != x || out.y != y)) fail("No se mueve pero cambia la posición: " + where, map, m);
+                if (!GridCollision.isFree(map, out.x, out.y, SIZE, SIZE)) fail("Acaba dentro de un muro: " + where, map, m);
+                if (Math.abs(out.x - x) > distance + EPSILON || Math.abs(out.y - y) > distance + EPSILON) {
+                    fail("Avanza más de lo pedido: " + where, map, m);
+                }
+                if (didMove) moved++;
+                boolean slid = (direction == Direction.LEFT || direction == Direction.RIGHT) ? out.y != y : out.x != x;
+                if (slid) {
+                    nudged++;
+                    continue;
+                }
+
+                // Sin deslizamiento: el mismo recorrido en pasos de un píxel, comprobando cada posición
+                stepped.set(x, y);
+                float left = distance;
+                while (left > 0f) {
+                    float step = Math.min(1f, left);
+                    left -= step;
+                    float fromX = stepped.x, fromY = stepped.y;
+                    if (!GridCollision.move(map, fromX, fromY, SIZE, SIZE, direction, step, 0f, stepped)) break;
+                    if (!GridCollision.isFree(map, stepped.x, stepped.y, SIZE, SIZE)) {
+                        fail("Atraviesa un muro: " + where, map, m);
+                    }
+                }
+                if (Math.abs(stepped.x - out.x) >= 1f || Math.abs(stepped.y - out.y) >= 1f) {
+                    fail("Un paso largo acaba en (" + out.x + ", " + out.y + ") y los pasos cortos en ("
+                        + stepped.x + ", " + stepped.y + "): " + where, map, m);
+                }
+            }
+        }
+        long allocated = measureAllocations(generator, out);
+        System.out.println("Casos: " + cases + ", movimientos: " + moved + ", deslizamientos: " + nudged
+            + ", bytes reservados al mover: " + allocated);
+        if (allocated > 0) {
+            System.err.println("GridCollision.move reserva memoria.");
+            System.exit(1);
+        }
+    }
+
+    /** La comprobación de antes, con división en coma flotante y límites del mapa. */
+    private static boolean referenceIsFree(GameMap map, float x, float y, int width, int height) {
+        int startCol = (int) Math.floor(x / GameMap.TILE_SIZE);
+        int endCol = (int) Math.floor((Math.floor(x) + width - 1) / GameMap.TILE_SIZE);
+        int startRow = (int) Math.floor(y / GameMap.TILE_SIZE);
+        int endRow = (int) Math.floor((Math.floor(y) + height - 1) / GameMap.TILE_SIZE);
+        for (int row = startRow; row <= endRow; row++) {
+            for (int col = startCol; col <= endCol; col++) {
+                if (!map.isCellPassable(row, col)) return false;
+            }
+        }
+        return true;
+    }
+
+    private static long measureAllocations(ProceduralMapGenerator generator, Vector2 out) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(thread); // la primera llamada puede reservar
+        GameMap map = generator.generate(new MapSettings(63, 63, 4, 0.5f, 0.1f), Fixtures.SEED);
+        Direction[] directions = Direction.values();
+        long total = 0;
+        for (int round = 0; round < 3; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            float x = map.getSpawnCol(0) * GameMap.TILE_SIZE + 3f;
+            float y = map.getSpawnRow(0) * GameMap.TILE_SIZE + 3f;
+            for (int i = 0; i < 200_000; i++) {
+                GridCollision.move(map, x, y, SIZE, SIZE, directions[i & 3], 1.7f + (i % 7), 12f, out);
+                x = out.x;
+                y = out.y;
+            }
+            total = threads.getThreadAllocatedBytes(thread) - before;
+            // Como en TickAllocationCheck: basta una ronda limpia, la primera puede incluir la JIT
+            if (total == 0) break;
+        }
+        return total;
+    }
+
+    private static void fail(String message, GameMap map, int mapIndex) {
+        System.err.println("Mapa " + mapIndex + " (" + map.getRows() + "x" + map.getCols() + "): " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.bomba;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Detonación en {@link DetonationEngine}: una fila de {@code chain} bombas separadas por su radio,
+ * de modo que la primera encadena a todas las demás. Mide el recorrido de rayos y la máscara
+ * ({@link DetonationEngine#resolve}) y el daño aplicado sobre ella ({@link World#applyBlastDamage}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExplosionBenchmark {
+    @Param({"15x25", "63x63", "255x255"})
+    public String mapSize;
+
+    @Param({"1", "4", "8"})
+    public int radius;
+
+    @Param({"1", "16"})
+    public int chain;
+
+    @Param({"3", "32", "256"})
+    public int enemies;
+
+    private World world;
+    private DetonationEngine detonations;
+    private final Array<PowerUp> powerUps = new Array<>();
+    private final PowerUpPool powerUpPool = new PowerUpPool();
+    private Bomb[] bombs;
+    private float[] bombX;
+    private float bombY;
+
+    @Setup
+    public void setUp() {
+        world = Fixtures.world(mapSize, enemies, 0f);
+        detonations = world.getDetonations();
+        GameMap map = world.getMap();
+        // Sin muros destructibles para que cada llamada recorra lo mismo.
+        for (int r = 0; r < map.getRows(); r++) {
+            for (int c = 0; c < map.getCols(); c++) {
+                if (map.getCell(r, c) == 2) map.setCell(r, c, 0);
+            }
+        }
+        // Fila impar: todas sus columnas interiores son suelo. Empezando en la columna 2 ningún rayo
+        // vertical pasa por el jugador (1, 1). Las bombas que no caben se descartan.
+        int row = map.getRows() / 2 | 1;
+        int first = 2;
+        int count = Math.min(chain, (map.getCols() - 4) / radius + 1);
+        bombs = new Bomb[count];
+        bombX = new float[count];
+        for (int i = 0; i < count; i++) {
+            bombs[i] = new Bomb();
+            bombX[i] = (first + i * radius) * GameMap.TILE_SIZE;
+        }
+        bombY = row * GameMap.TILE_SIZE;
+        // Una detonación previa elimina a quien esté en la máscara: se mide el recorrido, no las muertes.
+        detonate();
+    }
+
+    @Benchmark
+    public int detonate() {
+        for (int i = 0; i < bombs.length; i++) {
+            world.addBomb(bombs[i].set(bombX[i], bombY, radius, Bomb.OwnerType.ENEMY, -1));
+        }
+        detonations.ignite(bombs[0]);
+        int tiles = detonations.resolve(powerUps, powerUpPool);
+        world.applyBlastDamage();
+        for (int i = 0; i < bombs.length; i++) {
+            detonations.removeBomb(bombs[i]);
+        }
+        world.getBombs().clear();
+        return tiles;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.bomba;
+
+import java.util.Random;
+
+/**
+ * Construcción de escenarios para los benchmarks: mapas de tamaño dado con enemigos y bombas
+ * repartidos en posiciones aleatorias (semilla fija, para que cada ejecución mida lo mismo).
+ */
+final class Fixtures {
+    static final long SEED = 42L;
+
+    private Fixtures() {}
+
+    /** Convierte "filasxcolumnas" (p. ej. "15x25") en un mapa. */
+    static GameMap map(String size) {
+        int x = size.indexOf('x');
+        return new GameMap(Integer.parseInt(size.substring(0, x)), Integer.parseInt(size.substring(x + 1)));
+    }
+
+    /**
+     * Mundo con {@code enemyCount} enemigos en total y bombas en la fracción {@code bombDensity}
+     * de las celdas interiores. Las celdas donde se coloca algo se vacían para que las entidades puedan moverse.
+     * Los pools quedan precalentados, como en GameScreen.
+     */
+    static World world(String size, int enemyCount, float bombDensity) {
+        GameMap map = map(size);
+        World world = new World(map, SEED);
+        Random random = new Random(SEED);
+
+        for (int i = world.getEnemies().size; i < enemyCount; i++) {
+            int[] cell = freeInteriorCell(map, random);
+            world.spawnEnemy(cell[1] * GameMap.TILE_SIZE, cell[0] * GameMap.TILE_SIZE);
+        }
+
+        int bombCount = (int) ((map.getRows() - 2) * (map.getCols() - 2) * bombDensity);
+        for (int i = 0; i < bombCount; i++) {
+            int[] cell = freeInteriorCell(map, random);
+            world.addBomb(new Bomb(cell[1] * GameMap.TILE_SIZE, cell[0] * GameMap.TILE_SIZE, 1 + random.nextInt(3),
+                Bomb.OwnerType.ENEMY, -1));
+        }
+        world.prewarm();
+        return world;
+    }
+
+    /** Celda interior que no es muro fijo; se deja como suelo. */
+    static int[] freeInteriorCell(GameMap map, Random random) {
+        while (true) {
+            int r = 1 + random.nextInt(map.getRows() - 2);
+            int c = 1 + random.nextInt(map.getCols() - 2);
+            if (map.getCell(r, c) != 1) {
+                map.setCell(r, c, 0);
+                return new int[] { r, c };
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bomba;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Acceso al almacenamiento plano de {@link GameMap}: recorrido completo frente a consumir solo los
+ * cambios del registro, hasta mapas de 1000x1000 como los de las pruebas de carga.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameMapBenchmark {
+    @Param({"15x25", "255x255", "1000x1000"})
+    public String mapSize;
+
+    private GameMap map;
+    private int seen;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        map = Fixtures.map(mapSize);
+        seen = map.getVersion();
+    }
+
+    /** Lo que haría un consumidor sin seguimiento de cambios: mirar todas las celdas. */
+    @Benchmark
+    public int fullScan() {
+        int destructible = 0;
+        for (int r = 0; r < map.getRows(); r++) {
+            for (int c = 0; c < map.getCols(); c++) {
+                if (map.getCell(r, c) == 2) destructible++;
+            }
+        }
+        return destructible;
+    }
+
+    /** Una explosión típica (cuatro muros) y un consumidor que solo lee esos cambios. */
+    @Benchmark
+    public int breakWallsAndDrainChanges() {
+        int rows = map.getRows() - 2;
+        int cols = map.getCols() - 2;
+        for (int i = 0; i < 4; i++) {
+            int cell = next++ % (rows * cols);
+            int r = 1 + cell / cols;
+            int c = 1 + cell % cols;
+            map.setCell(r, c, map.getCell(r, c) == 0 ? 2 : 0);
+        }
+        int sum = 0;
+        for (int v = seen + 1; v <= map.getVersion(); v++) {
+            sum += map.getChangedCell(v);
+        }
+        seen = map.getVersion();
+        return sum;
+    }
+}
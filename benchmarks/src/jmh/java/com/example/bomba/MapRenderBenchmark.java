@@ -0,0 +1,60 @@
+package com.example.bomba;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Coste en CPU de enviar el mapa al batch ({@link MapRenderer#render}), entero y recortado a una vista
+ * de 800x480 en el centro con {@link ViewCuller}. Se usa un {@link RecordingBatch} en lugar de un
+ * SpriteBatch real para poder ejecutarlo sin contexto GL.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapRenderBenchmark {
+    @Param({"15x25", "63x63", "255x255"})
+    public String mapSize;
+
+    private GameMap map;
+    private MapRenderer renderer;
+    private RecordingBatch batch;
+    private ViewCuller culler;
+
+    @Setup
+    public void setUp() {
+        map = Fixtures.map(mapSize);
+        renderer = new MapRenderer(new TextureRegion());
+        batch = new RecordingBatch();
+        culler = new ViewCuller();
+        float centerX = map.getCols() * GameMap.TILE_SIZE / 2f;
+        float centerY = map.getRows() * GameMap.TILE_SIZE / 2f;
+        culler.set(centerX - 400f, centerY - 240f, 800f, 480f);
+    }
+
+    @Benchmark
+    public long render() {
+        batch.begin();
+        renderer.render(batch, map);
+        batch.end();
+        return batch.checksum();
+    }
+
+    @Benchmark
+    public long renderVisible() {
+        culler.reset();
+        batch.begin();
+        renderer.render(batch, map, culler);
+        batch.end();
+        return batch.checksum();
+    }
+}
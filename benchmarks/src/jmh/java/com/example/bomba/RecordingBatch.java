@@ -0,0 +1,86 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * {@link Batch} sin GL para benchmarks: no dibuja nada, solo cuenta las llamadas y acumula las
+ * coordenadas en una suma de control para que el JIT no pueda eliminar el trabajo del renderer.
+ */
+final class RecordingBatch implements Batch {
+    private final Color color = new Color(Color.WHITE);
+    private final Matrix4 projection = new Matrix4();
+    private final Matrix4 transform = new Matrix4();
+    private boolean drawing;
+    private long checksum;
+
+    int draws;
+    int colorChanges;
+    int flushes;
+
+    long checksum() {
+        return checksum + draws * 31L + colorChanges;
+    }
+
+    private void record(float x, float y) {
+        draws++;
+        checksum += Float.floatToRawIntBits(x) ^ Float.floatToRawIntBits(y);
+    }
+
+    @Override public void begin() { drawing = true; draws = 0; colorChanges = 0; flushes = 0; checksum = 0; }
+    @Override public void end() { drawing = false; }
+
+    @Override public void setColor(Color tint) { color.set(tint); colorChanges++; }
+    @Override public void setColor(float r, float g, float b, float a) { color.set(r, g, b, a); colorChanges++; }
+    @Override public Color getColor() { return color; }
+    @Override public void setPackedColor(float packedColor) { Color.abgr8888ToColor(color, packedColor); colorChanges++; }
+    @Override public float getPackedColor() { return color.toFloatBits(); }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight,
+                     boolean flipX, boolean flipY) { record(x, y); }
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+                     int srcHeight, boolean flipX, boolean flipY) { record(x, y); }
+    @Override
+    public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) { record(x, y); }
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, float u, float v, float u2, float v2) { record(x, y); }
+    @Override public void draw(Texture texture, float x, float y) { record(x, y); }
+    @Override public void draw(Texture texture, float x, float y, float width, float height) { record(x, y); }
+    @Override public void draw(Texture texture, float[] spriteVertices, int offset, int count) { record(spriteVertices[offset], count); }
+    @Override public void draw(TextureRegion region, float x, float y) { record(x, y); }
+    @Override public void draw(TextureRegion region, float x, float y, float width, float height) { record(x, y); }
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation) { record(x, y); }
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, boolean clockwise) { record(x, y); }
+    @Override public void draw(TextureRegion region, float width, float height, Affine2 transform) { record(width, height); }
+
+    @Override public void flush() { flushes++; }
+    @Override public void disableBlending() {}
+    @Override public void enableBlending() {}
+    @Override public void setBlendFunction(int srcFunc, int dstFunc) {}
+    @Override public void setBlendFunctionSeparate(int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {}
+    @Override public int getBlendSrcFunc() { return 0; }
+    @Override public int getBlendDstFunc() { return 0; }
+    @Override public int getBlendSrcFuncAlpha() { return 0; }
+    @Override public int getBlendDstFuncAlpha() { return 0; }
+    @Override public Matrix4 getProjectionMatrix() { return projection; }
+    @Override public Matrix4 getTransformMatrix() { return transform; }
+    @Override public void setProjectionMatrix(Matrix4 projection) { this.projection.set(projection); }
+    @Override public void setTransformMatrix(Matrix4 transform) { this.transform.set(transform); }
+    @Override public void setShader(ShaderProgram shader) {}
+    @Override public ShaderProgram getShader() { return null; }
+    @Override public boolean isBlendingEnabled() { return true; }
+    @Override public boolean isDrawing() { return drawing; }
+    @Override public void dispose() {}
+}
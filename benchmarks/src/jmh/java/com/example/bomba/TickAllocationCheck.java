@@ -0,0 +1,152 @@
+package com.example.bomba;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Comprueba que un tick (World.step + envío del mapa al batch) no reserva memoria una vez caliente.
+ *
+ * Se ejecuta con la tarea {@code benchmarks:checkAllocations} (incluida en {@code check}) y
+ * termina con error si algún tick medido reserva bytes. Usa el contador por hilo de la JVM
+ * ({@code com.sun.management.ThreadMXBean}), así que solo cuenta lo que reserva este hilo.
+ *
+ * El mundo publica sus sucesos en un {@link EventBus} con el consumidor en marcha: publicar también
+ * tiene que salir gratis (lo que reserve el consumidor, en su hilo, no se cuenta).
+ *
+ * {@link Fixtures#world} crea el {@link World} con una semilla fija, y el paseo del jugador sale de
+ * otra, así que la partida medida es siempre la misma.
+ *
+ * El jugador recupera el escudo antes de cada tick, así que no muere y la ventana medida incluye
+ * sus movimientos, sus bombas, los power-ups que recoge y los enemigos que mata. Si alguna de esas
+ * ramas no aparece en la ventana la comprobación también falla: un 0 sin ellas no demostraría nada.
+ */
+public final class TickAllocationCheck {
+    private static final int WARMUP_TICKS = 20_000;
+    private static final int MEASURED_TICKS = 5_000;
+    // Una reserva aislada puede venir de la propia JVM (recompilaciones); una reserva del bucle
+    // se repite en todas las rondas. Basta con una ronda completa sin reservas.
+    private static final int MAX_ROUNDS = 3;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private TickAllocationCheck() {}
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(thread); // la primera llamada puede reservar
+
+        World world = Fixtures.world("31x31", 24, 0.02f);
+        TickCounts counts = new TickCounts(world.getPlayer().getId(), WARMUP_TICKS + MAX_ROUNDS * MEASURED_TICKS + 1);
+        EventBus events = new EventBus(counts);
+        events.start();
+        world.setEvents(events);
+        MapRenderer mapRenderer = new MapRenderer(new TextureRegion());
+        RecordingBatch batch = new RecordingBatch();
+        PlayerInput input = new PlayerInput();
+        Random random = new Random(Fixtures.SEED);
+
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            tick(world, input, random, mapRenderer, batch, i);
+        }
+
+        int tick = WARMUP_TICKS;
+        int windowStart;
+        long total = 0;
+        long worstTick = 0;
+        int round = 0;
+        do {
+            windowStart = world.getTick();
+            total = 0;
+            worstTick = 0;
+            for (int i = 0; i < MEASURED_TICKS; i++) {
+                long before = threads.getThreadAllocatedBytes(thread);
+                tick(world, input, random, mapRenderer, batch, tick++);
+                long allocated = threads.getThreadAllocatedBytes(thread) - before;
+                total += allocated;
+                worstTick = Math.max(worstTick, allocated);
+            }
+            round++;
+        } while (total > 0 && round < MAX_ROUNDS);
+        int windowEnd = world.getTick();
+
+        events.close();
+        // Solo cuenta lo que pasó en la ronda que se da por buena
+        long bombs = TickCounts.sum(counts.playerBombs, windowStart, windowEnd);
+        long picked = TickCounts.sum(counts.picked, windowStart, windowEnd);
+        long kills = TickCounts.sum(counts.kills, windowStart, windowEnd);
+        System.out.println("En la ventana medida: bombas del jugador " + bombs + ", power-ups recogidos " + picked
+            + ", enemigos muertos " + kills + ", jugador vivo " + world.getPlayer().isAlive()
+            + "; sucesos descartados " + events.getDropped());
+        System.out.println("Ticks medidos: " + MEASURED_TICKS + " (ronda " + round + "), bytes reservados: " + total
+            + " (peor tick: " + worstTick + " B)");
+        if (!world.getPlayer().isAlive() || bombs == 0 || picked == 0 || kills == 0) {
+            System.err.println("La ventana medida no recorre todas las ramas del paso.");
+            System.exit(1);
+        }
+        if (total > 0) {
+            System.err.println("El bucle de actualización reserva memoria en estado estable.");
+            System.exit(1);
+        }
+    }
+
+    private static void tick(World world, PlayerInput input, Random random, MapRenderer mapRenderer,
+                             RecordingBatch batch, int i) {
+        // Paseo al azar con alguna bomba, para ejercitar todas las ramas del paso. Con el escudo
+        // renovado las explosiones y los enemigos se lo quitan, pero no lo matan.
+        if (i % 20 == 0) {
+            input.clear();
+            int choice = random.nextInt(6);
+            if (choice < 4) {
+                input.direction = DIRECTIONS[choice];
+            } else {
+                input.bomb = true;
+            }
+        }
+        world.getPlayer().activateShield();
+        world.step(input);
+
+        batch.begin();
+        mapRenderer.render(batch, world.getMap());
+        batch.end();
+    }
+
+    /**
+     * Por tick, las bombas del jugador, los power-ups recogidos y los enemigos muertos, para contar
+     * los de la ventana medida. Lo escribe el hilo consumidor del bus; se lee después de cerrarlo.
+     */
+    private static final class TickCounts implements EventSink {
+        private final int playerId;
+        final int[] playerBombs, picked, kills;
+
+        TickCounts(int playerId, int ticks) {
+            this.playerId = playerId;
+            playerBombs = new int[ticks];
+            picked = new int[ticks];
+            kills = new int[ticks];
+        }
+
+        @Override
+        public void accept(GameEvent event) {
+            int tick = event.getTick();
+            if (tick >= kills.length) return;
+            switch (event.getType()) {
+                case GameEvent.BOMB_PLACED:
+                    if (event.getDetail() == playerId) playerBombs[tick]++;
+                    break;
+                case GameEvent.POWER_UP_PICKED: picked[tick]++; break;
+                case GameEvent.ENEMY_KILLED: kills[tick]++; break;
+                default: break;
+            }
+        }
+
+        /** Suma de {@code perTick} en los ticks [from, to). */
+        static long sum(int[] perTick, int from, int to) {
+            long sum = 0;
+            for (int t = from; t < to; t++) sum += perTick[t];
+            return sum;
+        }
+    }
+}
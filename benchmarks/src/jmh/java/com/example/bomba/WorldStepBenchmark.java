@@ -0,0 +1,47 @@
+package com.example.bomba;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Coste de un tick completo de simulación (equivalente al antiguo GameScreen.update()).
+ *
+ * El mundo se reconstruye en cada iteración: durante una iteración las bombas explotan y los
+ * enemigos mueren, así que el resultado es la media de una partida "en curso", no un estado fijo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorldStepBenchmark {
+    @Param({"15x25", "63x63", "255x255"})
+    public String mapSize;
+
+    @Param({"3", "32", "256"})
+    public int enemies;
+
+    @Param({"0", "0.01", "0.05"})
+    public float bombDensity;
+
+    private World world;
+    private final PlayerInput input = new PlayerInput();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        world = Fixtures.world(mapSize, enemies, bombDensity);
+    }
+
+    @Benchmark
+    public World step() {
+        world.step(input);
+        return world;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.bomba;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Guarda los sucesos en binario para analizarlos después: una cabecera ({@code BMEV}, versión) y
+ * un registro de tamaño fijo por suceso (tipo en un byte y tick, sujeto, celda y dato como enteros).
+ *
+ * Los errores de escritura no llegan a la partida: el primero se recuerda en {@link #getError()} y
+ * a partir de ahí se deja de escribir.
+ */
+public class BinaryEventSink implements EventSink {
+    private static final byte[] MAGIC = { 'B', 'M', 'E', 'V' };
+    private static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private IOException error;
+
+    public BinaryEventSink(OutputStream output) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(output));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    @Override
+    public void accept(GameEvent event) {
+        if (error != null) return;
+        try {
+            out.writeByte(event.getType());
+            out.writeInt(event.getTick());
+            out.writeInt(event.getSubject());
+            out.writeInt(event.getTile());
+            out.writeInt(event.getDetail());
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (error != null) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            if (error == null) error = e;
+        }
+    }
+
+    /** Primer error de escritura, o null. */
+    public IOException getError() { return error; }
+
+    /**
+     * Lee un fichero escrito por este sumidero y entrega sus sucesos al sumidero dado.
+     *
+     * @return sucesos leídos.
+     */
+    public static int read(DataInputStream in, EventSink sink) throws IOException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (in.readByte() != MAGIC[i]) throw new IOException("No es un fichero de sucesos");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Versión de sucesos no soportada: " + version);
+        GameEvent event = new GameEvent();
+        int count = 0;
+        int type;
+        while ((type = in.read()) >= 0) {
+            event.type = type;
+            event.tick = in.readInt();
+            event.subject = in.readInt();
+            event.tile = in.readInt();
+            event.detail = in.readInt();
+            sink.accept(event);
+            count++;
+        }
+        return count;
+    }
+}
@@ -1,92 +1,86 @@
 // Bomb.java
 package com.example.bomba;
 
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.utils.Array;
-
-public class Bomb {
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.badlogic.gdx.utils.Pool;
+
+public class Bomb implements Pool.Poolable {
     public enum OwnerType { PLAYER, ENEMY }
 
     private float x, y;
     private int radius;
     private float fuseTime;
     private boolean exploded;
-    private Texture bombTexture;
-    private float explosionTime;
     public static final float EXPLOSION_DURATION = 0.5f;
-
-    private Animation<TextureRegion> explosionAnimation;
-    private Texture[] explosionTextures;
+    public static final float FUSE_TIME = 3.0f;
+    // Probabilidad de que un muro destruido deje un power-up
+    public static final float POWER_UP_CHANCE = 0.3f;
 
     private OwnerType ownerType;
     private int ownerId;
 
+    // Lo asigna World al colocarla; identifica la bomba en las instantáneas de red
+    int id;
+
+    // Celda y siguiente bomba de la misma celda en DetonationEngine
+    int cell = -1;
+    Bomb nextInCell;
+
+    /** Bomba sin colocar, para {@link BombPool}. Se inicializa con {@link #set}. */
+    public Bomb() {
+    }
+
     public Bomb(float x, float y, int radius, OwnerType ownerType, int ownerId) {
+        set(x, y, radius, ownerType, ownerId);
+    }
+
+    public Bomb set(float x, float y, int radius, OwnerType ownerType, int ownerId) {
         this.x = x;
         this.y = y;
         this.radius = radius;
         this.ownerType = ownerType;
         this.ownerId = ownerId;
-        this.fuseTime = 3.0f;
+        this.fuseTime = FUSE_TIME;
         this.exploded = false;
-        bombTexture = new Texture("btn_bomb.png");
-        explosionTime = 0f;
-
-        Texture exp1 = new Texture("bomba/explosion_derecha_izquierda.png");
-        Texture exp2 = new Texture("bomba/explosion_derechaYizquierda_sinFinal.png");
-        Texture exp3 = new Texture("bomba/explosion_final_abajo.png");
-        Texture exp4 = new Texture("bomba/explosion_final_arriba.png");
-        Texture exp5 = new Texture("bomba/explosion_medio.png");
-        Texture exp6 = new Texture("bomba/explosion_SinFinal_arribaYabajo.png");
-
-        explosionTextures = new Texture[]{ exp1, exp2, exp3, exp4, exp5, exp6 };
-        TextureRegion[] expFrames = new TextureRegion[explosionTextures.length];
-        for (int i = 0; i < explosionTextures.length; i++) {
-            expFrames[i] = new TextureRegion(explosionTextures[i]);
-        }
-        explosionAnimation = new Animation<TextureRegion>(0.1f, expFrames);
+        return this;
     }
 
     public void update(float delta) {
         if (!exploded) {
             fuseTime -= delta;
-        } else {
-            explosionTime += delta;
         }
     }
 
-    public void triggerExplosion(GameMap map, Array<PowerUp> powerUps) {
-        if (!exploded) {
-            exploded = true;
-            int bombCol = (int)(x / GameMap.TILE_SIZE);
-            int bombRow = (int)(y / GameMap.TILE_SIZE);
-            int[][] directions = { {-1, 0}, {1, 0}, {0, -1}, {0, 1} };
-            for (int[] dir : directions) {
-                for (int i = 1; i <= radius; i++) {
-                    int r = bombRow + i * dir[0];
-                    int c = bombCol + i * dir[1];
-                    if (r < 0 || r >= map.getRows() || c < 0 || c >= map.getCols()) break;
-                    int cell = map.getCell(r, c);
-                    if (cell == 1) break;
-                    if (cell == 2) {
-                        map.setCell(r, c, 0);
-                        if (MathUtils.random() < 0.3f) {
-                            float cellX = c * GameMap.TILE_SIZE;
-                            float cellY = r * GameMap.TILE_SIZE;
-                            int randomIndex = MathUtils.random(PowerUp.PowerUpType.values().length - 1);
-                            powerUps.add(new PowerUp(PowerUp.PowerUpType.values()[randomIndex], cellX, cellY));
-                        }
-                        break;
-                    }
-                }
-            }
-        }
+    /** Marca la bomba como detonada; la explosión la resuelve {@link DetonationEngine}. */
+    void explode() {
+        exploded = true;
+    }
+
+    /** Estado de una bomba pendiente para las instantáneas de {@link World#write}. */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(id);
+        out.writeFloat(x);
+        out.writeFloat(y);
+        out.writeInt(radius);
+        out.writeFloat(fuseTime);
+        out.writeByte(ownerType.ordinal());
+        out.writeInt(ownerId);
+    }
+
+    Bomb read(DataInput in) throws IOException {
+        int id = in.readInt();
+        set(in.readFloat(), in.readFloat(), in.readInt(), null, 0);
+        fuseTime = in.readFloat();
+        ownerType = OwnerType.values()[in.readByte()];
+        ownerId = in.readInt();
+        this.id = id;
+        return this;
     }
 
+    public int getId() { return id; }
     public float getFuseTime() { return fuseTime; }
     public boolean hasExploded() { return exploded; }
     public float getX() { return x; }
@@ -95,23 +89,21 @@ public class Bomb {
         return radius;
     }
 
-    public boolean isFinished() { return exploded && explosionTime > EXPLOSION_DURATION; }
     public OwnerType getOwnerType() { return ownerType; }
     public int getOwnerId() { return ownerId; }
 
-    public void render(SpriteBatch batch) {
-        if (!exploded) {
-            batch.draw(bombTexture, x, y, GameMap.TILE_SIZE, GameMap.TILE_SIZE);
-        } else {
-            TextureRegion expFrame = explosionAnimation.getKeyFrame(explosionTime, false);
-            batch.draw(expFrame, x, y, GameMap.TILE_SIZE, GameMap.TILE_SIZE);
-        }
-    }
-
-    public void dispose() {
-        bombTexture.dispose();
-        for (Texture t : explosionTextures) {
-            t.dispose();
-        }
+    /** Lo llama el pool al devolver la bomba: la deja sin dueño y sin estado de la partida anterior. */
+    @Override
+    public void reset() {
+        x = 0f;
+        y = 0f;
+        radius = 0;
+        fuseTime = 0f;
+        exploded = false;
+        ownerType = null;
+        ownerId = 0;
+        id = 0;
+        cell = -1;
+        nextInCell = null;
     }
 }
@@ -0,0 +1,15 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Pool de bombas de una partida. {@link World#prewarm()} lo llena al arrancar, así que colocar una
+ * bomba solo saca un objeto de la lista libre y al terminar la explosión {@link #free} lo devuelve
+ * tras llamar a {@link Bomb#reset()}.
+ */
+public class BombPool extends Pool<Bomb> {
+    @Override
+    protected Bomb newObject() {
+        return new Bomb();
+    }
+}
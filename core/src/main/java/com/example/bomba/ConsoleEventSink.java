@@ -0,0 +1,36 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Escribe cada suceso en el registro de la aplicación ({@code Gdx.app.log}, que en Android va a
+ * logcat) o, sin aplicación de libGDX (herramientas de línea de comandos), en la salida estándar.
+ * Por defecto solo los que cuentan algo de la partida: muertes, escudos y final.
+ */
+public class ConsoleEventSink implements EventSink {
+    private static final String TAG = "Partida";
+    private final boolean verbose;
+
+    public ConsoleEventSink() {
+        this(false);
+    }
+
+    /** @param verbose también bombas, muros y power-ups. */
+    public ConsoleEventSink(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    @Override
+    public void accept(GameEvent event) {
+        if (!verbose && !isNotable(event.getType())) return;
+        if (Gdx.app != null) {
+            Gdx.app.log(TAG, event.toString());
+        } else {
+            System.out.println(event);
+        }
+    }
+
+    private static boolean isNotable(int type) {
+        return type == GameEvent.SHIELD_LOST || type == GameEvent.PLAYER_KILLED || type == GameEvent.MATCH_END;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.bomba;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Mapa de peligro: para cada celda, el instante más temprano en que la alcanzará alguna bomba
+ * pendiente ({@link #SAFE} si ninguna). Los enemigos lo consultan en O(1) para huir y para decidir
+ * si pueden poner una bomba sin quedar atrapados.
+ *
+ * Tiene en cuenta las reacciones en cadena: una bomba que está en la cruz de otra explota cuando
+ * llega esa explosión si es antes que su propia mecha, y sus rayos se anotan con ese instante.
+ *
+ * Se actualiza por partes: colocar una bomba solo traza sus rayos (y los de las bombas que adelanta);
+ * tras una detonación solo se borran las celdas de su máscara y se vuelven a trazar las bombas
+ * pendientes sobre ellas. Nunca se recorre el mapa entero.
+ *
+ * Las celdas que pasan de seguras a amenazadas o al revés se anotan en un registro circular, como
+ * el de {@link GameMap}, para que {@link Pathfinding} solo toque esas fuentes de su campo hacia
+ * celdas seguras.
+ */
+public class DangerMap {
+    public static final float SAFE = Float.POSITIVE_INFINITY;
+    public static final int THREAT_LOG_SIZE = 1024;
+
+    private final GameMap map;
+    private final DetonationEngine detonations;
+    private final int rows, cols;
+    private final float[] blastTime;
+    private final Array<Bomb> queue = new Array<>(false, 16);
+    private float now;
+    private int version;
+    // Celdas que han cambiado de segura a amenazada o al revés, numeradas con threatChanges
+    private final int[] threatLog = new int[THREAT_LOG_SIZE];
+    private int threatChanges;
+
+    public DangerMap(GameMap map, DetonationEngine detonations) {
+        this.map = map;
+        this.detonations = detonations;
+        this.rows = map.getRows();
+        this.cols = map.getCols();
+        blastTime = new float[rows * cols];
+        Arrays.fill(blastTime, SAFE);
+    }
+
+    /** Reloj de la partida, para que una instantánea restaurada calcule los mismos instantes. */
+    float getTime() { return now; }
+    void setTime(float time) { now = time; }
+
+    /** Avanza el reloj con el que se miden los instantes de explosión. */
+    public void advance(float delta) {
+        now += delta;
+    }
+
+    /** Anota los rayos de una bomba recién colocada (ya registrada en {@link DetonationEngine}). */
+    public void addBomb(Bomb bomb) {
+        queue.add(bomb);
+        castQueued();
+    }
+
+    /**
+     * Tras una detonación: olvida las celdas de la máscara del tick y vuelve a trazar las bombas que
+     * siguen pendientes, cuyos rayos pueden pasar por ahí o llegar más lejos por los muros rotos.
+     */
+    public void detonated(Array<Bomb> pending) {
+        for (int i = 0; i < detonations.getBlastSize(); i++) {
+            int tile = detonations.getBlastTile(i);
+            if (blastTime[tile] == SAFE) continue;
+            blastTime[tile] = SAFE;
+            logThreatChange(tile);
+        }
+        for (int i = 0; i < pending.size; i++) {
+            queue.add(pending.get(i));
+        }
+        castQueued();
+        version++;
+    }
+
+    private void castQueued() {
+        // Las bombas adelantadas por otra se encolan y se trazan de nuevo con el instante nuevo
+        for (int q = 0; q < queue.size; q++) {
+            Bomb bomb = queue.get(q);
+            float time = Math.min(now + bomb.getFuseTime(), blastTime[bomb.cell]);
+            int row = bomb.cell / cols;
+            int col = bomb.cell % cols;
+            mark(bomb.cell, time, bomb);
+            for (int d = 0; d < FlowField.NEIGHBORS.length; d++) {
+                for (int step = 1; step <= bomb.getRadius(); step++) {
+                    int r = row + step * FlowField.NEIGHBORS[d][0];
+                    int c = col + step * FlowField.NEIGHBORS[d][1];
+                    if (r < 0 || r >= rows || c < 0 || c >= cols) break;
+                    int cell = map.getCell(r, c);
+                    if (cell == 1) break;
+                    mark(r * cols + c, time, bomb);
+                    if (cell == 2) break;
+                }
+            }
+        }
+        queue.clear();
+        version++;
+    }
+
+    private void mark(int tile, float time, Bomb source) {
+        if (time >= blastTime[tile]) return;
+        if (blastTime[tile] == SAFE) logThreatChange(tile);
+        blastTime[tile] = time;
+        for (Bomb b = detonations.firstBombAt(tile); b != null; b = b.nextInCell) {
+            if (b != source) queue.add(b);
+        }
+    }
+
+    private void logThreatChange(int tile) {
+        threatChanges++;
+        threatLog[threatChanges & (THREAT_LOG_SIZE - 1)] = tile;
+    }
+
+    /** Número de veces que una celda ha pasado de segura a amenazada o al revés. */
+    public int getThreatChanges() { return threatChanges; }
+
+    /** Si el registro aún guarda todos los cambios de amenaza posteriores a {@code since}. */
+    public boolean hasThreatChangesSince(int since) {
+        return threatChanges - since <= THREAT_LOG_SIZE;
+    }
+
+    /**
+     * Celda del cambio de amenaza número {@code change}, para cambios en
+     * (since, {@link #getThreatChanges()}] con {@link #hasThreatChangesSince(int)} verdadero. Una celda
+     * puede aparecer varias veces; su estado actual es el de {@link #isThreatened(int)}.
+     */
+    public int getThreatChangedTile(int change) {
+        return threatLog[change & (THREAT_LOG_SIZE - 1)];
+    }
+
+    /**
+     * Si tras poner una bomba de radio {@code radius} en la celda quedaría una salida: una celda de
+     * suelo sin peligro fuera de su cruz, alcanzable yendo en línea recta o girando una vez sin pisar
+     * celdas amenazadas.
+     */
+    public boolean canEscape(int row, int col, int radius) {
+        for (int d = 0; d < FlowField.NEIGHBORS.length; d++) {
+            int dr = FlowField.NEIGHBORS[d][0];
+            int dc = FlowField.NEIGHBORS[d][1];
+            for (int i = 1; i <= radius + 1; i++) {
+                int r = row + i * dr;
+                int c = col + i * dc;
+                if (!isSafeFloor(r, c)) break;
+                if (i > radius) return true;
+                // Girar: las celdas a los lados del rayo ya quedan fuera de la cruz
+                if (isSafeFloor(r + dc, c + dr) || isSafeFloor(r - dc, c - dr)) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isSafeFloor(int row, int col) {
+        return map.isCellPassable(row, col) && !isThreatened(row, col);
+    }
+
+    /** Segundos hasta que una explosión alcance la celda, o {@link #SAFE}. */
+    public float timeUntilBlast(int row, int col) {
+        return blastTime[row * cols + col] - now;
+    }
+
+    public boolean isThreatened(int row, int col) {
+        return blastTime[row * cols + col] != SAFE;
+    }
+
+    public boolean isThreatened(int tile) {
+        return blastTime[tile] != SAFE;
+    }
+
+    /** Cambia cada vez que se modifica alguna celda; sirve para saber si hay que recalcular algo derivado. */
+    public int getVersion() { return version; }
+}
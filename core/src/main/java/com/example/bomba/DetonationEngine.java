@@ -0,0 +1,279 @@
+package com.example.bomba;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Resuelve las explosiones de un tick.
+ *
+ * Las bombas cuya mecha termina se encolan con {@link #ignite(Bomb)} y {@link #resolve} las procesa
+ * en anchura: cada rayo que alcanza otra bomba la encola también, así que una reacción en cadena
+ * entera se resuelve en una sola pasada. El recorrido de los rayos (que se paran en los muros) se
+ * hace una única vez y deja la máscara de celdas alcanzadas en este tick; esa misma máscara sirve
+ * para romper muros, para que {@link World} aplique el daño y para las llamas que dibuja
+ * {@link WorldRenderer}.
+ *
+ * Todo son arrays del tamaño del mapa reservados al crear el motor: resolver no reserva memoria.
+ */
+public class DetonationEngine {
+    // Pieza de llama que se dibuja en cada celda
+    public static final byte NONE = 0;
+    public static final byte CENTER = 1;
+    public static final byte HORIZONTAL = 2;
+    public static final byte VERTICAL = 3;
+    public static final byte END_UP = 4;
+    public static final byte END_DOWN = 5;
+    public static final byte END_LEFT = 6;
+    public static final byte END_RIGHT = 7;
+
+    // Rayos de la explosión (fila, columna) y pieza de punta de cada uno
+    private static final int[][] DIRECTIONS = { {1, 0}, {-1, 0}, {0, -1}, {0, 1} };
+    private static final byte[] END_PIECES = { END_UP, END_DOWN, END_LEFT, END_RIGHT };
+    private static final PowerUp.PowerUpType[] POWER_UP_TYPES = PowerUp.PowerUpType.values();
+
+    // Sin dueño inmune en la celda: la alcanzó una bomba del jugador o bombas de varios enemigos
+    public static final int NO_IMMUNE = 0;
+
+    private final GameMap map;
+    private final int rows, cols;
+    private final RandomXS128 random;
+
+    // Bombas colocadas en cada celda, enlazadas por Bomb.nextInCell
+    private final Bomb[] bombHeads;
+
+    // Cola de la reacción en cadena
+    private final Array<Bomb> queue = new Array<>(false, 16);
+
+    // Máscara del tick: una celda pertenece a ella si su sello coincide con el tick actual
+    private final int[] maskStamp;
+    private int stamp;
+    private final int[] maskTiles;
+    private int maskSize;
+    private final int[] immuneEnemy;
+    private final int[] brokenWalls;
+    private int brokenCount;
+
+    // Llamas visibles: tiempo restante y pieza por celda, y lista compacta de celdas encendidas
+    private final float[] flameTime;
+    private final byte[] flamePiece;
+    private final int[] flameTiles;
+    private int flameCount;
+
+    public DetonationEngine(GameMap map, RandomXS128 random) {
+        this.map = map;
+        this.random = random;
+        this.rows = map.getRows();
+        this.cols = map.getCols();
+        int tiles = rows * cols;
+        bombHeads = new Bomb[tiles];
+        maskStamp = new int[tiles];
+        maskTiles = new int[tiles];
+        immuneEnemy = new int[tiles];
+        brokenWalls = new int[tiles];
+        flameTime = new float[tiles];
+        flamePiece = new byte[tiles];
+        flameTiles = new int[tiles];
+    }
+
+    /** Registra una bomba recién colocada en su celda para que las explosiones puedan encadenarla. */
+    public void addBomb(Bomb bomb) {
+        int cell = tileOf(bomb);
+        bomb.cell = cell;
+        bomb.nextInCell = bombHeads[cell];
+        bombHeads[cell] = bomb;
+    }
+
+    /** Quita la bomba de su celda antes de devolverla al pool. */
+    public void removeBomb(Bomb bomb) {
+        int cell = bomb.cell;
+        if (cell < 0) return;
+        Bomb prev = null;
+        for (Bomb b = bombHeads[cell]; b != null; prev = b, b = b.nextInCell) {
+            if (b == bomb) {
+                if (prev == null) bombHeads[cell] = b.nextInCell;
+                else prev.nextInCell = b.nextInCell;
+                break;
+            }
+        }
+        bomb.nextInCell = null;
+        bomb.cell = -1;
+    }
+
+    /** Primera bomba colocada en la celda (las demás siguen por {@link Bomb#nextInCell}), o null. */
+    Bomb firstBombAt(int tile) {
+        return bombHeads[tile];
+    }
+
+    /** Marca la bomba como detonada y la encola. Ignora las que ya explotaron en este tick o antes. */
+    public void ignite(Bomb bomb) {
+        if (!bomb.hasExploded()) {
+            bomb.explode();
+            queue.add(bomb);
+        }
+    }
+
+    /**
+     * Procesa la cola completa: traza los rayos de cada bomba, encadena las bombas alcanzadas,
+     * rompe los muros destructibles de la máscara (con su posible power-up) y enciende las llamas.
+     * Los muros se rompen al final, de modo que un muro detiene todos los rayos del mismo tick.
+     *
+     * @return número de celdas de la máscara de este tick (0 si no explotó nada).
+     */
+    public int resolve(Array<PowerUp> powerUps, Pool<PowerUp> powerUpPool) {
+        if (queue.size == 0) {
+            maskSize = 0;
+            return 0;
+        }
+        stamp++;
+        maskSize = 0;
+        brokenCount = 0;
+
+        // La cola crece mientras se recorre: las bombas encadenadas se procesan en este mismo bucle
+        for (int q = 0; q < queue.size; q++) {
+            Bomb bomb = queue.get(q);
+            int owner = bomb.getOwnerType() == Bomb.OwnerType.ENEMY ? bomb.getOwnerId() : NO_IMMUNE;
+            int row = bomb.cell / cols;
+            int col = bomb.cell % cols;
+            mark(bomb.cell, CENTER, owner);
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                int[] dir = DIRECTIONS[d];
+                for (int i = 1; i <= bomb.getRadius(); i++) {
+                    int r = row + i * dir[0];
+                    int c = col + i * dir[1];
+                    if (r < 0 || r >= rows || c < 0 || c >= cols) break;
+                    int cell = map.getCell(r, c);
+                    if (cell == 1) break;
+                    int tile = r * cols + c;
+                    boolean end = cell == 2 || i == bomb.getRadius() || blocked(r + dir[0], c + dir[1]);
+                    mark(tile, end ? END_PIECES[d] : (dir[0] != 0 ? VERTICAL : HORIZONTAL), owner);
+                    if (cell == 2) break;
+                }
+            }
+        }
+        queue.clear();
+
+        for (int i = 0; i < brokenCount; i++) {
+            int tile = brokenWalls[i];
+            int r = tile / cols;
+            int c = tile % cols;
+            map.setCell(r, c, 0);
+            if (random.nextFloat() < Bomb.POWER_UP_CHANCE) {
+                int randomIndex = random.nextInt(POWER_UP_TYPES.length);
+                powerUps.add(powerUpPool.obtain().set(POWER_UP_TYPES[randomIndex],
+                    c * GameMap.TILE_SIZE, r * GameMap.TILE_SIZE));
+            }
+        }
+        return maskSize;
+    }
+
+    /** Apaga las llamas que ya cumplieron {@link Bomb#EXPLOSION_DURATION}. */
+    public void updateFlames(float delta) {
+        for (int i = flameCount - 1; i >= 0; i--) {
+            int tile = flameTiles[i];
+            flameTime[tile] -= delta;
+            if (flameTime[tile] <= 0f) {
+                flameTime[tile] = 0f;
+                flamePiece[tile] = NONE;
+                flameTiles[i] = flameTiles[--flameCount];
+            }
+        }
+    }
+
+    /** Enciende una llama recibida del servidor en una réplica de red. */
+    void lightFlame(int tile, byte piece) {
+        if (flameTime[tile] <= 0f) {
+            flameTiles[flameCount++] = tile;
+        }
+        flameTime[tile] = Bomb.EXPLOSION_DURATION;
+        flamePiece[tile] = piece;
+    }
+
+    /** Llamas encendidas, para las instantáneas de {@link World#write}. */
+    void writeFlames(DataOutput out) throws IOException {
+        out.writeInt(flameCount);
+        for (int i = 0; i < flameCount; i++) {
+            int tile = flameTiles[i];
+            out.writeInt(tile);
+            out.writeFloat(flameTime[tile]);
+            out.writeByte(flamePiece[tile]);
+        }
+    }
+
+    void readFlames(DataInput in) throws IOException {
+        flameCount = in.readInt();
+        for (int i = 0; i < flameCount; i++) {
+            int tile = in.readInt();
+            flameTiles[i] = tile;
+            flameTime[tile] = in.readFloat();
+            flamePiece[tile] = in.readByte();
+        }
+    }
+
+    private boolean blocked(int r, int c) {
+        return r < 0 || r >= rows || c < 0 || c >= cols || map.getCell(r, c) == 1;
+    }
+
+    private void mark(int tile, byte piece, int owner) {
+        if (maskStamp[tile] != stamp) {
+            maskStamp[tile] = stamp;
+            maskTiles[maskSize++] = tile;
+            immuneEnemy[tile] = owner;
+            if (map.getCell(tile) == 2) {
+                brokenWalls[brokenCount++] = tile;
+            }
+            // Una bomba alcanzada por el rayo explota en este mismo tick
+            for (Bomb b = bombHeads[tile]; b != null; b = b.nextInCell) {
+                ignite(b);
+            }
+        } else if (immuneEnemy[tile] != owner) {
+            immuneEnemy[tile] = NO_IMMUNE;
+        }
+
+        if (flameTime[tile] <= 0f) {
+            flameTiles[flameCount++] = tile;
+        }
+        flameTime[tile] = Bomb.EXPLOSION_DURATION;
+        flamePiece[tile] = merge(flamePiece[tile], piece);
+    }
+
+    /** Pieza que queda cuando dos rayos pasan por la misma celda. */
+    private static byte merge(byte current, byte piece) {
+        if (current == NONE || current == piece) return piece;
+        if (current == CENTER || piece == CENTER) return CENTER;
+        boolean currentVertical = current == VERTICAL || current == END_UP || current == END_DOWN;
+        boolean pieceVertical = piece == VERTICAL || piece == END_UP || piece == END_DOWN;
+        // Un rayo horizontal y otro vertical se cruzan
+        if (currentVertical != pieceVertical) return CENTER;
+        // Mismo eje: el tramo continuo gana a la punta
+        return currentVertical ? VERTICAL : HORIZONTAL;
+    }
+
+    private int tileOf(Bomb bomb) {
+        int col = MathUtils.clamp((int) (bomb.getX() / GameMap.TILE_SIZE), 0, cols - 1);
+        int row = MathUtils.clamp((int) (bomb.getY() / GameMap.TILE_SIZE), 0, rows - 1);
+        return row * cols + col;
+    }
+
+    /** Celdas alcanzadas en el último {@link #resolve}, como índice fila * columnas + columna. */
+    public int getBlastSize() { return maskSize; }
+    public int getBlastTile(int i) { return maskTiles[i]; }
+
+    /** Muros rotos en el último {@link #resolve}. */
+    public int getWallsBroken() { return brokenCount; }
+    /** Celda del muro i-ésimo roto en el último {@link #resolve}. */
+    public int getBrokenWall(int i) { return brokenWalls[i]; }
+
+    /** Id del enemigo al que no afecta la explosión en esta celda, o {@link #NO_IMMUNE}. */
+    public int getImmuneEnemy(int tile) { return immuneEnemy[tile]; }
+
+    public int getFlameCount() { return flameCount; }
+    public int getFlameTile(int i) { return flameTiles[i]; }
+    public byte getFlamePiece(int tile) { return flamePiece[tile]; }
+    public int getCols() { return cols; }
+}
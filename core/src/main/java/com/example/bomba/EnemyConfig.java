@@ -0,0 +1,29 @@
+package com.example.bomba;
+
+/**
+ * Parámetros ajustables de la IA de los enemigos.
+ *
+ * Es inmutable y cada {@link World} recibe el suyo, así que varias partidas con parámetros
+ * distintos pueden simularse a la vez en hilos distintos (BatchRunner) sin compartir estado.
+ */
+public final class EnemyConfig {
+    public static final EnemyConfig DEFAULT = new EnemyConfig(80f, 3.0f, 2);
+
+    // Píxeles por segundo
+    public final float speed;
+    // Segundos entre dos bombas del mismo enemigo
+    public final float bombCooldownTime;
+    // Distancia (en coste de Pathfinding) a la que el enemigo ataca con una bomba
+    public final int attackDistance;
+
+    public EnemyConfig(float speed, float bombCooldownTime, int attackDistance) {
+        this.speed = speed;
+        this.bombCooldownTime = bombCooldownTime;
+        this.attackDistance = attackDistance;
+    }
+
+    @Override
+    public String toString() {
+        return "speed=" + speed + ", bombCooldownTime=" + bombCooldownTime + ", attackDistance=" + attackDistance;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.bomba;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Estado de los enemigos de un {@link World} como estructura de arrays: posición, destino,
+ * velocidad, dirección, recarga y si sigue vivo, cada campo en su array primitivo y el enemigo i en
+ * la posición i de todos ellos.
+ *
+ * La simulación recorre los arrays de forma lineal por sistemas, en este orden dentro de cada paso:
+ * {@link #savePositions()}, {@link #tickCooldowns}, las decisiones de los que han llegado al centro
+ * de su celda ({@link #isAtTarget} y {@link #decide}, que son los únicos que usan el generador y los
+ * campos de caminos) y {@link #move}. Mover a un enemigo no cambia lo que decide otro (no chocan entre
+ * sí), así que el resultado es el mismo que actualizándolos uno a uno y cada sistema es un bucle
+ * sobre datos contiguos, sin saltar de objeto en objeto.
+ *
+ * Los {@link Enemy} son solo vistas del índice {@link Enemy#slot}, para quien no está en el bucle
+ * caliente (dibujo, red, bot). Quitar un enemigo mueve el último a su hueco en todos los arrays y en
+ * su vista, como hacía el array no ordenado de enemigos. Los arrays crecen al doble al llenarse: en
+ * partida solo se añaden enemigos al empezar.
+ *
+ * En las arenas grandes ({@link World#setActiveRadius}) los enemigos de bloques lejanos quedan
+ * congelados ({@link #freezeOutside}): no cuentan la recarga, no deciden ni se mueven.
+ */
+public class EnemyStore {
+    private static final int BOMB_RADIUS = 1;
+
+    // Generador de la partida (World): con la misma semilla se toman las mismas decisiones
+    private final RandomXS128 random;
+    private final EnemyConfig config;
+    private final Array<Enemy> views = new Array<>(false, 16);
+    private int size;
+
+    int[] ids;
+    float[] x, y;
+    // Posición al empezar el último paso, para interpolar el dibujo entre pasos
+    float[] prevX, prevY;
+    // Centro de la celda hacia la que avanza; cuando x, y lo alcanzan se decide la siguiente
+    float[] targetX, targetY;
+    float[] speed;
+    // Mismo orden que FlowField.NEIGHBORS: 0 arriba, 1 abajo, 2 izquierda, 3 derecha
+    byte[] direction;
+    float[] stateTime;
+    float[] bombCooldown;
+    boolean[] alive;
+    // Fuera de los bloques activos en este paso; todo false si no se limita la simulación
+    boolean[] frozen;
+
+    public EnemyStore(RandomXS128 random, EnemyConfig config) {
+        this(random, config, 16);
+    }
+
+    public EnemyStore(RandomXS128 random, EnemyConfig config, int capacity) {
+        this.random = random;
+        this.config = config;
+        resize(Math.max(1, capacity));
+    }
+
+    /** Añade un enemigo con su dirección inicial al azar y devuelve su vista. */
+    Enemy add(int id, float x, float y) {
+        if (size == ids.length) resize(size * 2);
+        int i = size++;
+        ids[i] = id;
+        this.x[i] = x;
+        this.y[i] = y;
+        prevX[i] = x;
+        prevY[i] = y;
+        targetX[i] = x;
+        targetY[i] = y;
+        speed[i] = config.speed;
+        direction[i] = (byte) random.nextInt(4);
+        stateTime[i] = 0f;
+        bombCooldown[i] = 0f;
+        alive[i] = true;
+        frozen[i] = false;
+        Enemy enemy = new Enemy(this);
+        enemy.slot = i;
+        views.add(enemy);
+        return enemy;
+    }
+
+    /** Quita el enemigo del índice dado en O(1): el último ocupa su hueco. */
+    void remove(int slot) {
+        int last = --size;
+        views.removeIndex(slot);
+        if (slot < last) {
+            ids[slot] = ids[last];
+            x[slot] = x[last];
+            y[slot] = y[last];
+            prevX[slot] = prevX[last];
+            prevY[slot] = prevY[last];
+            targetX[slot] = targetX[last];
+            targetY[slot] = targetY[last];
+            speed[slot] = speed[last];
+            direction[slot] = direction[last];
+            stateTime[slot] = stateTime[last];
+            bombCooldown[slot] = bombCooldown[last];
+            alive[slot] = alive[last];
+            frozen[slot] = frozen[last];
+            views.get(slot).slot = slot;
+        }
+    }
+
+    /** Reserva sitio para {@code capacity} enemigos (pruebas de carga con miles de ellos). */
+    public void ensureCapacity(int capacity) {
+        if (capacity > ids.length) resize(capacity);
+    }
+
+    private void resize(int capacity) {
+        ids = ids == null ? new int[capacity] : Arrays.copyOf(ids, capacity);
+        x = copy(x, capacity);
+        y = copy(y, capacity);
+        prevX = copy(prevX, capacity);
+        prevY = copy(prevY, capacity);
+        targetX = copy(targetX, capacity);
+        targetY = copy(targetY, capacity);
+        speed = copy(speed, capacity);
+        direction = direction == null ? new byte[capacity] : Arrays.copyOf(direction, capacity);
+        stateTime = copy(stateTime, capacity);
+        bombCooldown = copy(bombCooldown, capacity);
+        alive = alive == null ? new boolean[capacity] : Arrays.copyOf(alive, capacity);
+        frozen = frozen == null ? new boolean[capacity] : Arrays.copyOf(frozen, capacity);
+        views.ensureCapacity(capacity - views.size);
+    }
+
+    private static float[] copy(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /** Punto de partida del paso que empieza, para interpolar el dibujo. */
+    void savePositions() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+    }
+
+    void tickCooldowns(float delta) {
+        for (int i = 0; i < size; i++) {
+            if (!frozen[i]) bombCooldown[i] -= delta;
+        }
+    }
+
+    /**
+     * Congela a los enemigos cuyo bloque de {@link GameMap} no está en {@code activeChunks} (por
+     * filas de bloques) y descongela al resto.
+     */
+    void freezeOutside(boolean[] activeChunks, int chunkCols) {
+        for (int i = 0; i < size; i++) {
+            int row = (int) (y[i] / GameMap.TILE_SIZE) >> GameMap.CHUNK_SHIFT;
+            int col = (int) (x[i] / GameMap.TILE_SIZE) >> GameMap.CHUNK_SHIFT;
+            frozen[i] = !activeChunks[row * chunkCols + col];
+        }
+    }
+
+    /** Vuelve a simular a todos los enemigos. */
+    void thaw() {
+        Arrays.fill(frozen, 0, size, false);
+    }
+
+    boolean isFrozen(int i) {
+        return frozen[i];
+    }
+
+    /** Enemigos congelados en el último paso. */
+    public int getFrozenCount() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (frozen[i]) count++;
+        }
+        return count;
+    }
+
+    /** Solo se decide en el centro de una celda: así un giro siempre cabe entre los muros. */
+    boolean isAtTarget(int i) {
+        return x[i] == targetX[i] && y[i] == targetY[i];
+    }
+
+    /**
+     * Elige la siguiente celda del enemigo i consultando los campos compartidos de
+     * {@link Pathfinding} y el {@link DangerMap}: huye si su celda va a explotar, si no avanza hacia el
+     * jugador y pone una bomba cuando tiene delante un muro destructible o al jugador cerca, siempre
+     * que le quede una salida. Si el jugador es inalcanzable camina al azar.
+     *
+     * @return la bomba que acaba de poner (a añadir al mundo antes de que decida el siguiente), o null.
+     */
+    Bomb decide(int i, GameMap map, Pathfinding paths, DangerMap dangers, Pool<Bomb> bombPool) {
+        int row = (int) (y[i] / GameMap.TILE_SIZE);
+        int col = (int) (x[i] / GameMap.TILE_SIZE);
+        int dir;
+        Bomb bomb = null;
+
+        if (dangers.isThreatened(row, col)) {
+            // Huir de la cruz de una bomba tiene prioridad sobre perseguir
+            dir = paths.directionToSafety(row, col);
+        } else if (paths.distanceToPlayer(row, col) == FlowField.UNREACHABLE) {
+            direction[i] = (byte) random.nextInt(4);
+            dir = direction[i];
+        } else {
+            dir = paths.directionToPlayer(row, col);
+            boolean wallAhead = dir >= 0 && map.getCell(row + FlowField.NEIGHBORS[dir][0],
+                col + FlowField.NEIGHBORS[dir][1]) == 2;
+            if ((wallAhead || paths.distanceToPlayer(row, col) <= config.attackDistance) && bombCooldown[i] <= 0f
+                && dangers.canEscape(row, col, BOMB_RADIUS)) {
+                bomb = placeBomb(i, bombPool);
+                bombCooldown[i] = config.bombCooldownTime;
+            }
+        }
+        if (dir < 0) return bomb;
+
+        int nextRow = row + FlowField.NEIGHBORS[dir][0];
+        int nextCol = col + FlowField.NEIGHBORS[dir][1];
+        float nextX = x[i] + FlowField.NEIGHBORS[dir][1] * GameMap.TILE_SIZE;
+        float nextY = y[i] + FlowField.NEIGHBORS[dir][0] * GameMap.TILE_SIZE;
+        // Fuera de peligro no se entra en una celda amenazada: se espera a que la bomba explote
+        if (!dangers.isThreatened(row, col) && dangers.isThreatened(nextRow, nextCol)) return bomb;
+        if (Enemy.canMoveTo(nextX, nextY, map)) {
+            direction[i] = (byte) dir;
+            targetX[i] = nextX;
+            targetY[i] = nextY;
+        }
+        return bomb;
+    }
+
+    private Bomb placeBomb(int i, Pool<Bomb> bombPool) {
+        float bombX = Math.round(x[i] / GameMap.TILE_SIZE) * GameMap.TILE_SIZE;
+        float bombY = Math.round(y[i] / GameMap.TILE_SIZE) * GameMap.TILE_SIZE;
+        return bombPool.obtain().set(bombX, bombY, BOMB_RADIUS, Bomb.OwnerType.ENEMY, ids[i]);
+    }
+
+    /** Acerca cada enemigo que no está congelado a su destino a su velocidad, sin pasarse. */
+    void move(float delta) {
+        for (int i = 0; i < size; i++) {
+            if (frozen[i]) continue;
+            float d = speed[i] * delta;
+            x[i] = approach(x[i], targetX[i], d);
+            y[i] = approach(y[i], targetY[i], d);
+        }
+    }
+
+    private static float approach(float value, float target, float step) {
+        if (value < target) return Math.min(value + step, target);
+        return Math.max(value - step, target);
+    }
+
+    /** Si queda alguno vivo (los muertos se quitan en el mismo paso, salvo en las réplicas). */
+    boolean anyAlive() {
+        for (int i = 0; i < size; i++) {
+            if (alive[i]) return true;
+        }
+        return false;
+    }
+
+    /** Estado completo del enemigo i para las instantáneas de {@link World#write}. */
+    void write(int i, DataOutput out) throws IOException {
+        out.writeInt(ids[i]);
+        out.writeFloat(x[i]);
+        out.writeFloat(y[i]);
+        out.writeFloat(prevX[i]);
+        out.writeFloat(prevY[i]);
+        out.writeFloat(targetX[i]);
+        out.writeFloat(targetY[i]);
+        out.writeFloat(speed[i]);
+        out.writeByte(direction[i]);
+        out.writeFloat(stateTime[i]);
+        out.writeFloat(bombCooldown[i]);
+        out.writeBoolean(alive[i]);
+    }
+
+    void read(int i, DataInput in) throws IOException {
+        ids[i] = in.readInt();
+        x[i] = in.readFloat();
+        y[i] = in.readFloat();
+        prevX[i] = in.readFloat();
+        prevY[i] = in.readFloat();
+        targetX[i] = in.readFloat();
+        targetY[i] = in.readFloat();
+        speed[i] = in.readFloat();
+        direction[i] = in.readByte();
+        stateTime[i] = in.readFloat();
+        bombCooldown[i] = in.readFloat();
+        alive[i] = in.readBoolean();
+    }
+
+    /** Estado recibido del servidor en una réplica de red; ver {@link Player#applySnapshot}. */
+    void applySnapshot(int i, float x, float y, int direction) {
+        prevX[i] = this.x[i];
+        prevY[i] = this.y[i];
+        stateTime[i] = x != this.x[i] || y != this.y[i] ? stateTime[i] + World.STEP : 0f;
+        this.x[i] = x;
+        this.y[i] = y;
+        targetX[i] = x;
+        targetY[i] = y;
+        this.direction[i] = (byte) direction;
+    }
+
+    public int size() { return size; }
+    /** Vistas de los enemigos, en el mismo orden que los arrays. */
+    public Array<Enemy> getViews() { return views; }
+}
@@ -0,0 +1,153 @@
+package com.example.bomba;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro de sucesos de la partida ({@link GameEvent}) que no frena la simulación.
+ *
+ * Los productores (normalmente {@link World#step}) escriben con {@link #publish} en un anillo de
+ * arrays de enteros reservado al crear el bus: cada productor reserva una posición con una
+ * comparación e intercambio sobre la cabeza, copia los campos y la marca como publicada. No hay
+ * cerrojos, no se espera nunca y no se reserva memoria; si el anillo está lleno el suceso se
+ * descarta y se cuenta en {@link #getDropped()}.
+ *
+ * Un hilo consumidor (que arranca {@link #start()}) recoge lo publicado cada
+ * {@value #DRAIN_INTERVAL_MS} ms y lo entrega en orden a los {@link EventSink}, que pueden tardar lo
+ * que necesiten. {@link #close()} entrega lo pendiente y cierra los sumideros. Sin hilo, quien use
+ * el bus puede vaciarlo él mismo con {@link #drain()}.
+ */
+public class EventBus {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final long DRAIN_INTERVAL_MS = 10;
+
+    private final int mask;
+    private final int[] types, ticks, subjects, tiles, details;
+    // Posición + 1 del último suceso publicado en cada hueco: el consumidor sabe si ya está completo
+    private final AtomicLongArray published;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // Solo lo escribe el consumidor; los productores lo leen para saber si hay sitio
+    private volatile long tail;
+
+    private final EventSink[] sinks;
+    private final GameEvent event = new GameEvent();
+    private Thread consumer;
+    private volatile boolean running;
+
+    public EventBus(EventSink... sinks) {
+        this(DEFAULT_CAPACITY, sinks);
+    }
+
+    /** @param capacity sucesos que caben sin consumir; se redondea a potencia de dos. */
+    public EventBus(int capacity, EventSink... sinks) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        types = new int[size];
+        ticks = new int[size];
+        subjects = new int[size];
+        tiles = new int[size];
+        details = new int[size];
+        published = new AtomicLongArray(size);
+        this.sinks = sinks.clone();
+    }
+
+    /**
+     * Publica un suceso sin bloquear. Se puede llamar desde cualquier hilo.
+     *
+     * @return false si el anillo estaba lleno y el suceso se ha descartado.
+     */
+    public boolean publish(int type, int tick, int subject, int tile, int detail) {
+        long position;
+        do {
+            position = head.get();
+            if (position - tail > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!head.compareAndSet(position, position + 1));
+
+        int i = (int) position & mask;
+        types[i] = type;
+        ticks[i] = tick;
+        subjects[i] = subject;
+        tiles[i] = tile;
+        details[i] = detail;
+        published.lazySet(i, position + 1);
+        return true;
+    }
+
+    /** Arranca el hilo consumidor (demonio: no impide que la aplicación termine). */
+    public synchronized void start() {
+        if (consumer != null) return;
+        running = true;
+        consumer = new Thread(this::consume, "eventos");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    private void consume() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(DRAIN_INTERVAL_MS * 1_000_000L);
+            }
+        }
+    }
+
+    /**
+     * Entrega a los sumideros todo lo publicado hasta ahora, en orden. Solo desde un hilo a la vez:
+     * el consumidor si se arrancó con {@link #start()}.
+     *
+     * @return sucesos entregados.
+     */
+    public int drain() {
+        long position = tail;
+        int count = 0;
+        while (true) {
+            int i = (int) position & mask;
+            // Un productor puede haber reservado el hueco y no haber terminado de escribirlo
+            if (published.get(i) != position + 1) break;
+            event.type = types[i];
+            event.tick = ticks[i];
+            event.subject = subjects[i];
+            event.tile = tiles[i];
+            event.detail = details[i];
+            for (EventSink sink : sinks) sink.accept(event);
+            position++;
+            count++;
+            // Libera el hueco en cuanto se ha leído, para no descartar sucesos en ráfagas largas
+            tail = position;
+        }
+        if (count > 0) {
+            for (EventSink sink : sinks) sink.flush();
+        }
+        return count;
+    }
+
+    /** Detiene el consumidor, entrega lo que quede y cierra los sumideros. */
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            thread = consumer;
+            consumer = null;
+            running = false;
+        }
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drain();
+        for (EventSink sink : sinks) sink.close();
+    }
+
+    /** Sucesos descartados por encontrar el anillo lleno. */
+    public long getDropped() { return dropped.get(); }
+
+    /** Sucesos publicados y aún no entregados. */
+    public int getPending() { return (int) (head.get() - tail); }
+}
@@ -0,0 +1,15 @@
+package com.example.bomba;
+
+/**
+ * Destino de los sucesos de un {@link EventBus}. Solo lo llama el hilo consumidor del bus, así que
+ * puede ser lento (escribir en disco, en la consola) sin frenar la partida.
+ */
+public interface EventSink {
+    void accept(GameEvent event);
+
+    /** Al vaciar cada tanda de sucesos. */
+    default void flush() {}
+
+    /** Al cerrar el bus, tras el último suceso. */
+    default void close() {}
+}
@@ -0,0 +1,52 @@
+package com.example.bomba;
+
+/**
+ * Sumidero de análisis: cuenta los sucesos por tipo y guarda lo que interesa para resumir partidas
+ * (power-ups recogidos por tipo, tick del final). Lo escribe el hilo consumidor del bus; los
+ * totales se leen con seguridad después de {@link EventBus#close()}.
+ */
+public class EventStats implements EventSink {
+    private final long[] counts = new long[GameEvent.TYPES];
+    private final long[] pickedByType = new long[PowerUp.PowerUpType.values().length];
+    private int matches, wins;
+    private long lastTick;
+
+    @Override
+    public void accept(GameEvent event) {
+        int type = event.getType();
+        if (type > 0 && type < counts.length) counts[type]++;
+        if (type == GameEvent.POWER_UP_PICKED) pickedByType[event.getDetail()]++;
+        if (type == GameEvent.MATCH_END) {
+            matches++;
+            if (event.getDetail() == 1) wins++;
+        }
+        lastTick = event.getTick();
+    }
+
+    public long getCount(int type) { return counts[type]; }
+    public long getPicked(PowerUp.PowerUpType type) { return pickedByType[type.ordinal()]; }
+    public int getMatches() { return matches; }
+    public int getWins() { return wins; }
+    /** Tick del último suceso recibido. */
+    public long getLastTick() { return lastTick; }
+
+    /** Resumen en una línea. */
+    public String summary() {
+        StringBuilder text = new StringBuilder();
+        text.append("bombas ").append(counts[GameEvent.BOMB_PLACED])
+            .append(", explosiones ").append(counts[GameEvent.BOMB_EXPLODED])
+            .append(", muros ").append(counts[GameEvent.WALL_DESTROYED])
+            .append(", power-ups ").append(counts[GameEvent.POWER_UP_PICKED])
+            .append('/').append(counts[GameEvent.POWER_UP_SPAWNED]);
+        PowerUp.PowerUpType[] types = PowerUp.PowerUpType.values();
+        text.append(" (");
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) text.append(", ");
+            text.append(types[i]).append(' ').append(pickedByType[i]);
+        }
+        text.append("), enemigos muertos ").append(counts[GameEvent.ENEMY_KILLED])
+            .append(", escudos perdidos ").append(counts[GameEvent.SHIELD_LOST])
+            .append(", jugadores muertos ").append(counts[GameEvent.PLAYER_KILLED]);
+        return text.toString();
+    }
+}
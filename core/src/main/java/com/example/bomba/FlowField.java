@@ -0,0 +1,282 @@
+package com.example.bomba;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de distancias (Dijkstra) sobre un {@link GameMap}: para cada celda, el coste mínimo para llegar
+ * a la fuente más cercana. Quien lo consulta solo mira sus cuatro vecinos y baja hacia el menor
+ * valor, así que seguirlo cuesta O(1) por entidad sin importar cuántas lo usen.
+ *
+ * Entrar en una celda de suelo cuesta 1 y en un muro destructible {@code destructibleCost}
+ * (0 = infranqueable); los muros fijos nunca se cruzan. Con costes enteros tan pequeños la cola de
+ * prioridad es una cola de cubos circular (algoritmo de Dial) hecha con listas enlazadas sobre
+ * arrays, así que calcular no reserva memoria.
+ *
+ * Además de recalcular entero se puede actualizar por partes: {@link #cellOpened} cuando un muro
+ * explota, {@link #addSource} seguido de {@link #compute()} para fuentes nuevas y
+ * {@link #removeSource} para fuentes que dejan de serlo. Quitar una fuente solo puede alargar
+ * caminos: se olvidan las celdas cuya distancia venía de ella y se rellenan desde sus vecinas que
+ * siguen bien, sin tocar el resto del mapa.
+ */
+public class FlowField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Vecinos (fila, columna) en el orden de Enemy.currentDirection: arriba, abajo, izquierda, derecha
+    static final int[][] NEIGHBORS = { {1, 0}, {-1, 0}, {0, -1}, {0, 1} };
+
+    private final GameMap map;
+    private final int rows, cols;
+    private final int destructibleCost;
+    private final int[] dist;
+
+    // Cubos de Dial: celda -> siguiente/anterior en su cubo, y primera celda de cada cubo
+    private final int[] next, prev;
+    private final boolean[] queued;
+    private final int[] heads;
+    private int pending;
+
+    // Celdas olvidadas al quitar fuentes, con la distancia que tenían
+    private final int[] stale, staleDist;
+    private int staleCount;
+    // Montículo de mínimos de celdas olvidadas que vuelven con distancia desde sus vecinas (clave)
+    private final int[] seedTiles, seedKeys;
+    private int seedCount;
+
+    public FlowField(GameMap map, int destructibleCost) {
+        this.map = map;
+        this.rows = map.getRows();
+        this.cols = map.getCols();
+        this.destructibleCost = destructibleCost;
+        int tiles = rows * cols;
+        dist = new int[tiles];
+        next = new int[tiles];
+        prev = new int[tiles];
+        queued = new boolean[tiles];
+        stale = new int[tiles];
+        staleDist = new int[tiles];
+        seedTiles = new int[tiles];
+        seedKeys = new int[tiles];
+        heads = new int[Math.max(1, destructibleCost) + 1];
+        Arrays.fill(heads, -1);
+        Arrays.fill(dist, UNREACHABLE);
+    }
+
+    /** Olvida todas las distancias; a continuación se añaden fuentes y se llama a {@link #compute()}. */
+    public void clear() {
+        Arrays.fill(dist, UNREACHABLE);
+        staleCount = 0;
+        seedCount = 0;
+    }
+
+    /** Marca una celda como destino (distancia 0). */
+    public void addSource(int tile) {
+        if (cost(tile) == 0 || dist[tile] == 0) return;
+        dist[tile] = 0;
+        push(tile);
+    }
+
+    /**
+     * Deja de usar una celda como destino. Las celdas cuya distancia dependía de ella se olvidan
+     * ahora y se recalculan en el siguiente {@link #compute()}; hay que quitar todas las fuentes
+     * antes de añadir las nuevas.
+     */
+    public void removeSource(int tile) {
+        if (dist[tile] != 0) return;
+        int first = staleCount;
+        forget(tile);
+        // Se olvida también quien tenía su distancia por una celda olvidada (aunque tuviera otro
+        // camino igual de corto: rellenarla de más no cambia el resultado)
+        for (int i = first; i < staleCount; i++) {
+            int tileRow = stale[i] / cols;
+            int tileCol = stale[i] % cols;
+            int base = staleDist[i];
+            for (int d = 0; d < NEIGHBORS.length; d++) {
+                int r = tileRow + NEIGHBORS[d][0];
+                int c = tileCol + NEIGHBORS[d][1];
+                if (r < 0 || r >= rows || c < 0 || c >= cols) continue;
+                int n = r * cols + c;
+                int value = dist[n];
+                if (value != 0 && value != UNREACHABLE && value == base + cost(n)) forget(n);
+            }
+        }
+    }
+
+    private void forget(int tile) {
+        stale[staleCount] = tile;
+        staleDist[staleCount++] = dist[tile];
+        dist[tile] = UNREACHABLE;
+    }
+
+    /** Propaga las fuentes añadidas y rellena las celdas olvidadas desde el último cálculo. */
+    public void compute() {
+        for (int i = 0; i < staleCount; i++) {
+            reseed(stale[i]);
+        }
+        staleCount = 0;
+        run(0);
+    }
+
+    // Una celda olvidada vuelve con la mejor distancia de sus vecinas que no se olvidaron
+    private void reseed(int tile) {
+        if (dist[tile] != UNREACHABLE) return; // ya es fuente otra vez
+        int step = cost(tile);
+        if (step == 0) return;
+        int row = tile / cols;
+        int col = tile % cols;
+        int best = UNREACHABLE;
+        for (int d = 0; d < NEIGHBORS.length; d++) {
+            int r = row + NEIGHBORS[d][0];
+            int c = col + NEIGHBORS[d][1];
+            if (r < 0 || r >= rows || c < 0 || c >= cols) continue;
+            best = Math.min(best, dist[r * cols + c]);
+        }
+        if (best != UNREACHABLE) pushSeed(tile, best + step);
+    }
+
+    /**
+     * Actualización incremental cuando una celda pasa a ser suelo (un muro que explota): las
+     * distancias solo pueden bajar, y solo se visitan las celdas que mejoran.
+     */
+    public void cellOpened(int tile) {
+        int row = tile / cols;
+        int col = tile % cols;
+        int best = UNREACHABLE;
+        for (int d = 0; d < NEIGHBORS.length; d++) {
+            int r = row + NEIGHBORS[d][0];
+            int c = col + NEIGHBORS[d][1];
+            if (r < 0 || r >= rows || c < 0 || c >= cols) continue;
+            best = Math.min(best, dist[r * cols + c]);
+        }
+        if (best == UNREACHABLE || best + 1 >= dist[tile]) return;
+        dist[tile] = best + 1;
+        push(tile);
+        run(best + 1);
+    }
+
+    public int get(int tile) { return dist[tile]; }
+
+    /**
+     * Dirección (índice de {@link #NEIGHBORS}) hacia el vecino con menor distancia, o -1 si ninguno
+     * mejora la celda actual.
+     */
+    public int bestDirection(int row, int col) {
+        int best = dist[row * cols + col];
+        int direction = -1;
+        for (int d = 0; d < NEIGHBORS.length; d++) {
+            int r = row + NEIGHBORS[d][0];
+            int c = col + NEIGHBORS[d][1];
+            if (r < 0 || r >= rows || c < 0 || c >= cols) continue;
+            int value = dist[r * cols + c];
+            if (value < best) {
+                best = value;
+                direction = d;
+            }
+        }
+        return direction;
+    }
+
+    private void run(int current) {
+        while (pending > 0 || seedCount > 0) {
+            // Las celdas rellenadas entran en la cola cuando se llega a su distancia, así los cubos
+            // nunca guardan distancias más allá de current + el coste máximo
+            if (pending == 0) current = Math.max(current, seedKeys[0]);
+            while (seedCount > 0 && seedKeys[0] <= current) {
+                int key = seedKeys[0];
+                int tile = popSeed();
+                if (key < dist[tile]) {
+                    if (queued[tile]) unlink(tile, dist[tile] % heads.length);
+                    dist[tile] = key;
+                    push(tile);
+                }
+            }
+            int bucket = current % heads.length;
+            while (heads[bucket] != -1) {
+                int tile = heads[bucket];
+                unlink(tile, bucket);
+                relaxNeighbors(tile);
+            }
+            current++;
+        }
+    }
+
+    private void relaxNeighbors(int tile) {
+        int row = tile / cols;
+        int col = tile % cols;
+        int base = dist[tile];
+        for (int d = 0; d < NEIGHBORS.length; d++) {
+            int r = row + NEIGHBORS[d][0];
+            int c = col + NEIGHBORS[d][1];
+            if (r < 0 || r >= rows || c < 0 || c >= cols) continue;
+            int n = r * cols + c;
+            int step = cost(n);
+            if (step == 0) continue;
+            int candidate = base + step;
+            if (candidate < dist[n]) {
+                if (queued[n]) unlink(n, dist[n] % heads.length);
+                dist[n] = candidate;
+                push(n);
+            }
+        }
+    }
+
+    /** Coste de entrar en la celda, 0 si no se puede. */
+    private int cost(int tile) {
+        int cell = map.getCell(tile);
+        if (cell == 0) return 1;
+        if (cell == 2) return destructibleCost;
+        return 0;
+    }
+
+    private void pushSeed(int tile, int key) {
+        int i = seedCount++;
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (seedKeys[parent] <= key) break;
+            seedTiles[i] = seedTiles[parent];
+            seedKeys[i] = seedKeys[parent];
+            i = parent;
+        }
+        seedTiles[i] = tile;
+        seedKeys[i] = key;
+    }
+
+    private int popSeed() {
+        int top = seedTiles[0];
+        int tile = seedTiles[--seedCount];
+        int key = seedKeys[seedCount];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= seedCount) break;
+            if (child + 1 < seedCount && seedKeys[child + 1] < seedKeys[child]) child++;
+            if (seedKeys[child] >= key) break;
+            seedTiles[i] = seedTiles[child];
+            seedKeys[i] = seedKeys[child];
+            i = child;
+        }
+        seedTiles[i] = tile;
+        seedKeys[i] = key;
+        return top;
+    }
+
+    private void push(int tile) {
+        int bucket = dist[tile] % heads.length;
+        int head = heads[bucket];
+        next[tile] = head;
+        prev[tile] = -1;
+        if (head != -1) prev[head] = tile;
+        heads[bucket] = tile;
+        queued[tile] = true;
+        pending++;
+    }
+
+    private void unlink(int tile, int bucket) {
+        int p = prev[tile];
+        int n = next[tile];
+        if (p != -1) next[p] = n;
+        else heads[bucket] = n;
+        if (n != -1) prev[n] = p;
+        queued[tile] = false;
+        pending--;
+    }
+}
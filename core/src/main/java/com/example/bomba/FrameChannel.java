@@ -0,0 +1,183 @@
+package com.example.bomba;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Tramas de {@link NetProtocol} sobre un {@link SocketChannel} no bloqueante. La usan el servidor
+ * (una por conexión, desde su selector) y {@link GameClient}.
+ *
+ * Lo leído se acumula hasta tener tramas completas, que se recorren con {@link #nextFrame()} y se
+ * leen con {@link #in()}. Lo enviado se acumula en un buffer que se vacía con {@link #flush()} según
+ * el socket lo acepte. Los buffers solo crecen, así que una conexión estable no reserva memoria.
+ */
+public class FrameChannel {
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+
+    private final SocketChannel channel;
+
+    private byte[] inBytes = new byte[INITIAL_CAPACITY];
+    private ByteBuffer inBuffer = ByteBuffer.wrap(inBytes);
+    private int inLength;
+    // Inicio de la siguiente trama sin leer y fin de la trama actual
+    private int inPosition;
+    private int frameEnd;
+    private final DataInputStream frameInput = new DataInputStream(new FrameInputStream());
+
+    private byte[] outBytes = new byte[INITIAL_CAPACITY];
+    private ByteBuffer outBuffer = ByteBuffer.wrap(outBytes);
+    private int outLength;
+    private int frameStart = -1;
+    private final DataOutputStream frameOutput = new DataOutputStream(new FrameOutputStream());
+
+    private long bytesRead, bytesWritten;
+
+    public FrameChannel(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    public SocketChannel getChannel() { return channel; }
+
+    /** Lee todo lo disponible sin bloquear. Devuelve false si el otro extremo ha cerrado. */
+    public boolean read() throws IOException {
+        while (true) {
+            if (inLength == inBytes.length) {
+                if (!makeRoom()) return true;
+            }
+            inBuffer.limit(inBytes.length).position(inLength);
+            int n = channel.read(inBuffer);
+            if (n < 0) return false;
+            if (n == 0) return true;
+            inLength += n;
+            bytesRead += n;
+        }
+    }
+
+    /**
+     * Pasa a la siguiente trama completa y devuelve su tipo, o -1 si no hay ninguna entera todavía.
+     * El contenido se lee con {@link #in()} antes de volver a llamar.
+     */
+    public int nextFrame() throws IOException {
+        inPosition = Math.max(inPosition, frameEnd);
+        if (inLength - inPosition < 5) return -1;
+        int length = ((inBytes[inPosition] & 0xFF) << 24) | ((inBytes[inPosition + 1] & 0xFF) << 16)
+            | ((inBytes[inPosition + 2] & 0xFF) << 8) | (inBytes[inPosition + 3] & 0xFF);
+        if (length < 1 || length > NetProtocol.MAX_FRAME) throw new IOException("Trama inválida: " + length);
+        if (inLength - inPosition - 4 < length) return -1;
+        int type = inBytes[inPosition + 4];
+        inPosition += 5;
+        frameEnd = inPosition - 1 + length;
+        return type;
+    }
+
+    /** Contenido de la trama actual. */
+    public DataInputStream in() { return frameInput; }
+
+    /** Empieza una trama; su contenido se escribe con {@link #out()} y se cierra con {@link #endFrame()}. */
+    public DataOutputStream beginFrame(byte type) throws IOException {
+        if (frameStart >= 0) throw new IllegalStateException("Trama sin cerrar");
+        frameStart = outLength;
+        frameOutput.writeInt(0);
+        frameOutput.writeByte(type);
+        return frameOutput;
+    }
+
+    public DataOutputStream out() { return frameOutput; }
+
+    public void endFrame() {
+        int length = outLength - frameStart - 4;
+        outBytes[frameStart] = (byte) (length >>> 24);
+        outBytes[frameStart + 1] = (byte) (length >>> 16);
+        outBytes[frameStart + 2] = (byte) (length >>> 8);
+        outBytes[frameStart + 3] = (byte) length;
+        frameStart = -1;
+    }
+
+    /** Envía lo que el socket acepte sin bloquear. Devuelve true si no queda nada pendiente. */
+    public boolean flush() throws IOException {
+        if (outLength > 0) {
+            outBuffer.limit(outLength).position(0);
+            int n = channel.write(outBuffer);
+            bytesWritten += n;
+            System.arraycopy(outBytes, n, outBytes, 0, outLength - n);
+            outLength -= n;
+        }
+        return outLength == 0;
+    }
+
+    /** Bytes escritos en tramas que el socket aún no ha aceptado. */
+    public int getPendingOutput() { return outLength; }
+
+    public long getBytesRead() { return bytesRead; }
+    public long getBytesWritten() { return bytesWritten; }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Ya estaba cerrado o el otro extremo se fue: no hay nada más que hacer
+        }
+    }
+
+    /** Descarta lo ya leído; si no basta, hace crecer el buffer para que quepa la trama pendiente. */
+    private boolean makeRoom() throws IOException {
+        int consumed = Math.max(inPosition, frameEnd);
+        if (consumed > 0) {
+            System.arraycopy(inBytes, consumed, inBytes, 0, inLength - consumed);
+            inLength -= consumed;
+            inPosition -= consumed;
+            frameEnd -= consumed;
+            if (inLength < inBytes.length) return true;
+        }
+        if (inBytes.length >= NetProtocol.MAX_FRAME + 5) return false;
+        byte[] bigger = new byte[Math.min(inBytes.length * 2, NetProtocol.MAX_FRAME + 5)];
+        System.arraycopy(inBytes, 0, bigger, 0, inLength);
+        inBytes = bigger;
+        inBuffer = ByteBuffer.wrap(inBytes);
+        return true;
+    }
+
+    private void ensureOutput(int extra) {
+        if (outLength + extra <= outBytes.length) return;
+        byte[] bigger = new byte[Math.max(outBytes.length * 2, outLength + extra)];
+        System.arraycopy(outBytes, 0, bigger, 0, outLength);
+        outBytes = bigger;
+        outBuffer = ByteBuffer.wrap(outBytes);
+    }
+
+    private final class FrameInputStream extends InputStream {
+        @Override
+        public int read() {
+            return inPosition < frameEnd ? inBytes[inPosition++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (inPosition >= frameEnd) return -1;
+            int n = Math.min(len, frameEnd - inPosition);
+            System.arraycopy(inBytes, inPosition, b, off, n);
+            inPosition += n;
+            return n;
+        }
+    }
+
+    private final class FrameOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+            ensureOutput(1);
+            outBytes[outLength++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureOutput(len);
+            System.arraycopy(b, off, outBytes, outLength, len);
+            outLength += len;
+        }
+    }
+}
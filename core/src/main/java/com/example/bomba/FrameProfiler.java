@@ -0,0 +1,148 @@
+package com.example.bomba;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * Medidas por frame: cuánto tarda cada fase de la actualización y del dibujo, el tiempo entre
+ * frames, las llamadas de dibujo y la memoria.
+ *
+ * Las fases se miden con {@link #begin}/{@link #end} (se pueden abrir varias veces por frame y se
+ * suman); {@link World} mide las suyas si tiene un perfilador asignado. Los tiempos de frame de los
+ * últimos {@link #WINDOW} frames forman un histograma móvil del que salen los percentiles. Nada de
+ * esto reserva memoria salvo al contar recolecciones.
+ *
+ * Las recolecciones de basura se cuentan con una referencia débil centinela: el recolector la
+ * vacía cuando pasa, y se vuelve a crear. Da una cota inferior, pero funciona igual en Android, donde
+ * no existen los MXBeans de la JVM.
+ */
+public class FrameProfiler {
+    // Fases de la actualización (World.step)
+    public static final int PLAYERS = 0;
+    public static final int ENEMIES = 1;
+    public static final int BOMBS = 2;
+    public static final int POWER_UPS = 3;
+    // Fases del dibujo
+    public static final int MAP = 4;
+    public static final int ENTITIES = 5;
+    public static final int UI = 6;
+    public static final int PHASES = 7;
+    static final String[] PHASE_NAMES = { "jugadores", "enemigos", "bombas", "power-ups", "mapa", "entidades", "interfaz" };
+
+    // Frames del histograma móvil: unos 10 s a 60 fps
+    static final int WINDOW = 600;
+
+    private final long[] started = new long[PHASES];
+    private final long[] frameNanos = new long[PHASES];
+    private final long[] lastFrameNanos = new long[PHASES];
+    // Sumas desde el último reset(), para las medias del informe
+    private final long[] totalNanos = new long[PHASES];
+    private long totalFrames, totalRenderCalls, totalTextureBindings, totalDrawCalls;
+
+    private final float[] frameTimes = new float[WINDOW];
+    private final float[] sorted = new float[WINDOW];
+    private int frameCount;
+    private long lastFrameStart = -1;
+
+    private int renderCalls, textureBindings, drawCalls;
+    private int spritesDrawn, spritesCulled, tilesDrawn, tilesCulled;
+    private int gcCount;
+    private WeakReference<Object> gcSentinel = new WeakReference<>(new Object());
+
+    /** Marca el inicio de un frame; el tiempo de frame es el que pasa entre dos inicios. */
+    public void beginFrame() {
+        long now = System.nanoTime();
+        if (lastFrameStart >= 0) {
+            frameTimes[frameCount++ % WINDOW] = (now - lastFrameStart) / 1e6f;
+        }
+        lastFrameStart = now;
+        Arrays.fill(frameNanos, 0L);
+        if (gcSentinel.get() == null) {
+            gcCount++;
+            gcSentinel = new WeakReference<>(new Object());
+        }
+    }
+
+    /** Cierra el frame con los contadores del dibujo. */
+    public void endFrame(int renderCalls, int textureBindings, int drawCalls) {
+        this.renderCalls = renderCalls;
+        this.textureBindings = textureBindings;
+        this.drawCalls = drawCalls;
+        for (int i = 0; i < PHASES; i++) totalNanos[i] += frameNanos[i];
+        System.arraycopy(frameNanos, 0, lastFrameNanos, 0, PHASES);
+        totalRenderCalls += renderCalls;
+        totalTextureBindings += textureBindings;
+        totalDrawCalls += drawCalls;
+        totalFrames++;
+    }
+
+    /** Lo que el {@link ViewCuller} del frame dibujó y descartó. */
+    public void countCulling(ViewCuller culler) {
+        spritesDrawn = culler.getSpritesDrawn();
+        spritesCulled = culler.getSpritesCulled();
+        tilesDrawn = culler.getTilesDrawn();
+        tilesCulled = culler.getTilesCulled();
+    }
+
+    public void begin(int phase) {
+        started[phase] = System.nanoTime();
+    }
+
+    public void end(int phase) {
+        frameNanos[phase] += System.nanoTime() - started[phase];
+    }
+
+    /** Percentil (0-100) del tiempo de frame en la ventana móvil, en milisegundos. */
+    public float percentile(float p) {
+        int n = Math.min(frameCount, WINDOW);
+        if (n == 0) return 0f;
+        System.arraycopy(frameTimes, 0, sorted, 0, n);
+        Arrays.sort(sorted, 0, n);
+        int index = Math.min(n - 1, (int) Math.ceil(p / 100f * n) - 1);
+        return sorted[Math.max(0, index)];
+    }
+
+    /** Tiempo del último frame completo, en milisegundos. */
+    public float getLastFrameTime() {
+        return frameCount == 0 ? 0f : frameTimes[(frameCount - 1) % WINDOW];
+    }
+
+    /** Tiempo de la fase en el último frame completo, en milisegundos. */
+    public float getPhaseTime(int phase) { return lastFrameNanos[phase] / 1e6f; }
+
+    /** Media por frame de la fase desde el último {@link #reset()}, en milisegundos. */
+    public float getAveragePhaseTime(int phase) {
+        return totalFrames == 0 ? 0f : totalNanos[phase] / 1e6f / totalFrames;
+    }
+
+    public float getAverageRenderCalls() { return totalFrames == 0 ? 0f : (float) totalRenderCalls / totalFrames; }
+    public float getAverageTextureBindings() { return totalFrames == 0 ? 0f : (float) totalTextureBindings / totalFrames; }
+    public float getAverageDrawCalls() { return totalFrames == 0 ? 0f : (float) totalDrawCalls / totalFrames; }
+    public long getFramesSinceReset() { return totalFrames; }
+
+    /** Empieza un nuevo periodo para las medias; el histograma móvil sigue. */
+    public void reset() {
+        Arrays.fill(totalNanos, 0L);
+        totalFrames = 0;
+        totalRenderCalls = 0;
+        totalTextureBindings = 0;
+        totalDrawCalls = 0;
+    }
+
+    public int getRenderCalls() { return renderCalls; }
+    public int getTextureBindings() { return textureBindings; }
+    public int getDrawCalls() { return drawCalls; }
+    /** Entidades enviadas al batch y descartadas por no verse, en el último frame. */
+    public int getSpritesDrawn() { return spritesDrawn; }
+    public int getSpritesCulled() { return spritesCulled; }
+    /** Celdas del mapa dibujadas y descartadas por no verse, en el último frame. */
+    public int getTilesDrawn() { return tilesDrawn; }
+    public int getTilesCulled() { return tilesCulled; }
+    /** Recolecciones observadas desde que se creó (cota inferior). */
+    public int getGcCount() { return gcCount; }
+    /** Memoria ocupada del heap de Java, en bytes. */
+    public long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Carga por etapas de todos los recursos del juego a través de un único {@link AssetManager}.
+ *
+ * Primero se carga lo imprescindible para jugar: el atlas de {@link Sprites}, que tiene las celdas
+ * del mapa, el jugador, las explosiones y los botones. En cuanto está, {@link LoadingScreen} pasa a
+ * la partida y el resto (las imágenes de victoria y derrota y el botón de reiniciar) se sigue
+ * cargando en segundo plano con {@link #stream()}, unos pocos milisegundos por frame. Hasta que
+ * llega, quien lo use recibe null de {@link #texture} y dibuja un sustituto.
+ *
+ * También mide cuánto se tarda desde que arranca la aplicación hasta el atlas, hasta el primer frame
+ * en el que se puede jugar y hasta tener todo cargado, y lo escribe en el registro de la aplicación.
+ * En el modo en red el primer frame jugable incluye la espera en la sala.
+ */
+public class GameAssets implements Disposable {
+    public static final String WIN_ART = "you_win.png";
+    public static final String LOSE_ART = "you_lose.png";
+    public static final String RESTART_BUTTON = "btn_restart.png";
+    private static final String[] SECONDARY = {WIN_ART, LOSE_ART, RESTART_BUTTON};
+    // Tiempo por frame para los recursos secundarios, que no debe notarse en la partida
+    private static final int STREAM_MILLIS = 2;
+    private static final String TAG = "Recursos";
+
+    private final AssetManager manager = new AssetManager();
+    private final long startNanos = TimeUtils.nanoTime();
+    // Milisegundos desde el arranque, o -1 hasta que ocurre
+    private long criticalMillis = -1, firstFrameMillis = -1, allLoadedMillis = -1;
+
+    /** Pone en cola los recursos imprescindibles; los secundarios esperan a que estén cargados. */
+    public void loadCritical() {
+        manager.load(Sprites.ATLAS, TextureAtlas.class);
+    }
+
+    /**
+     * Sigue cargando lo imprescindible durante hasta {@code millis} ms y dice si ya se puede jugar.
+     * La primera vez que lo está, pone en cola los recursos secundarios.
+     */
+    public boolean updateCritical(int millis) {
+        manager.update(millis);
+        if (!manager.isLoaded(Sprites.ATLAS, TextureAtlas.class)) return false;
+        if (criticalMillis < 0) {
+            criticalMillis = elapsedMillis();
+            for (String name : SECONDARY) {
+                manager.load(name, Texture.class);
+            }
+        }
+        return true;
+    }
+
+    /** Progreso de la carga imprescindible, de 0 a 1. */
+    public float getCriticalProgress() {
+        return criticalMillis >= 0 ? 1f : manager.getProgress();
+    }
+
+    /** Un poco más de carga en segundo plano; se llama una vez por frame desde {@link MyBombermanGame}. */
+    public void stream() {
+        if (criticalMillis < 0 || allLoadedMillis >= 0) return;
+        try {
+            if (manager.update(STREAM_MILLIS)) {
+                allLoadedMillis = elapsedMillis();
+                Gdx.app.log(TAG, "Todos los recursos cargados a los " + allLoadedMillis + " ms");
+            }
+        } catch (GdxRuntimeException e) {
+            // Un recurso secundario que falta se queda con su sustituto
+            Gdx.app.error(TAG, "No se pudo cargar un recurso secundario", e);
+        }
+    }
+
+    /** La textura ya cargada, o null si todavía no ha llegado (o no se pudo cargar). */
+    public Texture texture(String name) {
+        return manager.isLoaded(name, Texture.class) ? manager.get(name, Texture.class) : null;
+    }
+
+    /** Anota el primer frame de partida dibujado; solo cuenta la primera vez. */
+    public void firstPlayableFrame() {
+        if (firstFrameMillis >= 0) return;
+        firstFrameMillis = elapsedMillis();
+        Gdx.app.log(TAG, "Primer frame jugable a los " + firstFrameMillis + " ms (atlas cargado a los "
+            + criticalMillis + " ms)");
+    }
+
+    /** Milisegundos desde el arranque hasta el primer frame jugable, o -1 si aún no ha llegado. */
+    public long getFirstFrameMillis() {
+        return firstFrameMillis;
+    }
+
+    public AssetManager getManager() {
+        return manager;
+    }
+
+    private long elapsedMillis() {
+        return TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(startNanos));
+    }
+
+    @Override
+    public void dispose() {
+        manager.dispose();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.bomba;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Cliente del modo en red. Se conecta sin bloquear a un servidor ({@link NetProtocol}), envía la
+ * entrada de cada tick y mantiene una réplica del {@link World} con las instantáneas recibidas.
+ *
+ * El jugador local se predice con {@link Prediction} (la entrada se ve en el acto y se corrige con
+ * cada confirmación del servidor) y los demás se dibujan con {@link SnapshotInterpolation}.
+ *
+ * No tiene hilo propio: quien lo usa llama a {@link #poll()} una vez por frame (la pantalla de
+ * juego, o el bucle de una prueba de carga con cientos de clientes).
+ */
+public class GameClient implements Closeable {
+    private final FrameChannel channel;
+    private boolean connected;
+
+    private World world;
+    private SnapshotDecoder decoder;
+    private Prediction prediction;
+    private SnapshotInterpolation interpolation;
+    private int slot = -1;
+    private int playerCount;
+    private boolean finished;
+    private boolean refused;
+    private int winner = -1;
+    private World finalState;
+
+    private int nextSequence = 1;
+    private int lastAcknowledged;
+    private long deltas;
+
+    private GameClient(SocketChannel channel) {
+        this.channel = new FrameChannel(channel);
+    }
+
+    /** Empieza a conectar; la conexión se completa en los siguientes {@link #poll()}. */
+    public static GameClient connect(String host, int port) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.connect(new InetSocketAddress(host, port));
+        return new GameClient(channel);
+    }
+
+    /**
+     * Completa la conexión, envía lo pendiente y aplica todas las tramas recibidas.
+     * Devuelve false si la conexión se ha cerrado.
+     */
+    public boolean poll() throws IOException {
+        SocketChannel socket = channel.getChannel();
+        if (!connected) {
+            if (!socket.finishConnect()) return true;
+            connected = true;
+            channel.beginFrame(NetProtocol.HELLO).writeInt(NetProtocol.VERSION);
+            channel.endFrame();
+        }
+        channel.flush();
+        boolean open = channel.read();
+        int type;
+        while ((type = channel.nextFrame()) >= 0) {
+            handle(type, channel.in());
+        }
+        return open;
+    }
+
+    /**
+     * Envía la entrada del siguiente tick; el servidor la confirma en las instantáneas. Antes de
+     * empezar la partida no se envía nada y devuelve -1.
+     */
+    public int sendInput(PlayerInput input) throws IOException {
+        if (world == null || finished) return -1;
+        int sequence = nextSequence++;
+        DataOutputStream out = channel.beginFrame(NetProtocol.INPUT);
+        out.writeInt(sequence);
+        out.writeByte(input.toCode());
+        channel.endFrame();
+        channel.flush();
+        prediction.predict(sequence, input);
+        return sequence;
+    }
+
+    private void handle(int type, DataInputStream in) throws IOException {
+        switch (type) {
+            case NetProtocol.START:
+                slot = in.readByte();
+                playerCount = in.readByte();
+                world = World.read(in);
+                world.prewarm();
+                decoder = new SnapshotDecoder(world);
+                prediction = new Prediction(world, slot);
+                interpolation = new SnapshotInterpolation(world, slot);
+                break;
+            case NetProtocol.DELTA:
+                lastAcknowledged = in.readInt();
+                decoder.apply(in);
+                prediction.reconcile(lastAcknowledged);
+                interpolation.record();
+                deltas++;
+                break;
+            case NetProtocol.END:
+                winner = in.readByte();
+                finalState = World.read(in);
+                finished = true;
+                break;
+            case NetProtocol.BUSY:
+                refused = true;
+                break;
+            default:
+                throw new IOException("Mensaje desconocido: " + type);
+        }
+    }
+
+    @Override
+    public void close() {
+        channel.close();
+    }
+
+    /** La partida ha empezado y {@link #getWorld()} ya tiene la réplica. */
+    public boolean isStarted() { return world != null; }
+    public boolean isFinished() { return finished; }
+    /** El servidor estaba saturado y no ha admitido la conexión (después cierra). */
+    public boolean isRefused() { return refused; }
+    /** Índice del jugador ganador al terminar, o -1 si no ganó nadie. */
+    public int getWinner() { return winner; }
+    public World getWorld() { return world; }
+    /** Estado completo del servidor al terminar, para comprobar la réplica. */
+    public World getFinalState() { return finalState; }
+    /** Predicción del jugador local e interpolación del resto; null hasta que empieza la partida. */
+    public Prediction getPrediction() { return prediction; }
+    public SnapshotInterpolation getInterpolation() { return interpolation; }
+    /** Índice de nuestro jugador en la réplica. */
+    public int getSlot() { return slot; }
+    public int getPlayerCount() { return playerCount; }
+    /** Secuencia de la última entrada que el servidor ya ha aplicado. */
+    public int getLastAcknowledged() { return lastAcknowledged; }
+    public long getDeltaCount() { return deltas; }
+    public long getBytesReceived() { return channel.getBytesRead(); }
+}
@@ -0,0 +1,67 @@
+package com.example.bomba;
+
+/**
+ * Un suceso de la partida tal como lo recibe un {@link EventSink}. Son solo enteros: quién
+ * ({@link #getSubject()}), en qué celda ({@link #getTile()}, fila * columnas + columna) y un dato
+ * extra ({@link #getDetail()}) cuyo significado depende del tipo:
+ * <ul>
+ *   <li>{@link #BOMB_PLACED}: id de la bomba; dato: dueño (id del jugador, o -id del enemigo).</li>
+ *   <li>{@link #BOMB_EXPLODED}: id de la bomba.</li>
+ *   <li>{@link #WALL_DESTROYED}: sin sujeto.</li>
+ *   <li>{@link #POWER_UP_SPAWNED}: tipo ({@link PowerUp.PowerUpType#ordinal()}).</li>
+ *   <li>{@link #POWER_UP_PICKED}: id del jugador; dato: tipo del power-up.</li>
+ *   <li>{@link #SHIELD_LOST}, {@link #PLAYER_KILLED}: id del jugador.</li>
+ *   <li>{@link #ENEMY_KILLED}: id del enemigo.</li>
+ *   <li>{@link #MATCH_END}: ganador (-1 si ninguno); dato: 1 victoria, 0 derrota; sin celda.</li>
+ * </ul>
+ *
+ * El {@link EventBus} reutiliza el mismo objeto para todos los sucesos: un sumidero que quiera
+ * guardarlo debe copiar sus valores.
+ */
+public final class GameEvent {
+    public static final int BOMB_PLACED = 1;
+    public static final int BOMB_EXPLODED = 2;
+    public static final int WALL_DESTROYED = 3;
+    public static final int POWER_UP_SPAWNED = 4;
+    public static final int POWER_UP_PICKED = 5;
+    public static final int SHIELD_LOST = 6;
+    public static final int PLAYER_KILLED = 7;
+    public static final int ENEMY_KILLED = 8;
+    public static final int MATCH_END = 9;
+    static final int TYPES = 10;
+
+    private static final PowerUp.PowerUpType[] POWER_UP_TYPES = PowerUp.PowerUpType.values();
+
+    int type, tick, subject, tile, detail;
+
+    public int getType() { return type; }
+    public int getTick() { return tick; }
+    public int getSubject() { return subject; }
+    public int getTile() { return tile; }
+    public int getDetail() { return detail; }
+
+    /** Descripción legible, para la consola. */
+    public String describe() {
+        switch (type) {
+            case BOMB_PLACED:
+                return "Bomba " + subject + " colocada en la celda " + tile + " por "
+                    + (detail >= 0 ? "el jugador " + detail : "el enemigo " + -detail);
+            case BOMB_EXPLODED: return "Bomba " + subject + " explota en la celda " + tile;
+            case WALL_DESTROYED: return "Muro destruido en la celda " + tile;
+            case POWER_UP_SPAWNED: return "Aparece un power-up " + POWER_UP_TYPES[subject] + " en la celda " + tile;
+            case POWER_UP_PICKED: return "El jugador " + subject + " recoge " + POWER_UP_TYPES[detail];
+            case SHIELD_LOST: return "El escudo del jugador " + subject + " absorbió la explosión, pero se ha destruido.";
+            case PLAYER_KILLED: return "El jugador " + subject + " ha sido eliminado.";
+            case ENEMY_KILLED: return "Enemigo " + subject + " eliminado en la celda " + tile;
+            case MATCH_END:
+                return "Fin de la partida: " + (detail == 1 ? "victoria" : "derrota")
+                    + (subject >= 0 ? " del jugador " + subject : "");
+            default: return "Suceso " + type;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[" + tick + "] " + describe();
+    }
+}
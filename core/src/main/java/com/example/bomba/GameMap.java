@@ -1,132 +1,206 @@
 package com.example.bomba;
 
-import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
+/**
+ * Rejilla lógica del mapa. No depende de libGDX gráfico: se dibuja desde {@link MapRenderer}.
+ *
+ * Las celdas se guardan en un único {@code byte[]} por filas (índice fila * columnas + columna):
+ * un byte por celda y sin un array por fila, así que un mapa de 1000x1000 ocupa 1 MB.
+ *
+ * Cada cambio real de {@link #setCell} se anota de dos formas para que renderizado, búsqueda de
+ * caminos o sincronización de red procesen solo lo que cambió:
+ * <ul>
+ *   <li>Un registro circular de las últimas {@link #CHANGE_LOG_SIZE} celdas cambiadas, numeradas con
+ *   {@link #getVersion()}. Quien guarde la versión que ya procesó lee las celdas nuevas con
+ *   {@link #getChangedCell(int)}; si se ha quedado atrás más de lo que cabe en el registro
+ *   ({@link #hasChangesSince(int)} devuelve false) debe recorrer el mapa entero.</li>
+ *   <li>Una versión por bloque de {@link #CHUNK_SIZE}x{@link #CHUNK_SIZE} celdas, con la versión del
+ *   último cambio dentro del bloque, para quien trabaje por regiones.</li>
+ * </ul>
+ *
+ * Cada mapa lleva sus salidas ({@link #getSpawnCount()}): {@link World} pone a los jugadores en las
+ * primeras y a los enemigos en el resto. Junto a cada una hay una zona segura de suelo en L. El mapa
+ * clásico tiene las cuatro esquinas; {@link MapGenerator} crea otros.
+ */
 public class GameMap {
-    private Texture wallTexture;              // Muro indestructible (gris oscuro)
-    private Texture destructibleWallTexture;  // Muro destructible (marrón fuerte)
-    private Texture floorSafeTexture;         // Piso seguro (blanco)
-    private int[][] map;
-    public static final int TILE_SIZE = 32;
-    private int rows = 15;
-    private int cols = 25;
+    // Potencia de dos: la celda de un píxel entero sale con un desplazamiento (GridCollision)
+    public static final int TILE_SHIFT = 5;
+    public static final int TILE_SIZE = 1 << TILE_SHIFT;
+
+    public static final int CHUNK_SHIFT = 4;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    // Potencia de dos para indexar el registro con una máscara
+    public static final int CHANGE_LOG_SIZE = 1024;
+
+    private final byte[] map;
+    private final int rows;
+    private final int cols;
+
+    private final int chunkRows, chunkCols;
+    private final int[] chunkVersions;
+    private final int[] changeLog = new int[CHANGE_LOG_SIZE];
+    private int version;
+    // Celda (fila * columnas + columna) de cada salida, en orden
+    private final int[] spawns;
 
     public GameMap() {
-        map = new int[rows][cols];
+        this(15, 25);
+    }
+
+    /** Mapa con la misma disposición que el clásico pero de tamaño arbitrario (benchmarks, pruebas de carga). */
+    public GameMap(int rows, int cols) {
+        this(rows, cols, new byte[rows * cols]);
         // Generamos el mapa:
         // • Los bordes se fijan como muros fijos (valor 1).
         // • En el interior:
-        //      - Si la celda es en fila y columna pares, es un muro fijo (valor 1) y se dibuja gris.
-        //      - Si la celda cae en la zona segura (definida en isSafeZone) se fuerza piso (valor 0) y se dibuja en blanco.
-        //      - En el resto, se colocan muros destructibles (valor 2) y se dibujan en marrón fuerte.
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
+        //      - Si la celda es en fila y columna pares, es un muro fijo (valor 1).
+        //      - En el resto, se colocan muros destructibles (valor 2).
+        // • Por último, la zona segura de cada esquina (ver carveSafeZone) queda como piso (valor 0).
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++, i++) {
                 if (r == 0 || r == rows - 1 || c == 0 || c == cols - 1) {
-                    map[r][c] = 1;
-                } else if (isSafeZone(r, c)) {
-                    map[r][c] = 0;
+                    map[i] = 1;
                 } else if ((r % 2 == 0) && (c % 2 == 0)) {
-                    map[r][c] = 1;
+                    map[i] = 1;
                 } else {
-                    map[r][c] = 2;
+                    map[i] = 2;
                 }
             }
         }
-        loadTextures();
+        for (int i = 0; i < spawns.length; i++) {
+            carveSafeZone(spawns[i]);
+        }
+    }
+
+    /** Mapa con las celdas dadas (por filas) y salidas en las esquinas, sin cambios anotados. */
+    GameMap(int rows, int cols, byte[] cells) {
+        this(rows, cols, cells, cornerSpawns(rows, cols));
+    }
+
+    /** Mapa con las celdas y salidas dadas, sin cambios anotados (lo usan los generadores). */
+    GameMap(int rows, int cols, byte[] cells, int[] spawns) {
+        this.rows = rows;
+        this.cols = cols;
+        map = cells;
+        this.spawns = spawns;
+        chunkRows = (rows + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+        chunkCols = (cols + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+        chunkVersions = new int[chunkRows * chunkCols];
     }
 
     /**
-     * Define las zonas seguras en forma de L para cada esquina.
-     * Se definen como sigue:
-     *
-     * - Esquina inferior izquierda:
-     *     • fila 1, columnas 1 y 2
-     *     • fila 2, columna 1
-     * - Esquina inferior derecha:
-     *     • fila 1, columnas cols-3 y cols-2
-     *     • fila 2, columna cols-2
-     * - Esquina superior izquierda:
-     *     • fila rows-2, columnas 1 y 2
-     *     • fila rows-3, columna 1
-     * - Esquina superior derecha:
-     *     • fila rows-2, columnas cols-3 y cols-2
-     *     • fila rows-3, columna cols-2
+     * Las 4 esquinas del área interior (el borde es pared), en orden: inferior izquierda, inferior
+     * derecha, superior izquierda y superior derecha.
      */
-    private boolean isSafeZone(int r, int c) {
-        // Esquina inferior izquierda:
-        if (r == 1 && (c == 1 || c == 2)) return true;
-        if (r == 2 && c == 1) return true;
-        // Esquina inferior derecha:
-        if (r == 1 && (c == cols - 3 || c == cols - 2)) return true;
-        if (r == 2 && c == cols - 2) return true;
-        // Esquina superior izquierda:
-        if (r == rows - 2 && (c == 1 || c == 2)) return true;
-        if (r == rows - 3 && c == 1) return true;
-        // Esquina superior derecha:
-        if (r == rows - 2 && (c == cols - 3 || c == cols - 2)) return true;
-        if (r == rows - 3 && c == cols - 2) return true;
-        return false;
+    static int[] cornerSpawns(int rows, int cols) {
+        int lastRow = rows - 2;
+        int lastCol = cols - 2;
+        return new int[] { cols + 1, cols + lastCol, lastRow * cols + 1, lastRow * cols + lastCol };
+    }
+
+    /** Dimensiones, celdas y salidas, para las instantáneas de {@link World#write}. */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(rows);
+        out.writeInt(cols);
+        out.write(map);
+        out.writeInt(spawns.length);
+        for (int spawn : spawns) {
+            out.writeInt(spawn);
+        }
     }
 
-    private void loadTextures() {
-        // Piso seguro: blanco
-        floorSafeTexture = createColorTexture(TILE_SIZE, TILE_SIZE, Color.WHITE);
-        // Muro destructible (valor 2)
-        destructibleWallTexture = createColorTexture(TILE_SIZE, TILE_SIZE, new Color(0.55f, 0.27f, 0.07f, 1));
-        // Muros fijos (valor 1)
-        wallTexture = createColorTexture(TILE_SIZE, TILE_SIZE, Color.DARK_GRAY);
+    /** Copia con las mismas celdas y salidas, sin cambios anotados (cada partida destruye los suyos). */
+    public GameMap copy() {
+        return new GameMap(rows, cols, map.clone(), spawns);
     }
 
-    private Texture createColorTexture(int width, int height, Color color) {
-        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return texture;
+    static GameMap read(DataInput in) throws IOException {
+        int rows = in.readInt();
+        int cols = in.readInt();
+        byte[] cells = new byte[rows * cols];
+        in.readFully(cells);
+        int[] spawns = new int[in.readInt()];
+        for (int i = 0; i < spawns.length; i++) {
+            spawns[i] = in.readInt();
+        }
+        return new GameMap(rows, cols, cells, spawns);
     }
 
     /**
-     * Renderiza el mapa recorriendo cada celda y asignando la textura según el valor:
-     *   0 → piso seguro (blanco),
-     *   1 → muro fijo (gris oscuro),
-     *   2 → muro destructible (marrón fuerte).
+     * Deja como suelo la zona segura en forma de L de una salida: su celda y la vecina de cada eje
+     * hacia el centro del mapa. En la esquina inferior izquierda, por ejemplo, son (1, 1), (1, 2) y
+     * (2, 1). Así quien sale ahí puede poner una bomba y apartarse de su cruz.
      */
-    public void render(SpriteBatch batch) {
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                Texture tex;
-                if (map[r][c] == 0) {
-                    tex = floorSafeTexture;
-                } else if (map[r][c] == 1) {
-                    tex = wallTexture;
-                } else if (map[r][c] == 2) {
-                    tex = destructibleWallTexture;
-                } else {
-                    tex = destructibleWallTexture;
-                }
-                batch.draw(tex, c * TILE_SIZE, r * TILE_SIZE);
-            }
+    void carveSafeZone(int spawn) {
+        int r = spawn / cols;
+        int c = spawn % cols;
+        int dr = r < rows / 2 ? 1 : -1;
+        int dc = c < cols / 2 ? 1 : -1;
+        carveInterior(r, c);
+        carveInterior(r, c + dc);
+        carveInterior(r + dr, c);
+    }
+
+    // El borde sigue siendo pared aunque el mapa sea tan pequeño que la L llegue a él
+    private void carveInterior(int r, int c) {
+        if (r > 0 && r < rows - 1 && c > 0 && c < cols - 1) {
+            map[r * cols + c] = 0;
         }
     }
 
     public boolean isCellPassable(int row, int col) {
         if (row < 0 || row >= rows || col < 0 || col >= cols)
             return false;
-        return map[row][col] == 0;
+        return map[row * cols + col] == 0;
     }
 
     public int getRows() { return rows; }
     public int getCols() { return cols; }
-    public int getCell(int row, int col) { return map[row][col]; }
-    public void setCell(int row, int col, int value) { map[row][col] = value; }
+    public int getCell(int row, int col) { return map[row * cols + col]; }
+
+    /** Celda por índice fila * columnas + columna, para quien ya recorre el array plano. */
+    public int getCell(int index) { return map[index]; }
+
+    /** Cambia una celda. Solo se anota en el registro y en la versión de su bloque si el valor cambia. */
+    public void setCell(int row, int col, int value) {
+        int index = row * cols + col;
+        if (map[index] == value) return;
+        map[index] = (byte) value;
+        version++;
+        changeLog[version & (CHANGE_LOG_SIZE - 1)] = index;
+        chunkVersions[(row >> CHUNK_SHIFT) * chunkCols + (col >> CHUNK_SHIFT)] = version;
+    }
+
+    /** Número de cambios hechos desde que se creó el mapa. */
+    public int getVersion() { return version; }
+
+    /** Si el registro aún guarda todos los cambios posteriores a {@code since}. */
+    public boolean hasChangesSince(int since) {
+        return version - since <= CHANGE_LOG_SIZE;
+    }
+
+    /**
+     * Índice de la celda del cambio número {@code changeVersion}, para versiones en
+     * (since, {@link #getVersion()}] con {@link #hasChangesSince(int)} verdadero.
+     */
+    public int getChangedCell(int changeVersion) {
+        return changeLog[changeVersion & (CHANGE_LOG_SIZE - 1)];
+    }
+
+    public int getSpawnCount() { return spawns.length; }
+    /** Celda (fila * columnas + columna) de la salida i. */
+    public int getSpawn(int i) { return spawns[i]; }
+    public int getSpawnRow(int i) { return spawns[i] / cols; }
+    public int getSpawnCol(int i) { return spawns[i] % cols; }
+
+    public int getChunkRows() { return chunkRows; }
+    public int getChunkCols() { return chunkCols; }
 
-    public void dispose() {
-        wallTexture.dispose();
-        destructibleWallTexture.dispose();
-        floorSafeTexture.dispose();
+    /** Versión del último cambio dentro del bloque (0 si nunca cambió). */
+    public int getChunkVersion(int chunkRow, int chunkCol) {
+        return chunkVersions[chunkRow * chunkCols + chunkCol];
     }
 }
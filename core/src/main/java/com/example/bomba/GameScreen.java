@@ -1,58 +1,121 @@
 package com.example.bomba;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.utils.Array;
 
+/**
+ * Vista de una partida: traduce los botones táctiles a {@link PlayerInput}, avanza el {@link World}
+ * a paso fijo y lo dibuja: el mapa con {@link MapCache} y las entidades con {@link WorldRenderer}.
+ * Toda la lógica del juego vive en World.
+ *
+ * La entrada de cada paso se graba en una {@link Replay} que se guarda al terminar la partida
+ * ({@link #REPLAY_FILE}), para poder reproducir fuera del dispositivo lo que pasó.
+ *
+ * En una partida en red el mundo es la réplica de un {@link GameClient}: la entrada de cada paso se
+ * envía al servidor, y el mundo avanza con las instantáneas que llegan. El jugador local no espera
+ * a la respuesta: se dibuja su predicción ({@link Prediction}).
+ *
+ * Cada frame se mide con un {@link FrameProfiler} (las fases de World y las del dibujo); tocar la
+ * esquina superior derecha, o F3 con teclado, muestra el panel de {@link ProfilerOverlay}.
+ *
+ * La cámara del mundo sigue al jugador local sin salirse del mapa, así que sirve igual para el mapa
+ * clásico (que cabe justo en la vista y no se mueve) que para una arena grande
+ * ({@link MyBombermanGame#getArena()}), de la que {@link MapCache} solo carga los bloques cercanos.
+ * Solo se envían a la GPU las celdas y entidades que ve la cámara ({@link ViewCuller}). Los botones
+ * se dibujan y se tocan con una cámara fija aparte.
+ */
 public class GameScreen implements Screen {
+    // Límite de tiempo acumulado por frame para que un tirón no dispare demasiados pasos seguidos
+    private static final float MAX_FRAME_TIME = 0.25f;
+    // Última partida jugada, en el almacenamiento local de la aplicación
+    static final String REPLAY_FILE = "replays/ultima.bmr";
+    // Tamaño de la vista en píxeles del mundo: el mapa clásico entero
+    private static final float VIEW_WIDTH = 800, VIEW_HEIGHT = 480;
+
     final MyBombermanGame game;
     OrthographicCamera camera;
-    GameMap gameMap;
-    Player player;
-    Array<Enemy> enemies;
-    Array<PowerUp> powerUps;
-    Array<Bomb> bombs;
+    // Botones y panel, que no se mueven con la cámara del mundo
+    private final OrthographicCamera uiCamera;
+    World world;
+    private final Sprites sprites;
+    private final WorldRenderer worldRenderer;
+    private final MapCache mapCache;
+    private final PlayerInput input = new PlayerInput();
+    // Null en red y en las arenas grandes, cuyo mapa no cabe en una repetición
+    private final Replay replay;
+    // Solo en partidas en red
+    private final GameClient client;
+    private final Vector3 touchPos = new Vector3(); // reutilizado en cada frame
+    private final FrameProfiler profiler = new FrameProfiler();
+    private final ViewCuller culler = new ViewCuller();
+    private final ProfilerOverlay overlay;
+    // Sucesos de la partida local hacia el registro de la aplicación; la réplica de red no simula
+    private final EventBus events;
+    private float accumulator;
 
     // Botones táctiles
-    private Texture btnUp, btnDown, btnLeft, btnRight, btnBomb;
+    private TextureRegion btnUp, btnDown, btnLeft, btnRight, btnBomb;
     private Rectangle rectBtnUp, rectBtnDown, rectBtnLeft, rectBtnRight, rectBtnBomb;
+    private Rectangle rectProfiler;
 
     public GameScreen(final MyBombermanGame game) {
+        // Mapa clásico o arena grande, con jugador y enemigos en las salidas del mapa
+        this(game, game.newLocalWorld(), null);
+    }
+
+    /** Partida en red ya empezada: se dibuja la réplica del cliente. */
+    public GameScreen(final MyBombermanGame game, GameClient client) {
+        this(game, client.getWorld(), client);
+    }
+
+    private GameScreen(final MyBombermanGame game, World world, GameClient client) {
         this.game = game;
+        this.world = world;
+        this.client = client;
         camera = new OrthographicCamera();
-        camera.setToOrtho(false, 800, 480);
-
-        // Inicializamos el mapa
-        gameMap = new GameMap();
-
-        // Colocar a los 4 personajes en cada esquina (del área interior, ya que el borde es pared).
-        // Usamos GameMap.TILE_SIZE para calcular la posición según celdas.
-        // Esquina inferior izquierda (jugador): (fila 1, columna 1)
-        player = new Player(1 * GameMap.TILE_SIZE, 1 * GameMap.TILE_SIZE);
-
-        // Inicializar los enemigos en las otras tres esquinas
-        enemies = new Array<>();
-        // Esquina inferior derecha: (fila 1, columna 23)
-        enemies.add(new Enemy(23 * GameMap.TILE_SIZE, 1 * GameMap.TILE_SIZE));
-        // Esquina superior izquierda: (fila 13, columna 1)
-        enemies.add(new Enemy(1 * GameMap.TILE_SIZE, 13 * GameMap.TILE_SIZE));
-        // Esquina superior derecha: (fila 13, columna 23)
-        enemies.add(new Enemy(23 * GameMap.TILE_SIZE, 13 * GameMap.TILE_SIZE));
-
-        powerUps = new Array<>();
-        bombs = new Array<>();
-
-        // Cargamos imágenes para botones (estos assets deben estar en tu carpeta de assets)
-        btnUp = new Texture("btn_up.png");
-        btnDown = new Texture("btn_down.png");
-        btnLeft = new Texture("btn_left.png");
-        btnRight = new Texture("btn_right.png");
-        btnBomb = new Texture("btn_bomb.png");
+        camera.setToOrtho(false, VIEW_WIDTH, VIEW_HEIGHT);
+        uiCamera = new OrthographicCamera();
+        uiCamera.setToOrtho(false, VIEW_WIDTH, VIEW_HEIGHT);
+
+        // Todas las imágenes de la partida salen del atlas, lo primero que carga el LoadingScreen
+        sprites = new Sprites(game.getAssetManager());
+        worldRenderer = new WorldRenderer(sprites);
+
+        if (client == null) {
+            // Bombas y power-ups se crean ahora, no durante la partida (la réplica ya lo hizo al empezar)
+            world.prewarm();
+            // Una repetición guarda el tamaño de un mapa clásico y la semilla, no un mapa generado
+            replay = game.getArena() == null
+                ? new Replay(world.getMap().getRows(), world.getMap().getCols(), world.getSeed()) : null;
+            events = new EventBus(new ConsoleEventSink());
+            events.start();
+            world.setEvents(events);
+        } else {
+            replay = null;
+            events = null;
+        }
+        // El mapa se sube a la GPU por bloques según se acercan a la vista; después solo se rehacen
+        // los bloques con muros rotos
+        mapCache = new MapCache(world.getMap(), sprites.white, VIEW_WIDTH, VIEW_HEIGHT);
+        world.setProfiler(profiler);
+        overlay = new ProfilerOverlay(profiler, game.getDeviceInfo());
+
+        // Imágenes para botones (regiones del atlas)
+        btnUp = sprites.btnUp;
+        btnDown = sprites.btnDown;
+        btnLeft = sprites.btnLeft;
+        btnRight = sprites.btnRight;
+        btnBomb = sprites.btnBomb;
 
         int btnSize = 50;
         int margin = 10;
@@ -63,183 +126,184 @@ public class GameScreen implements Screen {
         rectBtnRight = new Rectangle(margin + btnSize * 2, margin + btnSize, btnSize, btnSize);
         // Botón de bomba en la esquina inferior derecha
         rectBtnBomb  = new Rectangle(800 - margin - btnSize, margin, btnSize, btnSize);
+        // Zona invisible que muestra u oculta el panel de rendimiento, en la esquina superior derecha
+        rectProfiler = new Rectangle(800 - btnSize, 480 - btnSize, btnSize, btnSize);
     }
 
 
     @Override
     public void render(float delta) {
+        profiler.beginFrame();
+        if (client != null) {
+            renderNetwork(delta);
+            return;
+        }
         update(delta);
 
         // Mostrar pantalla de derrota si el jugador está muerto
-        if (!player.isAlive()) {
+        if (world.isLost()) {
+            saveReplay();
             game.setScreen(new LoseScreen(game));
             dispose();
             return;
         }
 
         // Mostrar pantalla de victoria si todos los enemigos están muertos
-        boolean allEnemiesDead = true;
-        for (Enemy e : enemies) {
-            if (e.isAlive()) {
-                allEnemiesDead = false;
-                break;
+        if (world.isWon()) {
+            saveReplay();
+            game.setScreen(new WinScreen(game));
+            dispose();
+            return;
+        }
+
+        // Fracción del siguiente paso ya transcurrida: el dibujo se interpola entre los dos últimos pasos
+        float alpha = accumulator / World.STEP;
+        beginDraw(world.getPlayer(), alpha);
+        profiler.begin(FrameProfiler.ENTITIES);
+        worldRenderer.render(game.batch, world, alpha, culler);
+        profiler.end(FrameProfiler.ENTITIES);
+        endDraw(delta);
+    }
+
+    private void renderNetwork(float delta) {
+        boolean open;
+        readInput();
+        accumulator += Math.min(delta, MAX_FRAME_TIME);
+        try {
+            // Una entrada por paso, al mismo ritmo al que el servidor las consume
+            while (accumulator >= World.STEP) {
+                client.sendInput(input);
+                accumulator -= World.STEP;
             }
+            open = client.poll();
+        } catch (IOException e) {
+            Gdx.app.error("GameScreen", "Conexión perdida", e);
+            open = false;
+        }
+
+        int slot = client.getSlot();
+        boolean won = client.isFinished() && client.getWinner() == slot;
+        if (!won && (!open || client.isFinished() || !world.getPlayer(slot).isAlive())) {
+            game.setScreen(new LoseScreen(game));
+            dispose();
+            return;
         }
-        if (allEnemiesDead) {
+        if (won) {
             game.setScreen(new WinScreen(game));
             dispose();
             return;
         }
 
+        client.getInterpolation().advance(delta);
+        float alpha = accumulator / World.STEP;
+        beginDraw(client.getPrediction().getPlayer(), alpha);
+        // El jugador local se predice a paso fijo como en una partida local; el resto se interpola
+        profiler.begin(FrameProfiler.ENTITIES);
+        worldRenderer.renderNetwork(game.batch, world, client.getPrediction(), client.getInterpolation(), alpha,
+            culler);
+        profiler.end(FrameProfiler.ENTITIES);
+        endDraw(delta);
+    }
+
+    /** Centra la cámara en el jugador (donde se dibuja en este frame) y dibuja el mapa. */
+    private void beginDraw(Player player, float alpha) {
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
+        follow(player.getPrevX() + (player.getX() - player.getPrevX()) * alpha + Player.WIDTH / 2f,
+            player.getPrevY() + (player.getY() - player.getPrevY()) * alpha + Player.HEIGHT / 2f);
         camera.update();
-        game.batch.setProjectionMatrix(camera.combined);
+        // Lo que no toca la vista de la cámara no se envía a la GPU
+        culler.set(camera.frustum);
+        culler.reset();
+        profiler.begin(FrameProfiler.MAP);
+        mapCache.render(camera, culler);
+        profiler.end(FrameProfiler.MAP);
 
+        game.batch.setProjectionMatrix(camera.combined);
         game.batch.begin();
-        gameMap.render(game.batch);
-        player.render(game.batch);
-        for (Enemy enemy : enemies) {
-            enemy.render(game.batch);
-        }
-        for (PowerUp powerUp : powerUps) {
-            powerUp.render(game.batch);
-        }
-        for (Bomb bomb : bombs) {
-            bomb.render(game.batch);
-        }
+    }
+
+    /**
+     * Pone el centro de la cámara en (x, y) sin enseñar nada fuera del mapa; en un eje en el que el
+     * mapa cabe entero, la cámara se queda en el centro de la vista.
+     */
+    private void follow(float x, float y) {
+        float halfWidth = camera.viewportWidth * camera.zoom / 2f;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2f;
+        float mapWidth = world.getMap().getCols() * GameMap.TILE_SIZE;
+        float mapHeight = world.getMap().getRows() * GameMap.TILE_SIZE;
+        camera.position.x = mapWidth <= halfWidth * 2f ? halfWidth : MathUtils.clamp(x, halfWidth, mapWidth - halfWidth);
+        camera.position.y = mapHeight <= halfHeight * 2f ? halfHeight
+            : MathUtils.clamp(y, halfHeight, mapHeight - halfHeight);
+    }
+
+    // Botones táctiles y panel de rendimiento por encima de todo
+    private void endDraw(float delta) {
+        profiler.begin(FrameProfiler.UI);
+        game.batch.setProjectionMatrix(uiCamera.combined);
         game.batch.draw(btnLeft,  rectBtnLeft.x,  rectBtnLeft.y,  rectBtnLeft.width,  rectBtnLeft.height);
         game.batch.draw(btnDown,  rectBtnDown.x,  rectBtnDown.y,  rectBtnDown.width,  rectBtnDown.height);
         game.batch.draw(btnUp,    rectBtnUp.x,    rectBtnUp.y,    rectBtnUp.width,    rectBtnUp.height);
         game.batch.draw(btnRight, rectBtnRight.x, rectBtnRight.y, rectBtnRight.width, rectBtnRight.height);
         game.batch.draw(btnBomb,  rectBtnBomb.x,  rectBtnBomb.y,  rectBtnBomb.width,  rectBtnBomb.height);
+        overlay.draw(game.batch, 10, 470);
         game.batch.end();
+        profiler.end(FrameProfiler.UI);
+        profiler.countCulling(culler);
+        overlay.endFrame(world, game.batch.renderCalls, delta);
+        game.getAssets().firstPlayableFrame();
     }
 
 
     private void update(float delta) {
-        // Actualizamos jugador.
-        player.update(delta);
-
-        Array<Enemy> enemiesCopy = new Array<>(enemies); // evitar iteración anidada
-
-        for (Enemy enemy : enemiesCopy) {
-            enemy.update(delta, gameMap, player, enemies);
-            // sigue usando el array original como referencia
-            Bomb enemyBomb = enemy.getBomb();
-            if (enemyBomb != null) {
-                bombs.add(enemyBomb);
-            }
+        readInput();
+
+        // La simulación avanza siempre en pasos de World.STEP, independientemente del frame
+        accumulator += Math.min(delta, MAX_FRAME_TIME);
+        while (accumulator >= World.STEP) {
+            if (replay != null) replay.record(input);
+            world.step(input);
+            accumulator -= World.STEP;
         }
+    }
 
-
-        // Actualizamos bombas.
-        for (int i = bombs.size - 1; i >= 0; i--) {
-            Bomb b = bombs.get(i);
-            b.update(delta);
-            // Si el fuse termino y aun no ha explotado, se dispara la explosión.
-            if (!b.hasExploded() && b.getFuseTime() <= 0f) {
-                b.triggerExplosion(gameMap, powerUps);
-                checkExplosionCollision(b);
-            }
-            if (b.isFinished()) {
-                bombs.removeIndex(i);
-                b.dispose();
-            }
+    private void saveReplay() {
+        if (replay == null) return;
+        try (OutputStream out = Gdx.files.local(REPLAY_FILE).write(false)) {
+            replay.write(out);
+        } catch (IOException e) {
+            // Perder la grabación no debe interrumpir el juego
+            Gdx.app.error("GameScreen", "No se pudo guardar la repetición", e);
         }
+    }
 
-        // Comprobamos colisiones entre jugador y power-ups.
-        for (int i = powerUps.size - 1; i >= 0; i--) {
-            PowerUp p = powerUps.get(i);
-            if (checkCollision(player, p)) {
-                activatePowerUp(p);
-                powerUps.removeIndex(i);
-            }
+    // para mover al jugador y lanzar bomba manualmente
+    private void readInput() {
+        input.clear();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            overlay.toggle();
+        }
+        if (Gdx.input.justTouched()) {
+            touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+            uiCamera.unproject(touchPos);
+            if (rectProfiler.contains(touchPos.x, touchPos.y)) overlay.toggle();
         }
-
-        // para mover al jugador y lanzar bomba manualmente
         if (Gdx.input.isTouched()) {
-            Vector3 touchPos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
-            camera.unproject(touchPos);
+            touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+            uiCamera.unproject(touchPos);
             if (rectBtnUp.contains(touchPos.x, touchPos.y)) {
-                player.move(Direction.UP, delta, gameMap);
+                input.direction = Direction.UP;
             } else if (rectBtnDown.contains(touchPos.x, touchPos.y)) {
-                player.move(Direction.DOWN, delta, gameMap);
+                input.direction = Direction.DOWN;
             } else if (rectBtnLeft.contains(touchPos.x, touchPos.y)) {
-                player.move(Direction.LEFT, delta, gameMap);
+                input.direction = Direction.LEFT;
             } else if (rectBtnRight.contains(touchPos.x, touchPos.y)) {
-                player.move(Direction.RIGHT, delta, gameMap);
+                input.direction = Direction.RIGHT;
             } else if (rectBtnBomb.contains(touchPos.x, touchPos.y)) {
-                Bomb newBomb = player.placeBomb();
-                if (newBomb != null) {
-                    bombs.add(newBomb);
-                }
-            }
-        }
-
-    }
-
-
-    private void checkExplosionCollision(Bomb b) {
-        int bx = (int)(b.getX() / GameMap.TILE_SIZE);
-        int by = (int)(b.getY() / GameMap.TILE_SIZE);
-
-        // Verifica si el jugador ha sido alcanzado por la explosión
-        int px = (int)(player.getX() / GameMap.TILE_SIZE);
-        int py = (int)(player.getY() / GameMap.TILE_SIZE);
-        if ((px == bx && Math.abs(py - by) <= b.getRadius()) ||
-            (py == by && Math.abs(px - bx) <= b.getRadius())) {
-            player.kill();
-            System.out.println("El jugador ha sido alcanzado por una bomba.");
-        }
-
-        // Verifica cada enemigo
-        for (int i = enemies.size - 1; i >= 0; i--) {
-            Enemy enemy = enemies.get(i);
-            int ex = (int)(enemy.getX() / GameMap.TILE_SIZE);
-            int ey = (int)(enemy.getY() / GameMap.TILE_SIZE);
-
-            // Si la bomba pertenece a este enemigo, no debe afectarlo
-            if (b.getOwnerType() == Bomb.OwnerType.ENEMY && b.getOwnerId() == enemy.getId()) {
-                continue; // Ignora esta bomba para el enemigo dueño
-            }
-
-            if ((ex == bx && Math.abs(ey - by) <= b.getRadius()) ||
-                (ey == by && Math.abs(ex - bx) <= b.getRadius())) {
-                enemy.kill();
+                input.bomb = true;
             }
         }
-
-        // Elimina enemigos muertos
-        for (int i = enemies.size - 1; i >= 0; i--) {
-            if (!enemies.get(i).isAlive()) {
-                enemies.removeIndex(i);
-            }
-        }
-    }
-
-
-
-
-    private boolean checkCollision(Player player, PowerUp p) {
-        // Utilizamos las dimensiones originales (32x32) para la comprobación; ajusta si es necesario.
-        Rectangle playerRect = new Rectangle(player.getX(), player.getY(), 32, 32);
-        Rectangle powerRect = new Rectangle(p.getX(), p.getY(), 32, 32);
-        return playerRect.overlaps(powerRect);
-    }
-
-    private void activatePowerUp(PowerUp p) {
-        switch(p.getType()){
-            case SPEED: player.increaseSpeed(); break;
-            case BOMB_RADIUS: player.increaseBombRadius(); break;
-            case SHIELD: player.activateShield(); break;
-        }
-    }
-
-    private void spawnPowerUp(float x, float y) {
-        PowerUp.PowerUpType type = PowerUp.PowerUpType.values()[com.badlogic.gdx.math.MathUtils.random(PowerUp.PowerUpType.values().length - 1)];
-        powerUps.add(new PowerUp(type, x, y));
     }
 
     @Override public void resize(int width, int height) {}
@@ -250,16 +314,11 @@ public class GameScreen implements Screen {
 
     @Override
     public void dispose() {
-        gameMap.dispose();
-        player.dispose();
-        for (Enemy enemy : enemies) enemy.dispose();
-        for (PowerUp powerUp : powerUps) powerUp.dispose();
-        for (Bomb bomb : bombs) bomb.dispose();
-        btnUp.dispose();
-        btnDown.dispose();
-        btnLeft.dispose();
-        btnRight.dispose();
-        btnBomb.dispose();
+        // Las texturas pertenecen al atlas del AssetManager; solo la caché del mapa es de esta pantalla.
+        mapCache.dispose();
+        overlay.dispose();
+        if (events != null) events.close();
+        if (client != null) client.close();
     }
 
 
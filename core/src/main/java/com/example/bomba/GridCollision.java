@@ -0,0 +1,138 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Colisión de cajas alineadas con los ejes contra la rejilla de {@link GameMap}, común a jugadores
+ * ({@link Player#move}) y enemigos ({@link Enemy#canMoveTo}).
+ *
+ * Las posiciones son píxeles del mundo en coma flotante, pero la caja se lleva a píxeles enteros una
+ * sola vez y las celdas que toca salen con desplazamientos de {@link GameMap#TILE_SHIFT}, sin
+ * divisiones. Lo que queda fuera del mapa cuenta como muro.
+ *
+ * {@link #move} barre el movimiento en vez de mirar solo el destino: recorre las filas o columnas de
+ * celdas que cruza y se detiene pegado a la primera con muro, así que un desplazamiento de varias
+ * celdas en un paso no atraviesa paredes. Si la caja choca nada más empezar pero apenas roza la
+ * esquina del muro, se desliza de lado hacia el hueco (como en el Bomberman clásico) en lugar de
+ * quedarse parada. Nada de esto reserva memoria: el resultado se escribe en un {@link Vector2} del
+ * que llama.
+ */
+public final class GridCollision {
+    private static final int SHIFT = GameMap.TILE_SHIFT;
+
+    private GridCollision() {
+    }
+
+    /** Si la caja con la esquina inferior izquierda en (x, y) solo toca suelo. */
+    public static boolean isFree(GameMap map, float x, float y, int width, int height) {
+        int px = MathUtils.floor(x);
+        int py = MathUtils.floor(y);
+        return isFree(map, px >> SHIFT, (px + width - 1) >> SHIFT, py >> SHIFT, (py + height - 1) >> SHIFT);
+    }
+
+    // Columnas [col0, col1] por filas [row0, row1], incluidas
+    private static boolean isFree(GameMap map, int col0, int col1, int row0, int row1) {
+        if (col0 < 0 || row0 < 0 || col1 >= map.getCols() || row1 >= map.getRows()) return false;
+        int cols = map.getCols();
+        for (int row = row0; row <= row1; row++) {
+            for (int i = row * cols + col0, end = row * cols + col1; i <= end; i++) {
+                if (map.getCell(i) != 0) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mueve la caja con la esquina inferior izquierda en (x, y) hasta {@code distance} píxeles en
+     * {@code direction}, parando contra el primer muro. Si no puede avanzar nada y entra como mucho
+     * {@code nudge} píxeles en la fila (o columna) bloqueada mientras la otra que pisa está libre, se
+     * desliza hacia la libre hasta {@code distance} píxeles. La caja debe empezar en suelo.
+     *
+     * @param out recibe la posición final (la inicial si no se mueve).
+     * @return si la caja se ha movido.
+     */
+    public static boolean move(GameMap map, float x, float y, int width, int height, Direction direction,
+                               float distance, float nudge, Vector2 out) {
+        boolean horizontal = direction == Direction.LEFT || direction == Direction.RIGHT;
+        float delta = direction == Direction.RIGHT || direction == Direction.UP ? distance : -distance;
+        float along = horizontal ? x : y;
+        float across = horizontal ? y : x;
+        int alongSize = horizontal ? width : height;
+        int acrossSize = horizontal ? height : width;
+        int acrossPixel = MathUtils.floor(across);
+        int across0 = acrossPixel >> SHIFT;
+        int across1 = (acrossPixel + acrossSize - 1) >> SHIFT;
+
+        float moved = sweep(map, horizontal, along, alongSize, across0, across1, delta);
+        if (moved != along) {
+            set(out, horizontal, moved, across);
+            return true;
+        }
+
+        // Bloqueada en seco: solo se desliza si pisa dos filas (o columnas) y solo una tiene muro delante
+        out.set(x, y);
+        if (across0 == across1 || nudge <= 0f) return false;
+        int alongPixel = MathUtils.floor(along);
+        int front = delta > 0 ? ((alongPixel + alongSize - 1) >> SHIFT) + 1 : (alongPixel >> SHIFT) - 1;
+        boolean free0 = isFreeLine(map, horizontal, front, across0, across0);
+        boolean free1 = isFreeLine(map, horizontal, front, across1, across1);
+        float slide;
+        if (free1 && !free0) {
+            float overlap = ((across0 + 1) << SHIFT) - across;
+            if (overlap > nudge) return false;
+            slide = Math.min(distance, overlap);
+        } else if (free0 && !free1) {
+            float overlap = across + acrossSize - (across1 << SHIFT);
+            if (overlap > nudge) return false;
+            slide = -Math.min(distance, overlap);
+        } else {
+            return false;
+        }
+        // El deslizamiento también se barre, por si hay muro en el otro eje
+        int along0 = alongPixel >> SHIFT;
+        int along1 = (alongPixel + alongSize - 1) >> SHIFT;
+        float slid = sweep(map, !horizontal, across, acrossSize, along0, along1, slide);
+        if (slid == across) return false;
+        set(out, horizontal, along, slid);
+        return true;
+    }
+
+    private static void set(Vector2 out, boolean horizontal, float along, float across) {
+        if (horizontal) {
+            out.set(along, across);
+        } else {
+            out.set(across, along);
+        }
+    }
+
+    /**
+     * Avanza {@code along} (coordenada de la caja en el eje del movimiento) en {@code delta} y la
+     * deja pegada a la primera línea de celdas con muro que cruce; {@code across0}..{@code across1}
+     * son las celdas que ocupa la caja en el otro eje.
+     */
+    private static float sweep(GameMap map, boolean horizontal, float along, int size, int across0, int across1,
+                               float delta) {
+        int start = MathUtils.floor(along);
+        int end = MathUtils.floor(along + delta);
+        if (delta > 0f) {
+            for (int line = ((start + size - 1) >> SHIFT) + 1, last = (end + size - 1) >> SHIFT; line <= last; line++) {
+                if (!isFreeLine(map, horizontal, line, across0, across1)) {
+                    return Math.max(along, (line << SHIFT) - size);
+                }
+            }
+        } else {
+            for (int line = (start >> SHIFT) - 1, last = end >> SHIFT; line >= last; line--) {
+                if (!isFreeLine(map, horizontal, line, across0, across1)) {
+                    return Math.min(along, (line + 1) << SHIFT);
+                }
+            }
+        }
+        return along + delta;
+    }
+
+    // Una columna (movimiento horizontal) o fila (vertical) de celdas, de across0 a across1
+    private static boolean isFreeLine(GameMap map, boolean horizontal, int line, int across0, int across1) {
+        return horizontal ? isFree(map, line, line, across0, across1) : isFree(map, across0, across1, line, line);
+    }
+}
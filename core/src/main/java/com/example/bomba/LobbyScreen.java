@@ -0,0 +1,81 @@
+package com.example.bomba;
+
+import java.io.IOException;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * Sala de espera del modo en red: conecta con el servidor de {@link MyBombermanGame#getServerAddress()}
+ * y, cuando la sala se llena y empieza la partida, pasa a {@link GameScreen} con la réplica.
+ */
+public class LobbyScreen implements Screen {
+    final MyBombermanGame game;
+    private final BitmapFont font;
+    private GameClient client;
+    private String status;
+
+    public LobbyScreen(final MyBombermanGame game) {
+        this.game = game;
+        font = new BitmapFont(); // Fuente por defecto
+        String address = game.getServerAddress();
+        int colon = address.lastIndexOf(':');
+        String host = colon < 0 ? address : address.substring(0, colon);
+        int port = colon < 0 ? NetProtocol.DEFAULT_PORT : Integer.parseInt(address.substring(colon + 1));
+        try {
+            client = GameClient.connect(host, port);
+            status = "Esperando jugadores en " + address + "...";
+        } catch (IOException e) {
+            status = "No se pudo conectar con " + address;
+            Gdx.app.error("LobbyScreen", status, e);
+        }
+    }
+
+    @Override
+    public void render(float delta) {
+        if (client != null) {
+            try {
+                if (!client.poll()) {
+                    status = client.isRefused() ? "El servidor está lleno, prueba más tarde"
+                        : "El servidor ha cerrado la conexión";
+                    client.close();
+                    client = null;
+                } else if (client.isStarted()) {
+                    // La conexión pasa a la partida: no se cierra al salir de esta pantalla
+                    GameClient started = client;
+                    client = null;
+                    game.setScreen(new GameScreen(game, started));
+                    dispose();
+                    return;
+                }
+            } catch (IOException e) {
+                client.close();
+                client = null;
+                status = "Conexión perdida";
+                Gdx.app.error("LobbyScreen", status, e);
+            }
+        }
+
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        SpriteBatch batch = game.batch;
+        batch.begin();
+        font.draw(batch, status, 20, Gdx.graphics.getHeight() / 2f);
+        batch.end();
+    }
+
+    @Override public void resize(int width, int height) {}
+    @Override public void pause() {}
+    @Override public void resume() {}
+    @Override public void show() {}
+    @Override public void hide() {}
+
+    @Override
+    public void dispose() {
+        font.dispose();
+        if (client != null) client.close();
+    }
+}
@@ -5,22 +5,27 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector3;
 
+/**
+ * Pantalla de derrota con el botón de reiniciar. Sus imágenes son recursos secundarios de
+ * {@link GameAssets}: si la partida acaba antes de que lleguen, se dibuja texto en su lugar.
+ */
 public class LoseScreen implements Screen {
     private Game game;
     private SpriteBatch batch;
-    private Texture loseTexture;
-    private Texture btnRestart;
+    private final GameAssets assets;
+    // Solo si hace falta algún sustituto
+    private BitmapFont font;
     private Rectangle rectRestart;
 
     public LoseScreen(Game game) {
         this.game = game;
         batch = new SpriteBatch();
-        loseTexture = new Texture("you_lose.png");
-        btnRestart = new Texture("btn_restart.png"); // Agrega esta imagen a la carpeta assets
+        assets = ((MyBombermanGame) game).getAssets();
         rectRestart = new Rectangle(Gdx.graphics.getWidth() / 2f - 50, 100, 100, 40);
     }
 
@@ -28,21 +33,37 @@ public class LoseScreen implements Screen {
     public void render(float delta) {
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        Texture loseTexture = assets.texture(GameAssets.LOSE_ART);
+        Texture btnRestart = assets.texture(GameAssets.RESTART_BUTTON);
         batch.begin();
-        batch.draw(loseTexture,
-            Gdx.graphics.getWidth() / 2f - loseTexture.getWidth() / 2f,
-            Gdx.graphics.getHeight() / 2f - loseTexture.getHeight() / 2f);
-        batch.draw(btnRestart, rectRestart.x, rectRestart.y, rectRestart.width, rectRestart.height);
+        if (loseTexture != null) {
+            batch.draw(loseTexture,
+                Gdx.graphics.getWidth() / 2f - loseTexture.getWidth() / 2f,
+                Gdx.graphics.getHeight() / 2f - loseTexture.getHeight() / 2f);
+        } else {
+            placeholder("HAS PERDIDO", Gdx.graphics.getWidth() / 2f - 50, Gdx.graphics.getHeight() / 2f);
+        }
+        if (btnRestart != null) {
+            batch.draw(btnRestart, rectRestart.x, rectRestart.y, rectRestart.width, rectRestart.height);
+        } else {
+            placeholder("REINICIAR", rectRestart.x + 10, rectRestart.y + rectRestart.height / 2f + 6);
+        }
         batch.end();
 
         if (Gdx.input.isTouched()) {
             Vector3 touchPos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
             if (rectRestart.contains(touchPos.x, Gdx.graphics.getHeight() - touchPos.y)) {
-                game.setScreen(new GameScreen((MyBombermanGame) game)); // Reinicia el juego
+                game.setScreen(((MyBombermanGame) game).newMatchScreen()); // Reinicia el juego
+                dispose();
             }
         }
     }
 
+    private void placeholder(String text, float x, float y) {
+        if (font == null) font = new BitmapFont(); // Fuente por defecto
+        font.draw(batch, text, x, y);
+    }
+
     @Override public void resize(int width, int height) {}
     @Override public void show() {}
     @Override public void hide() {}
@@ -51,8 +72,8 @@ public class LoseScreen implements Screen {
 
     @Override
     public void dispose() {
+        // Las texturas pertenecen al AssetManager
         batch.dispose();
-        loseTexture.dispose();
-        btnRestart.dispose();
+        if (font != null) font.dispose();
     }
 }
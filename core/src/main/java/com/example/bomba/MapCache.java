@@ -0,0 +1,193 @@
+package com.example.bomba;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Capa estática del mapa (suelo y muros) guardada en la GPU con un {@link SpriteCache}.
+ *
+ * El mapa se divide en los bloques de {@link GameMap#CHUNK_SIZE}x{@link GameMap#CHUNK_SIZE} celdas
+ * de GameMap y cada bloque es una caché propia. En un frame normal dibujar el mapa son unas pocas
+ * llamadas {@link SpriteCache#draw(int)}, sin enviar vértices. Cuando {@link GameMap#setCell}
+ * cambia una celda (un muro que explota) solo se reconstruye la caché de su bloque, comparando la
+ * versión del bloque con la que se usó al construirla.
+ *
+ * Solo están cargados los bloques que ve la cámara más un bloque de margen alrededor: el
+ * SpriteCache tiene un número fijo de huecos, calculado para el área de la vista, y al moverse la
+ * cámara los bloques que salen del margen ceden su hueco a los que entran. La memoria de la capa
+ * no depende del tamaño del mapa, y en el clásico, que cabe entero en la pantalla, todos los
+ * bloques se cargan al empezar y no se vuelven a mover.
+ *
+ * De los bloques cargados solo se dibujan los que tocan el área visible de {@link ViewCuller}; el
+ * margen está cargado para cuando la cámara llegue, pero no se envía a la GPU.
+ *
+ * Cada hueco se reserva con las celdas de un bloque completo, así que redefinirlo con cualquier
+ * bloque (los del borde tienen menos) reutiliza el mismo espacio del SpriteCache.
+ */
+public class MapCache implements Disposable {
+    // Con índices un SpriteCache admite como mucho 8191 imágenes
+    private static final int MAX_INDEXED_TILES = 8191;
+    private static final int CHUNK_TILES = GameMap.CHUNK_SIZE * GameMap.CHUNK_SIZE;
+    private static final float CHUNK_PIXELS = GameMap.CHUNK_SIZE * GameMap.TILE_SIZE;
+
+    private final GameMap map;
+    private final TextureRegion tile;
+    private final SpriteCache cache;
+    // Por hueco: su caché, el bloque cargado (-1 si ninguno) y su versión al construirlo
+    private final int[] slotCacheIds;
+    private final int[] slotChunks;
+    private final int[] builtVersions;
+    // Por bloque: su hueco, o -1 si no está cargado
+    private final int[] chunkSlots;
+    private int builtMapVersion;
+    // Bloques cargados en el último render, por filas y columnas de bloque (fin exclusivo)
+    private int windowRow0, windowRow1, windowCol0, windowCol1;
+
+    /**
+     * @param viewWidth ancho máximo de lo que verá la cámara, en píxeles del mundo.
+     * @param viewHeight alto máximo de lo que verá la cámara, en píxeles del mundo.
+     */
+    public MapCache(GameMap map, TextureRegion tile, float viewWidth, float viewHeight) {
+        this.map = map;
+        this.tile = tile;
+        int chunks = map.getChunkRows() * map.getChunkCols();
+        // Una vista puede tocar un bloque más de los que cubre su tamaño, y hay uno de margen por lado
+        int windowRows = Math.min(map.getChunkRows(), (int) Math.ceil(viewHeight / CHUNK_PIXELS) + 3);
+        int windowCols = Math.min(map.getChunkCols(), (int) Math.ceil(viewWidth / CHUNK_PIXELS) + 3);
+        int slots = Math.min(chunks, windowRows * windowCols);
+        int tiles = slots * CHUNK_TILES;
+        cache = new SpriteCache(tiles, tiles <= MAX_INDEXED_TILES);
+        slotCacheIds = new int[slots];
+        slotChunks = new int[slots];
+        builtVersions = new int[slots];
+        chunkSlots = new int[chunks];
+        Arrays.fill(chunkSlots, -1);
+        for (int i = 0; i < slots; i++) {
+            cache.beginCache();
+            for (int t = 0; t < CHUNK_TILES; t++) {
+                cache.add(tile, 0f, 0f, 0f, 0f);
+            }
+            slotCacheIds[i] = cache.endCache();
+            slotChunks[i] = -1;
+        }
+        builtMapVersion = -1;
+    }
+
+    /**
+     * Carga los bloques que entran en la vista de la cámara (más el margen), reconstruye los que
+     * cambiaron y dibuja con su proyección los que ve {@code culler}, en el que anota las celdas
+     * dibujadas y descartadas.
+     */
+    public void render(OrthographicCamera camera, ViewCuller culler) {
+        update(camera);
+        cache.setProjectionMatrix(camera.combined);
+        cache.begin();
+        int drawn = 0;
+        for (int r = windowRow0; r < windowRow1; r++) {
+            for (int c = windowCol0; c < windowCol1; c++) {
+                int slot = chunkSlots[r * map.getChunkCols() + c];
+                if (slot >= 0 && culler.overlaps(c * CHUNK_PIXELS, r * CHUNK_PIXELS, CHUNK_PIXELS, CHUNK_PIXELS)) {
+                    cache.draw(slotCacheIds[slot]);
+                    drawn += chunkTiles(r, c);
+                }
+            }
+        }
+        cache.end();
+        culler.countTiles(drawn, map.getRows() * map.getCols() - drawn);
+    }
+
+    private int chunkTiles(int chunkRow, int chunkCol) {
+        int rows = Math.min(GameMap.CHUNK_SIZE, map.getRows() - (chunkRow << GameMap.CHUNK_SHIFT));
+        int cols = Math.min(GameMap.CHUNK_SIZE, map.getCols() - (chunkCol << GameMap.CHUNK_SHIFT));
+        return rows * cols;
+    }
+
+    private void update(OrthographicCamera camera) {
+        float halfWidth = camera.viewportWidth * camera.zoom / 2f;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2f;
+        int row0 = Math.max(0, (int) Math.floor((camera.position.y - halfHeight) / CHUNK_PIXELS) - 1);
+        int row1 = Math.min(map.getChunkRows(), (int) Math.floor((camera.position.y + halfHeight) / CHUNK_PIXELS) + 2);
+        int col0 = Math.max(0, (int) Math.floor((camera.position.x - halfWidth) / CHUNK_PIXELS) - 1);
+        int col1 = Math.min(map.getChunkCols(), (int) Math.floor((camera.position.x + halfWidth) / CHUNK_PIXELS) + 2);
+        boolean moved = row0 != windowRow0 || row1 != windowRow1 || col0 != windowCol0 || col1 != windowCol1;
+        // Caso normal: ni la cámara ha cambiado de bloque ni el mapa desde el último frame
+        if (!moved && map.getVersion() == builtMapVersion) return;
+        windowRow0 = row0;
+        windowRow1 = row1;
+        windowCol0 = col0;
+        windowCol1 = col1;
+
+        if (moved) {
+            // Se liberan los huecos de los bloques que han quedado fuera
+            for (int i = 0; i < slotChunks.length; i++) {
+                int chunk = slotChunks[i];
+                if (chunk >= 0 && !inWindow(chunk)) {
+                    chunkSlots[chunk] = -1;
+                    slotChunks[i] = -1;
+                }
+            }
+        }
+        int free = 0;
+        for (int r = row0; r < row1; r++) {
+            for (int c = col0; c < col1; c++) {
+                int chunk = r * map.getChunkCols() + c;
+                int slot = chunkSlots[chunk];
+                if (slot < 0) {
+                    // Si la vista es mayor que la prevista se dibuja lo que cabe
+                    while (free < slotChunks.length && slotChunks[free] >= 0) free++;
+                    if (free == slotChunks.length) continue;
+                    slot = free;
+                    slotChunks[slot] = chunk;
+                    chunkSlots[chunk] = slot;
+                    build(slot, r, c);
+                } else if (map.getChunkVersion(r, c) != builtVersions[slot]) {
+                    build(slot, r, c);
+                }
+            }
+        }
+        builtMapVersion = map.getVersion();
+    }
+
+    private boolean inWindow(int chunk) {
+        int r = chunk / map.getChunkCols();
+        int c = chunk % map.getChunkCols();
+        return r >= windowRow0 && r < windowRow1 && c >= windowCol0 && c < windowCol1;
+    }
+
+    private void build(int slot, int chunkRow, int chunkCol) {
+        final int size = GameMap.TILE_SIZE;
+        int r0 = chunkRow << GameMap.CHUNK_SHIFT;
+        int c0 = chunkCol << GameMap.CHUNK_SHIFT;
+        int r1 = Math.min(r0 + GameMap.CHUNK_SIZE, map.getRows());
+        int c1 = Math.min(c0 + GameMap.CHUNK_SIZE, map.getCols());
+        cache.beginCache(slotCacheIds[slot]);
+        for (int r = r0; r < r1; r++) {
+            for (int c = c0; c < c1; c++) {
+                cache.setColor(MapRenderer.colorOf(map.getCell(r, c)));
+                cache.add(tile, c * size, r * size, size, size);
+            }
+        }
+        cache.setColor(Color.WHITE);
+        cache.endCache();
+        builtVersions[slot] = map.getChunkVersion(chunkRow, chunkCol);
+    }
+
+    /** Bloques cargados ahora mismo en la GPU. */
+    public int getLoadedChunks() {
+        int loaded = 0;
+        for (int chunk : slotChunks) {
+            if (chunk >= 0) loaded++;
+        }
+        return loaded;
+    }
+
+    @Override
+    public void dispose() {
+        cache.dispose();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bomba;
+
+/**
+ * Crea el mapa de una partida a partir de unos {@link MapSettings} y una semilla.
+ *
+ * Con la misma semilla y los mismos parámetros debe dar siempre el mismo mapa, y las
+ * implementaciones no guardan estado entre llamadas: así un servidor o una herramienta pueden
+ * generar muchos mapas a la vez desde varios hilos con un solo generador.
+ */
+public interface MapGenerator {
+    /** La disposición clásica (ver {@link GameMap#GameMap(int, int)}); ignora la semilla y las densidades. */
+    MapGenerator CLASSIC = (settings, seed) -> new GameMap(settings.rows, settings.cols);
+
+    GameMap generate(MapSettings settings, long seed);
+}
@@ -0,0 +1,87 @@
+package com.example.bomba;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Fichero con una lista de mapas ya generados, para rotaciones de torneo o del servidor: se generan
+ * una vez (MapPackTool) y se cargan al arrancar en lugar de generarlos en cada partida.
+ *
+ * Tras la cabecera todo va comprimido con deflate; las celdas de un mapa se repiten mucho, así que
+ * ocupa una fracción del tamaño sin comprimir.
+ *
+ * <pre>
+ * "BMMP" versión(1) { mapas(varint)
+ *   { filas(varint) columnas(varint) salidas(varint) { celda(varint) }* celdas(filas*columnas bytes) }* }
+ * </pre>
+ */
+public final class MapPack {
+    private static final byte[] MAGIC = { 'B', 'M', 'M', 'P' };
+    private static final int VERSION = 1;
+
+    private MapPack() {
+    }
+
+    public static void write(OutputStream output, GameMap[] maps) throws IOException {
+        output.write(MAGIC);
+        output.write(VERSION);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            DeflaterOutputStream deflated = new DeflaterOutputStream(output, deflater, 1 << 16);
+            DataOutputStream out = new DataOutputStream(deflated);
+            Varints.write(out, maps.length);
+            for (GameMap map : maps) {
+                Varints.write(out, map.getRows());
+                Varints.write(out, map.getCols());
+                Varints.write(out, map.getSpawnCount());
+                for (int i = 0; i < map.getSpawnCount(); i++) {
+                    Varints.write(out, map.getSpawn(i));
+                }
+                for (int i = 0, n = map.getRows() * map.getCols(); i < n; i++) {
+                    out.writeByte(map.getCell(i));
+                }
+            }
+            out.flush();
+            deflated.finish();
+        } finally {
+            deflater.end();
+        }
+        output.flush();
+    }
+
+    public static GameMap[] read(InputStream input) throws IOException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (input.read() != MAGIC[i]) throw new IOException("No es un paquete de mapas");
+        }
+        int version = input.read();
+        if (version != VERSION) throw new IOException("Versión de paquete de mapas no soportada: " + version);
+        Inflater inflater = new Inflater();
+        try {
+            DataInputStream in = new DataInputStream(new InflaterInputStream(input, inflater, 1 << 16));
+            GameMap[] maps = new GameMap[Varints.read(in)];
+            for (int m = 0; m < maps.length; m++) {
+                int rows = Varints.read(in);
+                int cols = Varints.read(in);
+                int[] spawns = new int[Varints.read(in)];
+                if (rows < 3 || cols < 3 || spawns.length < 1) throw new IOException("Paquete de mapas corrupto");
+                for (int i = 0; i < spawns.length; i++) {
+                    spawns[i] = Varints.read(in);
+                    if (spawns[i] >= rows * cols) throw new IOException("Paquete de mapas corrupto");
+                }
+                byte[] cells = new byte[rows * cols];
+                in.readFully(cells);
+                maps[m] = new GameMap(rows, cols, cells, spawns);
+            }
+            return maps;
+        } finally {
+            inflater.end();
+        }
+    }
+}
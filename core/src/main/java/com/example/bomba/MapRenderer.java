@@ -0,0 +1,73 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Dibuja un {@link GameMap} celda a celda sobre un {@link Batch}. Separado del mapa para que la lógica
+ * pueda ejecutarse sin contexto GL.
+ *
+ * En el juego el mapa lo dibuja {@link MapCache}, que guarda esta misma capa en la GPU; este
+ * recorrido inmediato queda para los benchmarks y para quien no tenga un SpriteCache a mano. Con un
+ * {@link ViewCuller} solo se recorren las celdas visibles.
+ */
+public class MapRenderer {
+    private static final Color WALL_COLOR = Color.DARK_GRAY;                               // Muro indestructible (gris oscuro)
+    private static final Color DESTRUCTIBLE_WALL_COLOR = new Color(0.55f, 0.27f, 0.07f, 1); // Muro destructible (marrón fuerte)
+    private static final Color FLOOR_SAFE_COLOR = Color.WHITE;                             // Piso seguro (blanco)
+
+    private final TextureRegion tile; // Región blanca del atlas que se tiñe con el color de la celda
+
+    public MapRenderer(TextureRegion tile) {
+        this.tile = tile;
+    }
+
+    /**
+     * Renderiza el mapa recorriendo cada celda y tiñendo la región blanca según el valor:
+     *   0 → piso seguro (blanco),
+     *   1 → muro fijo (gris oscuro),
+     *   2 → muro destructible (marrón fuerte).
+     */
+    public void render(Batch batch, GameMap map) {
+        final int size = GameMap.TILE_SIZE;
+        // Todas las celdas usan la misma textura del atlas; cambiar el color no vacía el batch.
+        for (int r = 0; r < map.getRows(); r++) {
+            for (int c = 0; c < map.getCols(); c++) {
+                batch.setColor(colorOf(map.getCell(r, c)));
+                batch.draw(tile, c * size, r * size, size, size);
+            }
+        }
+        batch.setColor(Color.WHITE);
+    }
+
+    /**
+     * Como {@link #render(Batch, GameMap)}, pero solo las filas y columnas de celdas que ve
+     * {@code culler}; el resto ni se recorren. Anota en el culler las celdas dibujadas y descartadas.
+     */
+    public void render(Batch batch, GameMap map, ViewCuller culler) {
+        final int size = GameMap.TILE_SIZE;
+        int r0 = culler.firstRow(map.getRows()), r1 = culler.endRow(map.getRows());
+        int c0 = culler.firstCol(map.getCols()), c1 = culler.endCol(map.getCols());
+        for (int r = r0; r < r1; r++) {
+            for (int c = c0; c < c1; c++) {
+                batch.setColor(colorOf(map.getCell(r, c)));
+                batch.draw(tile, c * size, r * size, size, size);
+            }
+        }
+        batch.setColor(Color.WHITE);
+        int drawn = Math.max(0, r1 - r0) * Math.max(0, c1 - c0);
+        culler.countTiles(drawn, map.getRows() * map.getCols() - drawn);
+    }
+
+    /** Color con el que se tiñe una celda según su valor. */
+    static Color colorOf(int cell) {
+        if (cell == 0) {
+            return FLOOR_SAFE_COLOR;
+        } else if (cell == 1) {
+            return WALL_COLOR;
+        } else {
+            return DESTRUCTIBLE_WALL_COLOR;
+        }
+    }
+}
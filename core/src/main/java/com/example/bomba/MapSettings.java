@@ -0,0 +1,36 @@
+package com.example.bomba;
+
+/**
+ * Parámetros de un {@link MapGenerator}: tamaño, salidas y densidad de muros.
+ *
+ * Es inmutable, así que se puede compartir entre los hilos que generan mapas a la vez (MapPackTool).
+ */
+public final class MapSettings {
+    /** El mapa clásico: 15x25, las 4 esquinas y todo el interior libre cubierto de muros destructibles. */
+    public static final MapSettings CLASSIC = new MapSettings(15, 25, 4, 1f, 0f);
+
+    // Con el borde, en celdas (mínimo 5x5)
+    public final int rows, cols;
+    // Salidas; las primeras son para los jugadores y el resto para enemigos
+    public final int spawns;
+    // Probabilidad de muro destructible en cada celda libre del interior
+    public final float wallDensity;
+    // Probabilidad de muro fijo extra en cada celda que no es pilar
+    public final float blockDensity;
+
+    public MapSettings(int rows, int cols, int spawns, float wallDensity, float blockDensity) {
+        if (rows < 5 || cols < 5) throw new IllegalArgumentException("Mapa demasiado pequeño: " + rows + "x" + cols);
+        if (spawns < 1) throw new IllegalArgumentException("Salidas fuera de rango: " + spawns);
+        this.rows = rows;
+        this.cols = cols;
+        this.spawns = spawns;
+        this.wallDensity = wallDensity;
+        this.blockDensity = blockDensity;
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + cols + ", spawns=" + spawns + ", wallDensity=" + wallDensity
+            + ", blockDensity=" + blockDensity;
+    }
+}
@@ -1,34 +1,101 @@
 package com.example.bomba;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
 public class MyBombermanGame extends Game {
+    // Bloques alrededor del jugador en los que se simula a los enemigos en una arena grande
+    static final int ARENA_ACTIVE_RADIUS = 2;
+
+
     public SpriteBatch batch;
-    private AssetManager assetManager;
+    private GameAssets assets;
+    // "host:puerto" del servidor para jugar en red, o null para la partida local
+    private final String serverAddress;
+    // Dispositivo y versión de la aplicación para el registro de rendimiento, o null si no se conocen
+    private final String deviceInfo;
+    // Mapa de la arena grande para las partidas locales, o null para el mapa clásico
+    private final MapSettings arena;
+
+    public MyBombermanGame() {
+        this(null, null, null);
+    }
+
+    public MyBombermanGame(String serverAddress, String deviceInfo) {
+        this(serverAddress, deviceInfo, null);
+    }
+
+    public MyBombermanGame(String serverAddress, String deviceInfo, MapSettings arena) {
+        this.serverAddress = serverAddress;
+        this.deviceInfo = deviceInfo;
+        this.arena = arena;
+    }
+
+    /**
+     * Arena procedural de {@code rows}x{@code cols} con un enemigo por cada 8 celdas de perímetro,
+     * en las salidas que no ocupa el jugador.
+     */
+    public static MapSettings arena(int rows, int cols) {
+        return new MapSettings(rows, cols, 4 + (rows + cols) / 8, 0.6f, 0.05f);
+    }
 
     @Override
     public void create() {
         batch = new SpriteBatch();
-        assetManager = new AssetManager();
-        // Inicializamos la pantalla de carga para cargar todos los assets
+        assets = new GameAssets();
+        // La pantalla de carga espera solo a los recursos imprescindibles; el resto llega durante la partida
         setScreen(new LoadingScreen(this));
     }
 
+    public GameAssets getAssets() {
+        return assets;
+    }
+
     public AssetManager getAssetManager() {
-        return assetManager;
+        return assets.getManager();
+    }
+
+    public String getServerAddress() {
+        return serverAddress;
+    }
+
+    public String getDeviceInfo() {
+        return deviceInfo;
+    }
+
+    public MapSettings getArena() {
+        return arena;
+    }
+
+    /**
+     * Mundo de una partida local: el mapa clásico o, con arena, uno generado para la partida en el
+     * que solo se simula a los enemigos cercanos al jugador.
+     */
+    World newLocalWorld() {
+        if (arena == null) return new World();
+        long seed = System.nanoTime();
+        World world = new World(new ProceduralMapGenerator().generate(arena, seed), seed);
+        world.setActiveRadius(ARENA_ACTIVE_RADIUS);
+        return world;
+    }
+
+    /** Pantalla con la que empieza cada partida: la sala de espera en red o la partida local. */
+    public Screen newMatchScreen() {
+        return serverAddress != null ? new LobbyScreen(this) : new GameScreen(this);
     }
 
     @Override
     public void render() {
+        assets.stream();
         super.render();
     }
 
     @Override
     public void dispose() {
         batch.dispose();
-        assetManager.dispose(); // Asegúrate de liberar el AssetManager
+        assets.dispose();
         getScreen().dispose();
     }
 }
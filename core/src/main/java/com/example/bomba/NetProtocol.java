@@ -0,0 +1,39 @@
+package com.example.bomba;
+
+/**
+ * Mensajes del modo en red. Viajan por TCP ({@link FrameChannel}) como tramas:
+ * longitud (int, sin contarse a sí misma), tipo (byte) y contenido.
+ *
+ * El servidor es autoritativo: simula el {@link World} y los clientes solo envían su entrada. Al
+ * empezar la partida cada cliente recibe el estado completo ({@link World#write}) y después, en cada
+ * tick, solo lo que ha cambiado ({@link SnapshotEncoder}). TCP entrega en orden y sin pérdidas, así
+ * que cada delta se calcula contra el tick anterior y es el mismo para todos los clientes de la sala.
+ *
+ * <pre>
+ * Cliente → servidor
+ *   HELLO  versión(int)
+ *   INPUT  secuencia(int) código(byte, {@link PlayerInput#toCode()})
+ * Servidor → cliente
+ *   START  hueco(byte) jugadores(byte) estado completo
+ *   DELTA  última secuencia aplicada(int) delta
+ *   END    ganador(byte, -1 si ninguno) estado completo
+ *   BUSY   (vacío) el servidor está saturado y no abre más salas; cierra la conexión
+ * </pre>
+ */
+public final class NetProtocol {
+    public static final int DEFAULT_PORT = 7777;
+    // Sube cuando cambia el protocolo o la simulación: el cliente predice con el mismo código que el servidor
+    public static final int VERSION = 2;
+    // Una trama mayor indica un error de protocolo (un mapa de 1000x1000 completo ocupa ~1 MB)
+    public static final int MAX_FRAME = 1 << 24;
+
+    public static final byte HELLO = 1;
+    public static final byte INPUT = 2;
+
+    public static final byte START = 10;
+    public static final byte DELTA = 11;
+    public static final byte END = 12;
+    public static final byte BUSY = 13;
+
+    private NetProtocol() {}
+}
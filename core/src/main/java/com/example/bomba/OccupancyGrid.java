@@ -0,0 +1,88 @@
+package com.example.bomba;
+
+import java.util.Arrays;
+
+/**
+ * Índice espacial por celda de los personajes de un {@link World}.
+ *
+ * Cada celda guarda una lista doblemente enlazada (intrusiva, con los punteros en {@link Enemy})
+ * de los enemigos cuya esquina inferior izquierda está en ella, la misma celda que usaba la
+ * comprobación de explosiones. Los jugadores son pocos ({@link World#MAX_PLAYERS} como mucho) y de
+ * cada uno se guarda aparte su celda. World lo mantiene al día tras cada movimiento, y una
+ * explosión solo consulta las celdas de su cruz en lugar de recorrer todos los enemigos. Insertar,
+ * mover y quitar son O(1) y no reservan memoria.
+ */
+public class OccupancyGrid {
+    private final int rows;
+    private final int cols;
+    private final Enemy[] heads;
+    // Celda de cada jugador por su id, -1 si aún no se ha colocado
+    private final int[] playerTiles = new int[World.MAX_PLAYERS];
+
+    public OccupancyGrid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.heads = new Enemy[rows * cols];
+        Arrays.fill(playerTiles, -1);
+    }
+
+    public void add(Enemy enemy) {
+        link(enemy, cellOf(enemy.getX(), enemy.getY()));
+    }
+
+    public void remove(Enemy enemy) {
+        unlink(enemy);
+    }
+
+    /** Recoloca al enemigo si su celda ha cambiado desde la última actualización. */
+    public void update(Enemy enemy) {
+        int cell = cellOf(enemy.getX(), enemy.getY());
+        if (cell != enemy.cell) {
+            unlink(enemy);
+            link(enemy, cell);
+        }
+    }
+
+    public void updatePlayer(Player player) {
+        int col = (int) (player.getX() / GameMap.TILE_SIZE);
+        int row = (int) (player.getY() / GameMap.TILE_SIZE);
+        playerTiles[player.getId()] = row * cols + col;
+    }
+
+    /** Celda (fila * columnas + columna) del jugador con ese id. */
+    public int getPlayerTile(int id) { return playerTiles[id]; }
+
+    /** Primer enemigo de la celda, o null si está vacía o fuera del mapa. Se sigue con {@link Enemy#nextInCell}. */
+    public Enemy firstAt(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return null;
+        return heads[row * cols + col];
+    }
+
+    private int cellOf(float x, float y) {
+        int col = Math.min(Math.max((int) (x / GameMap.TILE_SIZE), 0), cols - 1);
+        int row = Math.min(Math.max((int) (y / GameMap.TILE_SIZE), 0), rows - 1);
+        return row * cols + col;
+    }
+
+    private void link(Enemy enemy, int cell) {
+        Enemy head = heads[cell];
+        enemy.cell = cell;
+        enemy.prevInCell = null;
+        enemy.nextInCell = head;
+        if (head != null) head.prevInCell = enemy;
+        heads[cell] = enemy;
+    }
+
+    private void unlink(Enemy enemy) {
+        if (enemy.cell < 0) return;
+        if (enemy.prevInCell != null) {
+            enemy.prevInCell.nextInCell = enemy.nextInCell;
+        } else {
+            heads[enemy.cell] = enemy.nextInCell;
+        }
+        if (enemy.nextInCell != null) enemy.nextInCell.prevInCell = enemy.prevInCell;
+        enemy.cell = -1;
+        enemy.prevInCell = null;
+        enemy.nextInCell = null;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Búsqueda de caminos compartida por todos los enemigos.
+ *
+ * En lugar de que cada enemigo busque su propio camino, {@link World} actualiza una vez por tick
+ * dos {@link FlowField} sobre el mapa y cada enemigo solo consulta la dirección en su celda:
+ * <ul>
+ *   <li>Hacia el jugador vivo más cercano (hay una fuente por jugador): los muros destructibles se
+ *   pueden cruzar con un coste extra (el tiempo de volarlos con una bomba). Se recalcula entero
+ *   cuando algún jugador cambia de celda; cuando explota un muro solo se propaga la mejora desde
+ *   esa celda.</li>
+ *   <li>Hacia una celda segura: solo por suelo, con fuente en toda celda de suelo fuera de peligro
+ *   según {@link DangerMap}. Solo se tocan las celdas cuya amenaza cambió (el registro de
+ *   DangerMap): las que quedan seguras se añaden como fuente y las amenazadas se quitan. Un muro
+ *   que explota se propaga desde su celda, igual que en el campo hacia el jugador.</li>
+ * </ul>
+ * El coste total depende del tamaño del mapa y de cuántas veces cambia, no del número de enemigos.
+ */
+public class Pathfinding {
+    // Coste de cruzar un muro destructible en la búsqueda hacia el jugador
+    static final int DESTRUCTIBLE_COST = 5;
+
+    private final GameMap map;
+    private final int rows, cols;
+    private final FlowField toPlayer;
+    private final FlowField toSafety;
+    private final DangerMap dangers;
+
+    // Celdas de los jugadores en el último cálculo del campo hacia ellos
+    private final IntArray playerTiles = new IntArray(World.MAX_PLAYERS);
+    private int seenMapVersion;
+    private int seenThreatChanges;
+    private boolean safetyBuilt;
+
+    public Pathfinding(GameMap map, DangerMap dangers) {
+        this.map = map;
+        this.dangers = dangers;
+        this.rows = map.getRows();
+        this.cols = map.getCols();
+        toPlayer = new FlowField(map, DESTRUCTIBLE_COST);
+        toSafety = new FlowField(map, 0);
+        seenMapVersion = map.getVersion();
+    }
+
+    /** Pone los campos al día con las celdas de los jugadores vivos, el mapa y el peligro de este tick. */
+    public void update(IntArray alivePlayerTiles) {
+        boolean mapChanged = map.getVersion() != seenMapVersion;
+        boolean mapLogged = map.hasChangesSince(seenMapVersion);
+        // Una celda que se cierra puede alargar caminos: entonces se rehacen enteros
+        boolean mapClosed = mapChanged && (!mapLogged || closedSince(seenMapVersion));
+
+        if (!playerTiles.equals(alivePlayerTiles) || mapClosed) {
+            playerTiles.clear();
+            playerTiles.addAll(alivePlayerTiles);
+            recomputeToPlayer();
+        } else if (mapChanged) {
+            for (int v = seenMapVersion + 1; v <= map.getVersion(); v++) {
+                toPlayer.cellOpened(map.getChangedCell(v));
+            }
+        }
+
+        if (!safetyBuilt || mapClosed || !dangers.hasThreatChangesSince(seenThreatChanges)) {
+            recomputeToSafety();
+        } else {
+            updateToSafety();
+            if (mapChanged) {
+                for (int v = seenMapVersion + 1; v <= map.getVersion(); v++) {
+                    int opened = map.getChangedCell(v);
+                    if (dangers.isThreatened(opened)) {
+                        toSafety.cellOpened(opened);
+                    } else {
+                        toSafety.addSource(opened);
+                        toSafety.compute();
+                    }
+                }
+            }
+        }
+        seenThreatChanges = dangers.getThreatChanges();
+        seenMapVersion = map.getVersion();
+    }
+
+    // Si alguno de los cambios del mapa posteriores a since ha dejado una celda que no es suelo
+    private boolean closedSince(int since) {
+        for (int v = since + 1; v <= map.getVersion(); v++) {
+            if (map.getCell(map.getChangedCell(v)) != 0) return true;
+        }
+        return false;
+    }
+
+    private void recomputeToSafety() {
+        toSafety.clear();
+        for (int i = 0, tiles = rows * cols; i < tiles; i++) {
+            if (!dangers.isThreatened(i)) toSafety.addSource(i);
+        }
+        toSafety.compute();
+        safetyBuilt = true;
+    }
+
+    // Solo las celdas cuya amenaza cambió: primero se quitan las fuentes y después se añaden
+    private void updateToSafety() {
+        int changes = dangers.getThreatChanges();
+        if (changes == seenThreatChanges) return;
+        for (int c = seenThreatChanges + 1; c <= changes; c++) {
+            int tile = dangers.getThreatChangedTile(c);
+            if (dangers.isThreatened(tile)) toSafety.removeSource(tile);
+        }
+        for (int c = seenThreatChanges + 1; c <= changes; c++) {
+            int tile = dangers.getThreatChangedTile(c);
+            if (!dangers.isThreatened(tile)) toSafety.addSource(tile);
+        }
+        toSafety.compute();
+    }
+
+    private void recomputeToPlayer() {
+        toPlayer.clear();
+        for (int i = 0; i < playerTiles.size; i++) {
+            toPlayer.addSource(playerTiles.get(i));
+        }
+        toPlayer.compute();
+    }
+
+    /** Dirección (0 arriba, 1 abajo, 2 izquierda, 3 derecha) hacia el jugador, o -1. */
+    public int directionToPlayer(int row, int col) {
+        return toPlayer.bestDirection(row, col);
+    }
+
+    /** Dirección hacia la celda segura más cercana, o -1 si ya es segura o no hay salida. */
+    public int directionToSafety(int row, int col) {
+        return toSafety.bestDirection(row, col);
+    }
+
+    public int distanceToPlayer(int row, int col) {
+        return toPlayer.get(row * cols + col);
+    }
+}
@@ -1,13 +1,19 @@
 // Player.java
 package com.example.bomba;
 
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
 
 public class Player {
+    // Índice en World.players: su esquina de salida y el dueño de sus bombas
+    private final int id;
     private float x, y;
+    // Posición al empezar el último paso, para interpolar el dibujo entre pasos
+    private float prevX, prevY;
     private float speed;
     private int bombRadius;
     private boolean shield;
@@ -16,100 +22,61 @@ public class Player {
     private float bombCooldown;
     private float bombCooldownTime;
 
-    private Animation<TextureRegion> animUp, animDown, animRight, animLeft;
-    private Animation<TextureRegion> currentAnimation;
     private float stateTime;
     private boolean moving;
     private Direction currentDirection;
 
-    private static final int WIDTH = 32;
-    private static final int HEIGHT = 32;
+    static final int WIDTH = 32;
+    static final int HEIGHT = 32;
     private static final int COLLISION_MARGIN = 6;
+    // Hasta cuántos píxeles puede rozar una esquina de muro y aun así deslizarse hacia el pasillo
+    private static final float CORNER_NUDGE = 12f;
 
-    private Texture shieldOverlay;
+    // Resultado de GridCollision.move, reutilizado en cada paso
+    private final Vector2 step = new Vector2();
 
-    public Player(float x, float y) {
+    public Player(int id, float x, float y) {
+        this.id = id;
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
         this.speed = 100f;
         this.bombRadius = 1;
         this.shield = false;
         this.bombCooldown = 0f;
         this.bombCooldownTime = 2.0f;
-        this.shieldOverlay = new Texture("power_shield.png");
-
-        loadAnimations();
         currentDirection = Direction.DOWN;
-        currentAnimation = animDown;
     }
 
-    private void loadAnimations() {
-        Texture up1 = new Texture("Movimiento/Atras/player_U1.png");
-        Texture up2 = new Texture("Movimiento/Atras/player_U2.png");
-        Texture up3 = new Texture("Movimiento/Atras/player_U3.png");
-        Texture down1 = new Texture("Movimiento/DeCara/player_D1.png");
-        Texture down2 = new Texture("Movimiento/DeCara/player_D2.png");
-        Texture down3 = new Texture("Movimiento/DeCara/player_D3.png");
-        Texture right1 = new Texture("Movimiento/Derecha/player_R1.png");
-        Texture right2 = new Texture("Movimiento/Derecha/player_R2.png");
-        Texture right3 = new Texture("Movimiento/Derecha/player_R3.png");
-        Texture left1 = new Texture("Movimiento/Izquierda/player_L1.png");
-        Texture left2 = new Texture("Movimiento/Izquierda/player_L2.png");
-        Texture left3 = new Texture("Movimiento/Izquierda/player_L3.png");
-
-        animUp = new Animation<>(0.15f, new TextureRegion(up1), new TextureRegion(up2), new TextureRegion(up3));
-        animDown = new Animation<>(0.15f, new TextureRegion(down1), new TextureRegion(down2), new TextureRegion(down3));
-        animRight = new Animation<>(0.15f, new TextureRegion(right1), new TextureRegion(right2), new TextureRegion(right3));
-        animLeft = new Animation<>(0.15f, new TextureRegion(left1), new TextureRegion(left2), new TextureRegion(left3));
+    /** Guarda la posición actual como punto de partida del paso que empieza. */
+    void savePosition() {
+        prevX = x;
+        prevY = y;
     }
 
+    /**
+     * Avanza {@code speed * delta} píxeles en la dirección dada con {@link GridCollision#move}: se
+     * queda pegado al muro que encuentre (aunque el paso sea de varias celdas) y, si choca con una
+     * esquina por poco, se desliza hacia el pasillo. La caja de colisión es la del sprite menos
+     * {@link #COLLISION_MARGIN} píxeles, para que quepa por los pasillos sin ir perfectamente alineado.
+     */
     public void move(Direction direction, float delta, GameMap gameMap) {
-        float newX = x;
-        float newY = y;
-        float d = speed * delta;
         currentDirection = direction;
-
-        switch (direction) {
-            case UP: newY += d; break;
-            case DOWN: newY -= d; break;
-            case LEFT: newX -= d; break;
-            case RIGHT: newX += d; break;
-        }
-
-        if (canMoveTo(newX, newY, gameMap)) {
-            x = newX;
-            y = newY;
-            moving = true;
-        } else {
-            moving = false;
-        }
-
-        switch (direction) {
-            case UP: currentAnimation = animUp; break;
-            case DOWN: currentAnimation = animDown; break;
-            case LEFT: currentAnimation = animLeft; break;
-            case RIGHT: currentAnimation = animRight; break;
+        float half = COLLISION_MARGIN / 2f;
+        moving = GridCollision.move(gameMap, x + half, y + half, WIDTH - COLLISION_MARGIN, HEIGHT - COLLISION_MARGIN,
+            direction, speed * delta, CORNER_NUDGE, step);
+        if (moving) {
+            // Solo el eje que ha cambiado, para no acumular redondeos en el otro
+            if (step.x != x + half) x = step.x - half;
+            if (step.y != y + half) y = step.y - half;
         }
     }
 
-    private boolean canMoveTo(float newX, float newY, GameMap gameMap) {
-        float effectiveX = newX + COLLISION_MARGIN / 2f;
-        float effectiveY = newY + COLLISION_MARGIN / 2f;
-        int effectiveWidth = WIDTH - COLLISION_MARGIN;
-        int effectiveHeight = HEIGHT - COLLISION_MARGIN;
-
-        int startCol = (int)(effectiveX / GameMap.TILE_SIZE);
-        int endCol = (int)((effectiveX + effectiveWidth - 1) / GameMap.TILE_SIZE);
-        int startRow = (int)(effectiveY / GameMap.TILE_SIZE);
-        int endRow = (int)((effectiveY + effectiveHeight - 1) / GameMap.TILE_SIZE);
-
-        for (int row = startRow; row <= endRow; row++) {
-            for (int col = startCol; col <= endCol; col++) {
-                if (!gameMap.isCellPassable(row, col)) return false;
-            }
-        }
-
-        return true;
+    boolean canMoveTo(float newX, float newY, GameMap gameMap) {
+        float half = COLLISION_MARGIN / 2f;
+        return GridCollision.isFree(gameMap, newX + half, newY + half, WIDTH - COLLISION_MARGIN,
+            HEIGHT - COLLISION_MARGIN);
     }
 
     public void update(float delta) {
@@ -126,53 +93,110 @@ public class Player {
         }
     }
 
-    public void render(SpriteBatch batch) {
-        TextureRegion frame = currentAnimation.getKeyFrame(stateTime, true);
-        batch.draw(frame, x, y);
-        if (shield) {
-            batch.draw(shieldOverlay, x, y, WIDTH, HEIGHT);
-        }
-    }
-
     public void increaseSpeed() { speed += 20; }
     public void increaseBombRadius() { bombRadius++; }
     public void activateShield() { shield = true; }
     public void deactivateShield() { shield = false; }
     public boolean hasShield() { return shield; }
+    public int getBombRadius() { return bombRadius; }
+    public float getSpeed() { return speed; }
 
+    /** Le alcanza una explosión: pierde el escudo si lo tiene y, si no, muere. */
     public void kill() {
         if (shield) {
             shield = false; // Solo protege una vez
-            System.out.println("El escudo absorbió la explosión, pero se ha destruido.");
         } else {
             alive = false;
-            System.out.println("El jugador ha sido eliminado.");
         }
     }
 
 
     public boolean isAlive() { return alive; }
 
-    public Bomb placeBomb() {
+    public Bomb placeBomb(Pool<Bomb> bombPool) {
         if (bombCooldown <= 0f) {
             int bombCol = Math.round(x / GameMap.TILE_SIZE);
             int bombRow = Math.round(y / GameMap.TILE_SIZE);
             float bombX = bombCol * GameMap.TILE_SIZE;
             float bombY = bombRow * GameMap.TILE_SIZE;
             bombCooldown = bombCooldownTime;
-            return new Bomb(bombX, bombY, bombRadius, Bomb.OwnerType.PLAYER, 0);
+            return bombPool.obtain().set(bombX, bombY, bombRadius, Bomb.OwnerType.PLAYER, id);
         }
         return null;
     }
 
-    public float getX() { return x; }
-    public float getY() { return y; }
+    /** Estado completo para las instantáneas de {@link World#write}. */
+    void write(DataOutput out) throws IOException {
+        out.writeFloat(x);
+        out.writeFloat(y);
+        out.writeFloat(prevX);
+        out.writeFloat(prevY);
+        out.writeFloat(speed);
+        out.writeInt(bombRadius);
+        out.writeBoolean(shield);
+        out.writeBoolean(alive);
+        out.writeFloat(bombCooldown);
+        out.writeFloat(stateTime);
+        out.writeBoolean(moving);
+        out.writeByte(currentDirection.ordinal());
+    }
+
+    void read(DataInput in) throws IOException {
+        x = in.readFloat();
+        y = in.readFloat();
+        prevX = in.readFloat();
+        prevY = in.readFloat();
+        speed = in.readFloat();
+        bombRadius = in.readInt();
+        shield = in.readBoolean();
+        alive = in.readBoolean();
+        bombCooldown = in.readFloat();
+        stateTime = in.readFloat();
+        moving = in.readBoolean();
+        currentDirection = Direction.values()[in.readByte()];
+    }
 
-    public void dispose() {
-        animUp.getKeyFrame(0).getTexture().dispose();
-        animDown.getKeyFrame(0).getTexture().dispose();
-        animRight.getKeyFrame(0).getTexture().dispose();
-        animLeft.getKeyFrame(0).getTexture().dispose();
-        shieldOverlay.dispose();
+    /**
+     * Estado recibido del servidor en una réplica de red: guarda la posición anterior (para
+     * interpolar) y avanza la animación de andar si se ha movido.
+     */
+    void applySnapshot(float x, float y, Direction direction) {
+        savePosition();
+        moving = x != this.x || y != this.y;
+        stateTime = moving ? stateTime + World.STEP : 0f;
+        this.x = x;
+        this.y = y;
+        currentDirection = direction;
     }
+
+    /** Copia el estado de otro jugador; lo usa {@link Prediction} para partir del del servidor. */
+    void copyFrom(Player other) {
+        x = other.x;
+        y = other.y;
+        prevX = other.prevX;
+        prevY = other.prevY;
+        speed = other.speed;
+        bombRadius = other.bombRadius;
+        shield = other.shield;
+        alive = other.alive;
+        bombCooldown = other.bombCooldown;
+        stateTime = other.stateTime;
+        moving = other.moving;
+        currentDirection = other.currentDirection;
+    }
+
+    void applySnapshotStatus(boolean alive, boolean shield, int bombRadius, float speed) {
+        this.alive = alive;
+        this.shield = shield;
+        this.bombRadius = bombRadius;
+        this.speed = speed;
+    }
+
+    public int getId() { return id; }
+    public float getX() { return x; }
+    public float getY() { return y; }
+    public float getPrevX() { return prevX; }
+    public float getPrevY() { return prevY; }
+    public Direction getDirection() { return currentDirection; }
+    public float getStateTime() { return stateTime; }
 }
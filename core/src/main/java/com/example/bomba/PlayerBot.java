@@ -0,0 +1,114 @@
+package com.example.bomba;
+
+/**
+ * Jugador automático para simular partidas sin nadie delante (BatchRunner). Rellena un
+ * {@link PlayerInput} por tick a partir del estado del {@link World}, igual que lo haría la vista
+ * con los botones táctiles.
+ *
+ * Usa las mismas piezas que la IA de los enemigos: un {@link FlowField} propio con fuente en cada
+ * enemigo (cruzando muros destructibles con coste extra), el campo hacia celdas seguras de
+ * {@link Pathfinding} para huir y {@link DangerMap#canEscape} antes de poner una bomba.
+ *
+ * Se mueve de celda en celda: elige la siguiente celda al llegar a la actual y no cambia de idea a
+ * medio camino. Cada bot guarda su propio estado, así que puede haber uno por partida en cada hilo.
+ */
+public class PlayerBot {
+    // Cada cuántos ticks se recalcula el campo hacia los enemigos (se mueven despacio)
+    private static final int FIELD_INTERVAL = 15;
+    // Holgura en píxeles para dar una celda por alcanzada, siempre por encima de su esquina: el daño se
+    // aplica a la celda de (x, y) y la caja de colisión del jugador tiene 3 píxeles de margen a cada lado
+    private static final float ARRIVE_TOLERANCE = 3f;
+    // Distancia (en coste del campo) a la que se ataca con una bomba
+    private static final int ATTACK_DISTANCE = 2;
+
+    private final World world;
+    private final FlowField toEnemies;
+    private final int cols;
+    private int fieldTick = -FIELD_INTERVAL;
+    private int fieldMapVersion;
+
+    // Celda a la que se dirige, o -1 si está parado en la suya
+    private int targetRow = -1, targetCol = -1;
+
+    public PlayerBot(World world) {
+        this.world = world;
+        this.toEnemies = new FlowField(world.getMap(), Pathfinding.DESTRUCTIBLE_COST);
+        this.cols = world.getMap().getCols();
+    }
+
+    /** Decide la entrada del siguiente {@link World#step}. */
+    public void think(PlayerInput input) {
+        input.clear();
+        Player player = world.getPlayer();
+        if (!player.isAlive() || world.getEnemies().size == 0) return;
+
+        if (targetRow >= 0) {
+            if (moveTowards(player, targetRow, targetCol, input)) return;
+            targetRow = -1;
+        }
+
+        GameMap map = world.getMap();
+        DangerMap dangers = world.getDangers();
+        int row = (int) (player.getY() / GameMap.TILE_SIZE);
+        int col = (int) (player.getX() / GameMap.TILE_SIZE);
+        boolean threatened = dangers.isThreatened(row, col);
+        int direction;
+
+        if (threatened) {
+            direction = world.getPathfinding().directionToSafety(row, col);
+        } else {
+            updateField(map);
+            if (toEnemies.get(row * cols + col) == FlowField.UNREACHABLE) return;
+            direction = toEnemies.bestDirection(row, col);
+            boolean wallAhead = direction >= 0 && map.getCell(row + FlowField.NEIGHBORS[direction][0],
+                col + FlowField.NEIGHBORS[direction][1]) == 2;
+            if ((wallAhead || toEnemies.get(row * cols + col) <= ATTACK_DISTANCE)
+                && dangers.canEscape(row, col, player.getBombRadius())) {
+                // Si la bomba aún se está recargando, World la ignora y se vuelve a intentar
+                input.bomb = true;
+                return;
+            }
+        }
+        if (direction < 0) return;
+
+        int nextRow = row + FlowField.NEIGHBORS[direction][0];
+        int nextCol = col + FlowField.NEIGHBORS[direction][1];
+        if (!map.isCellPassable(nextRow, nextCol)) return;
+        // Fuera de peligro no se entra en una celda amenazada: se espera a que la bomba explote
+        if (!threatened && dangers.isThreatened(nextRow, nextCol)) return;
+        targetRow = nextRow;
+        targetCol = nextCol;
+        moveTowards(player, targetRow, targetCol, input);
+    }
+
+    /** Rellena la dirección hacia la celda; false si ya está en ella. */
+    private boolean moveTowards(Player player, int row, int col, PlayerInput input) {
+        // Desplazamiento respecto a la esquina de la celda
+        float dx = player.getX() - col * GameMap.TILE_SIZE;
+        float dy = player.getY() - row * GameMap.TILE_SIZE;
+        boolean alignedX = dx >= 0f && dx <= ARRIVE_TOLERANCE;
+        boolean alignedY = dy >= 0f && dy <= ARRIVE_TOLERANCE;
+        if (alignedX && alignedY) return false;
+        // Primero se centra en el eje que menos falta, para que la caja de colisión quepa por el pasillo
+        if (!alignedX && (alignedY || Math.abs(dx) < Math.abs(dy))) {
+            input.direction = dx < 0f ? Direction.RIGHT : Direction.LEFT;
+        } else {
+            input.direction = dy < 0f ? Direction.UP : Direction.DOWN;
+        }
+        return true;
+    }
+
+    private void updateField(GameMap map) {
+        if (world.getTick() - fieldTick < FIELD_INTERVAL && map.getVersion() == fieldMapVersion) return;
+        toEnemies.clear();
+        for (int i = 0; i < world.getEnemies().size; i++) {
+            Enemy enemy = world.getEnemies().get(i);
+            int row = (int) (enemy.getY() / GameMap.TILE_SIZE);
+            int col = (int) (enemy.getX() / GameMap.TILE_SIZE);
+            toEnemies.addSource(row * cols + col);
+        }
+        toEnemies.compute();
+        fieldTick = world.getTick();
+        fieldMapVersion = map.getVersion();
+    }
+}
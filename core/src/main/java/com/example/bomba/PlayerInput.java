@@ -0,0 +1,34 @@
+package com.example.bomba;
+
+/**
+ * Comando de entrada de un jugador para un tick de simulación.
+ * Lo rellena la vista (botones táctiles) o un bot; el {@link World} solo lo lee.
+ */
+public class PlayerInput {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int BOMB_BIT = 1 << 3;
+
+    public Direction direction; // null si no se mueve
+    public boolean bomb;
+
+    public void clear() {
+        direction = null;
+        bomb = false;
+    }
+
+    /**
+     * La entrada en un byte, como se guarda en {@link Replay} y viaja por la red: dirección en los
+     * bits 0-2 (0 = ninguna, si no su ordinal + 1) y bomba en el bit 3.
+     */
+    public int toCode() {
+        int code = direction == null ? 0 : direction.ordinal() + 1;
+        if (bomb) code |= BOMB_BIT;
+        return code;
+    }
+
+    public void setCode(int code) {
+        int d = code & (BOMB_BIT - 1);
+        direction = d == 0 || d > DIRECTIONS.length ? null : DIRECTIONS[d - 1];
+        bomb = (code & BOMB_BIT) != 0;
+    }
+}
@@ -1,9 +1,8 @@
 package com.example.bomba;
 
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Pool;
 
-public class PowerUp {
+public class PowerUp implements Pool.Poolable {
     public enum PowerUpType {
         SPEED,
         BOMB_RADIUS,
@@ -12,33 +11,20 @@ public class PowerUp {
 
     private PowerUpType type;
     private float x, y;
-    private Texture texture;
 
-    public PowerUp(PowerUpType type, float x, float y) {
-        this.type = type;
-        this.x = x;
-        this.y = y;
-        loadTexture();
+    /** Power-up sin colocar, para {@link PowerUpPool}. Se inicializa con {@link #set}. */
+    public PowerUp() {
     }
 
-    private void loadTexture() {
-        switch (type) {
-            case SPEED:
-                texture = new Texture("power_speed.png");
-                break;
-            case BOMB_RADIUS:
-                texture = new Texture("power_bomb.png");
-                break;
-            case SHIELD:
-                texture = new Texture("power_shield.png");
-                break;
-        }
+    public PowerUp(PowerUpType type, float x, float y) {
+        set(type, x, y);
     }
 
-    //Renderiza el power-up ajustándolo al tamaño de una celda (`GameMap.TILE_SIZE`).
-
-    public void render(SpriteBatch batch) {
-        batch.draw(texture, x, y, GameMap.TILE_SIZE, GameMap.TILE_SIZE);
+    public PowerUp set(PowerUpType type, float x, float y) {
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        return this;
     }
 
     public PowerUpType getType() {
@@ -53,7 +39,10 @@ public class PowerUp {
         return y;
     }
 
-    public void dispose() {
-        texture.dispose();
+    @Override
+    public void reset() {
+        type = null;
+        x = 0f;
+        y = 0f;
     }
 }
@@ -0,0 +1,14 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Pool de power-ups de una partida. Se llena en {@link World#prewarm()}; los muros destruidos
+ * sacan de aquí sus power-ups y el jugador los devuelve al recogerlos.
+ */
+public class PowerUpPool extends Pool<PowerUp> {
+    @Override
+    protected PowerUp newObject() {
+        return new PowerUp();
+    }
+}
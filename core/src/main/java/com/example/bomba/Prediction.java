@@ -0,0 +1,114 @@
+package com.example.bomba;
+
+/**
+ * Predicción del jugador local en una partida en red.
+ *
+ * La entrada se aplica en el acto a una copia del jugador ({@link #getPlayer()}) con el mismo
+ * {@link Player#move} que usa el servidor, sin esperar a que llegue la instantánea. Cada entrada
+ * enviada se guarda con la posición que predijo en un buffer circular; cuando el servidor confirma
+ * una secuencia se compara su posición con la predicha. Si difieren (un muro que aún no se había
+ * roto en la réplica, un power-up de velocidad, una entrada que el servidor descartó) se parte del
+ * estado autoritativo y se vuelven a aplicar las entradas aún sin confirmar.
+ *
+ * Solo se predice el movimiento: las bombas, los power-ups y la muerte llegan con las instantáneas.
+ */
+public class Prediction {
+    // Entradas sin confirmar que se recuerdan (potencia de dos); a 60 Hz, algo más de dos segundos
+    static final int CAPACITY = 128;
+    // Diferencia a partir de la cual la predicción se considera fallida, en píxeles
+    static final float TOLERANCE = 0.01f;
+
+    private final World world;
+    private final int slot;
+    private final Player predicted;
+    private final PlayerInput replayInput = new PlayerInput();
+
+    private final byte[] inputCodes = new byte[CAPACITY];
+    private final float[] predictedX = new float[CAPACITY];
+    private final float[] predictedY = new float[CAPACITY];
+    private int newest;
+    private int acknowledged;
+
+    // Estadísticas: confirmaciones comprobadas, correcciones y su error en píxeles
+    private int checks, corrections;
+    private float errorSum, maxError;
+
+    /** @param world réplica que mantiene {@link SnapshotDecoder}; {@code slot} es el jugador local. */
+    public Prediction(World world, int slot) {
+        this.world = world;
+        this.slot = slot;
+        Player authoritative = world.getPlayer(slot);
+        predicted = new Player(slot, authoritative.getX(), authoritative.getY());
+        predicted.copyFrom(authoritative);
+    }
+
+    /** Aplica la entrada enviada con número {@code sequence} (consecutivos, empezando en 1). */
+    public void predict(int sequence, PlayerInput input) {
+        newest = sequence;
+        int index = sequence & (CAPACITY - 1);
+        inputCodes[index] = (byte) input.toCode();
+        apply(input);
+        predictedX[index] = predicted.getX();
+        predictedY[index] = predicted.getY();
+    }
+
+    /**
+     * Tras aplicar una instantánea: compara el jugador de la réplica con lo que se predijo para la
+     * última secuencia confirmada y, si no coincide, rehace la predicción desde ahí.
+     */
+    public void reconcile(int lastAcknowledged) {
+        Player authoritative = world.getPlayer(slot);
+        if (lastAcknowledged <= acknowledged) {
+            // Nada nuevo confirmado; con todo confirmado el jugador local es el del servidor
+            if (lastAcknowledged == newest) predicted.copyFrom(authoritative);
+            return;
+        }
+        acknowledged = lastAcknowledged;
+        if (newest - acknowledged >= CAPACITY) {
+            // Su predicción ya se sobrescribió: no hay con qué comparar
+            return;
+        }
+
+        int index = acknowledged & (CAPACITY - 1);
+        float error = Math.abs(authoritative.getX() - predictedX[index])
+            + Math.abs(authoritative.getY() - predictedY[index]);
+        checks++;
+        boolean statusChanged = authoritative.isAlive() != predicted.isAlive()
+            || authoritative.getSpeed() != predicted.getSpeed();
+        if (error <= TOLERANCE && !statusChanged) return;
+
+        if (error > TOLERANCE) {
+            corrections++;
+            errorSum += error;
+            maxError = Math.max(maxError, error);
+        }
+        predicted.copyFrom(authoritative);
+        for (int sequence = acknowledged + 1; sequence <= newest; sequence++) {
+            int i = sequence & (CAPACITY - 1);
+            replayInput.setCode(inputCodes[i]);
+            apply(replayInput);
+            predictedX[i] = predicted.getX();
+            predictedY[i] = predicted.getY();
+        }
+    }
+
+    private void apply(PlayerInput input) {
+        predicted.savePosition();
+        predicted.update(World.STEP);
+        if (predicted.isAlive() && input.direction != null) {
+            predicted.move(input.direction, World.STEP, world.getMap());
+        }
+    }
+
+    /** Jugador local predicho; se dibuja en lugar del de la réplica. */
+    public Player getPlayer() { return predicted; }
+
+    /** Entradas enviadas que el servidor aún no ha confirmado. */
+    public int getPending() { return newest - acknowledged; }
+
+    public int getChecks() { return checks; }
+    public int getCorrections() { return corrections; }
+    /** Error medio de las correcciones, en píxeles (distancia Manhattan). */
+    public float getAverageError() { return corrections == 0 ? 0f : errorSum / corrections; }
+    public float getMaxError() { return maxError; }
+}
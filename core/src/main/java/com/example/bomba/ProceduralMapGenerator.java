@@ -0,0 +1,143 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * Mapas al azar con la estructura del clásico: borde y pilares (fila y columna pares) de muro fijo,
+ * y en el resto muros fijos extra con probabilidad {@link MapSettings#blockDensity}, destructibles
+ * con {@link MapSettings#wallDensity} o suelo.
+ *
+ * Las salidas son las esquinas (en el orden de {@link GameMap}) y, si se piden más de cuatro, puntos
+ * repartidos por igual a lo largo del perímetro interior; cada una con su zona segura en L. Después
+ * se comprueba con un recorrido en anchura que todas las salidas se comunican con la primera por
+ * celdas que no son muro fijo (como mucho habrá que volar muros destructibles); si alguna no lo
+ * hace, se abre un camino en L hasta la primera cambiando los muros fijos que encuentra por
+ * destructibles.
+ *
+ * Cada llamada usa su propio generador aleatorio y sus propios arrays, así que una sola instancia
+ * sirve a varios hilos. Un mapa de 512x512 cuesta unos pocos milisegundos.
+ */
+public class ProceduralMapGenerator implements MapGenerator {
+
+    @Override
+    public GameMap generate(MapSettings settings, long seed) {
+        int rows = settings.rows;
+        int cols = settings.cols;
+        RandomXS128 random = new RandomXS128(seed);
+        byte[] cells = new byte[rows * cols];
+        for (int r = 0, i = 0; r < rows; r++) {
+            boolean borderRow = r == 0 || r == rows - 1;
+            for (int c = 0; c < cols; c++, i++) {
+                if (borderRow || c == 0 || c == cols - 1 || ((r | c) & 1) == 0) {
+                    cells[i] = 1;
+                } else if (random.nextFloat() < settings.blockDensity) {
+                    cells[i] = 1;
+                } else if (random.nextFloat() < settings.wallDensity) {
+                    cells[i] = 2;
+                }
+            }
+        }
+
+        int[] spawns = spawns(rows, cols, settings.spawns);
+        GameMap map = new GameMap(rows, cols, cells, spawns);
+        for (int spawn : spawns) {
+            map.carveSafeZone(spawn);
+        }
+        connect(cells, rows, cols, spawns);
+        return map;
+    }
+
+    /** Las esquinas y, a partir de la quinta, puntos repartidos por el perímetro interior. */
+    static int[] spawns(int rows, int cols, int count) {
+        int[] corners = GameMap.cornerSpawns(rows, cols);
+        int[] spawns = new int[count];
+        System.arraycopy(corners, 0, spawns, 0, Math.min(count, corners.length));
+        int extra = count - corners.length;
+        if (extra <= 0) return spawns;
+
+        // Celdas de columna o fila impar del perímetro interior, en sentido antihorario desde la
+        // esquina inferior izquierda y sin acercarse a menos de dos celdas de una esquina
+        int lastRow = rows - 2;
+        int lastCol = cols - 2;
+        int[] ring = new int[rows + cols];
+        int n = 0;
+        for (int c = 3; c <= lastCol - 2; c += 2) ring[n++] = cols + c;
+        for (int r = 3; r <= lastRow - 2; r += 2) ring[n++] = r * cols + lastCol;
+        for (int c = lastCol - 2; c >= 3; c -= 2) ring[n++] = lastRow * cols + c;
+        for (int r = lastRow - 2; r >= 3; r -= 2) ring[n++] = r * cols + 1;
+        if (extra > n) {
+            throw new IllegalArgumentException("Demasiadas salidas para un mapa de " + rows + "x" + cols + ": " + count);
+        }
+        for (int k = 0; k < extra; k++) {
+            spawns[corners.length + k] = ring[(int) ((k + 0.5) * n / extra)];
+        }
+        return spawns;
+    }
+
+    /** Abre un camino hasta la primera salida para cada una que no esté comunicada con ella. */
+    private static void connect(byte[] cells, int rows, int cols, int[] spawns) {
+        boolean[] reached = new boolean[cells.length];
+        int[] queue = new int[cells.length];
+        flood(cells, cols, spawns[0], reached, queue);
+        int row0 = spawns[0] / cols;
+        int col0 = spawns[0] % cols;
+        for (int i = 1; i < spawns.length; i++) {
+            if (reached[spawns[i]]) continue;
+            int r = spawns[i] / cols;
+            int c = spawns[i] % cols;
+            // Primero por su fila hasta la columna de la primera salida y luego por esa columna
+            for (int step = Integer.signum(col0 - c); c != col0; c += step) {
+                open(cells, r * cols + c);
+            }
+            for (int step = Integer.signum(row0 - r); r != row0; r += step) {
+                open(cells, r * cols + c);
+            }
+            flood(cells, cols, spawns[i], reached, queue);
+        }
+    }
+
+    private static void open(byte[] cells, int tile) {
+        if (cells[tile] == 1) cells[tile] = 2;
+    }
+
+    /**
+     * Marca en {@code reached} las celdas que no son muro fijo alcanzables desde {@code start}. El
+     * borde es siempre muro fijo, así que no hace falta comprobar los límites.
+     */
+    private static void flood(byte[] cells, int cols, int start, boolean[] reached, int[] queue) {
+        if (reached[start]) return;
+        int head = 0, tail = 0;
+        reached[start] = true;
+        queue[tail++] = start;
+        while (head < tail) {
+            int tile = queue[head++];
+            tail = visit(cells, tile - cols, reached, queue, tail);
+            tail = visit(cells, tile + cols, reached, queue, tail);
+            tail = visit(cells, tile - 1, reached, queue, tail);
+            tail = visit(cells, tile + 1, reached, queue, tail);
+        }
+    }
+
+    private static int visit(byte[] cells, int tile, boolean[] reached, int[] queue, int tail) {
+        if (!reached[tile] && cells[tile] != 1) {
+            reached[tile] = true;
+            queue[tail++] = tile;
+        }
+        return tail;
+    }
+
+    /** Si todas las salidas del mapa se comunican con la primera sin atravesar muros fijos. */
+    static boolean isConnected(GameMap map) {
+        int cols = map.getCols();
+        byte[] cells = new byte[map.getRows() * cols];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) map.getCell(i);
+        }
+        boolean[] reached = new boolean[cells.length];
+        flood(cells, cols, map.getSpawn(0), reached, new int[cells.length]);
+        for (int i = 1; i < map.getSpawnCount(); i++) {
+            if (!reached[map.getSpawn(i)]) return false;
+        }
+        return true;
+    }
+}
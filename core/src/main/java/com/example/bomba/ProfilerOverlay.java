@@ -0,0 +1,159 @@
+package com.example.bomba;
+
+import java.util.Locale;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Muestra y guarda las medidas de un {@link FrameProfiler} durante la partida.
+ *
+ * Los contadores de GL (cambios de textura, llamadas de dibujo) salen de un {@link GLProfiler}
+ * que envuelve las llamadas GL mientras existe la pantalla. El panel se activa y desactiva con
+ * {@link #toggle()} y se refresca {@link #REFRESH} veces por segundo para que se pueda leer.
+ *
+ * Cada {@link #LOG_INTERVAL} segundos (y al cerrar la pantalla) se añade una línea a
+ * {@link #LOG_FILE} en el almacenamiento local con los percentiles del histograma móvil y las
+ * medias del periodo, junto con el dispositivo y la GPU, para comparar dispositivos y versiones.
+ */
+public class ProfilerOverlay implements Disposable {
+    static final String LOG_FILE = "perf/frames.csv";
+    private static final float REFRESH = 4f;
+    private static final float LOG_INTERVAL = 10f;
+
+    private final FrameProfiler profiler;
+    private final GLProfiler glProfiler;
+    private final BitmapFont font;
+    private final String device;
+    private final StringBuilder text = new StringBuilder(512);
+    private boolean visible;
+    private boolean logging = true;
+    private float sinceRefresh = Float.MAX_VALUE;
+    private float sinceLog;
+    private int gcAtLastLog;
+    private int entities;
+
+    public ProfilerOverlay(FrameProfiler profiler, String deviceInfo) {
+        this.profiler = profiler;
+        glProfiler = new GLProfiler(Gdx.graphics);
+        glProfiler.enable();
+        font = new BitmapFont(); // Fuente por defecto
+        String renderer = Gdx.gl.glGetString(GL20.GL_RENDERER);
+        device = (deviceInfo != null ? deviceInfo : Gdx.app.getType() + " " + System.getProperty("os.name"))
+            + " / " + renderer;
+    }
+
+    public void toggle() {
+        visible = !visible;
+        sinceRefresh = Float.MAX_VALUE;
+    }
+
+    /**
+     * Cierra el frame en el perfilador con los contadores de dibujo y, si toca, refresca el panel y
+     * escribe una línea del registro.
+     */
+    public void endFrame(World world, int renderCalls, float delta) {
+        profiler.endFrame(renderCalls, glProfiler.getTextureBindings(), glProfiler.getDrawCalls());
+        glProfiler.reset();
+        entities = world.getAlivePlayers() + world.getEnemies().size + world.getBombs().size
+            + world.getPowerUps().size + world.getDetonations().getFlameCount();
+
+        sinceRefresh += delta;
+        if (visible && sinceRefresh >= 1f / REFRESH) {
+            sinceRefresh = 0f;
+            buildText(world);
+        }
+        sinceLog += delta;
+        if (sinceLog >= LOG_INTERVAL) {
+            writeLog();
+        }
+    }
+
+    /** Dibuja el panel (si está activo) con la esquina superior izquierda en (x, y). */
+    public void draw(Batch batch, float x, float y) {
+        if (visible) font.draw(batch, text, x, y);
+    }
+
+    private void buildText(World world) {
+        text.setLength(0);
+        text.append("frame ");
+        appendMillis(profiler.getLastFrameTime());
+        text.append("  p50 ");
+        appendMillis(profiler.percentile(50));
+        text.append("  p95 ");
+        appendMillis(profiler.percentile(95));
+        text.append("  p99 ");
+        appendMillis(profiler.percentile(99));
+        for (int i = 0; i < FrameProfiler.PHASES; i++) {
+            text.append(i % 4 == 0 ? '\n' : ' ').append(FrameProfiler.PHASE_NAMES[i]).append(' ');
+            appendMillis(profiler.getPhaseTime(i));
+        }
+        text.append("\nbatch ").append(profiler.getRenderCalls())
+            .append("  draw ").append(profiler.getDrawCalls())
+            .append("  texturas ").append(profiler.getTextureBindings());
+        text.append("\nsprites ").append(profiler.getSpritesDrawn()).append(" (fuera ").append(profiler.getSpritesCulled())
+            .append(")  celdas ").append(profiler.getTilesDrawn()).append(" (fuera ").append(profiler.getTilesCulled())
+            .append(')');
+        text.append("\nheap ").append(profiler.getUsedHeap() >> 20).append(" MB  gc ").append(profiler.getGcCount());
+        text.append("\njugadores ").append(world.getAlivePlayers())
+            .append("  enemigos ").append(world.getEnemies().size)
+            .append("  bombas ").append(world.getBombs().size)
+            .append("  power-ups ").append(world.getPowerUps().size)
+            .append("  llamas ").append(world.getDetonations().getFlameCount());
+    }
+
+    // Milisegundos con dos decimales sin pasar por Float.toString
+    private void appendMillis(float ms) {
+        int hundredths = Math.round(ms * 100f);
+        text.append(hundredths / 100).append('.');
+        int decimals = hundredths % 100;
+        if (decimals < 10) text.append('0');
+        text.append(decimals).append(" ms");
+    }
+
+    private void writeLog() {
+        sinceLog = 0f;
+        if (!logging || profiler.getFramesSinceReset() == 0) return;
+        StringBuilder line = new StringBuilder(256);
+        line.append(String.format(Locale.ROOT, "%tFT%<tT,\"%s\",%d,%.2f,%.2f,%.2f,%.2f", System.currentTimeMillis(),
+            device.replace('"', '\''), profiler.getFramesSinceReset(), profiler.percentile(50),
+            profiler.percentile(95), profiler.percentile(99), profiler.percentile(100)));
+        for (int i = 0; i < FrameProfiler.PHASES; i++) {
+            line.append(String.format(Locale.ROOT, ",%.3f", profiler.getAveragePhaseTime(i)));
+        }
+        line.append(String.format(Locale.ROOT, ",%.1f,%.1f,%.1f,%d,%d,%d%n", profiler.getAverageRenderCalls(),
+            profiler.getAverageDrawCalls(), profiler.getAverageTextureBindings(),
+            profiler.getGcCount() - gcAtLastLog, profiler.getUsedHeap() >> 20, entities));
+        gcAtLastLog = profiler.getGcCount();
+        profiler.reset();
+
+        try {
+            FileHandle file = Gdx.files.local(LOG_FILE);
+            if (!file.exists()) {
+                StringBuilder header = new StringBuilder("fecha,dispositivo,frames,p50_ms,p95_ms,p99_ms,max_ms");
+                for (String phase : FrameProfiler.PHASE_NAMES) header.append(',').append(phase).append("_ms");
+                header.append(",batch,draw,texturas,gc,heap_mb,entidades\n");
+                file.writeString(header.toString(), false);
+            }
+            file.writeString(line.toString(), true);
+        } catch (GdxRuntimeException e) {
+            // Sin almacenamiento no se registra, pero se sigue jugando
+            Gdx.app.error("ProfilerOverlay", "No se pudo escribir " + LOG_FILE, e);
+            logging = false;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        // Lo medido desde la última línea también cuenta
+        writeLog();
+        glProfiler.disable();
+        font.dispose();
+    }
+}
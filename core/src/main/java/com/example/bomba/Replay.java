@@ -0,0 +1,103 @@
+package com.example.bomba;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.badlogic.gdx.utils.ByteArray;
+
+/**
+ * Grabación de una partida: tamaño del mapa, semilla del {@link World} y la entrada del jugador en
+ * cada tick. Como la simulación es determinista, con esto basta para volver a jugarla exacta
+ * ({@link ReplayPlayer}).
+ *
+ * Cada tick se reduce a un byte ({@link PlayerInput#toCode()}). En el fichero se
+ * guardan por tramos: el código y cuántos ticks seguidos se repite, como varint. La entrada cambia
+ * pocas veces por segundo, así que un minuto de partida ocupa unos cientos de bytes.
+ *
+ * <pre>
+ * "BMRP" versión(2) filas(varint) columnas(varint) semilla(8 bytes) ticks(varint)
+ * { código(1 byte) repeticiones(varint) }*
+ * </pre>
+ */
+public class Replay {
+    private static final byte[] MAGIC = { 'B', 'M', 'R', 'P' };
+    // Sube cuando cambia la simulación: una repetición antigua daría otra partida con la misma entrada
+    private static final int VERSION = 2;
+
+    private final int rows, cols;
+    private final long seed;
+    private final ByteArray codes;
+
+    /** Grabación vacía de una partida sobre un mapa clásico de {@code rows}x{@code cols}. */
+    public Replay(int rows, int cols, long seed) {
+        this(rows, cols, seed, new ByteArray(1024));
+    }
+
+    private Replay(int rows, int cols, long seed, ByteArray codes) {
+        this.rows = rows;
+        this.cols = cols;
+        this.seed = seed;
+        this.codes = codes;
+    }
+
+    /** Anota la entrada del siguiente tick. */
+    public void record(PlayerInput input) {
+        codes.add((byte) input.toCode());
+    }
+
+    /** Rellena {@code input} con la entrada grabada en el tick dado (empezando en 0). */
+    public void getInput(int tick, PlayerInput input) {
+        input.setCode(codes.get(tick));
+    }
+
+    /** Mundo en el estado inicial de la partida grabada. */
+    public World createWorld() {
+        return new World(new GameMap(rows, cols), seed);
+    }
+
+    public int getTicks() { return codes.size; }
+    public long getSeed() { return seed; }
+
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        Varints.write(out, rows);
+        Varints.write(out, cols);
+        out.writeLong(seed);
+        Varints.write(out, codes.size);
+        for (int i = 0; i < codes.size; ) {
+            byte code = codes.get(i);
+            int run = 1;
+            while (i + run < codes.size && codes.get(i + run) == code) run++;
+            out.writeByte(code);
+            Varints.write(out, run);
+            i += run;
+        }
+        out.flush();
+    }
+
+    public static Replay read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (in.readByte() != MAGIC[i]) throw new IOException("No es un fichero de repetición");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Versión de repetición no soportada: " + version);
+        int rows = Varints.read(in);
+        int cols = Varints.read(in);
+        long seed = in.readLong();
+        int ticks = Varints.read(in);
+        ByteArray codes = new ByteArray(Math.max(ticks, 1));
+        while (codes.size < ticks) {
+            byte code = in.readByte();
+            int run = Varints.read(in);
+            if (run <= 0 || codes.size + run > ticks) throw new IOException("Repetición corrupta");
+            for (int i = 0; i < run; i++) codes.add(code);
+        }
+        return new Replay(rows, cols, seed, codes);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.bomba;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Vuelve a simular una {@link Replay} sin ventana, tan rápido como se pueda.
+ *
+ * Al avanzar guarda una instantánea del mundo ({@link World#write}) cada {@code snapshotInterval}
+ * ticks. Saltar a un tick restaura la última instantánea anterior y simula solo desde ahí, así que
+ * ir hacia atrás o a un punto ya visitado cuesta como mucho un intervalo de pasos.
+ */
+public class ReplayPlayer {
+    // Diez segundos de partida entre instantáneas
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 600;
+
+    private final Replay replay;
+    private final int snapshotInterval;
+    private final Array<byte[]> snapshots = new Array<>();
+    private final PlayerInput input = new PlayerInput();
+    private World world;
+
+    public ReplayPlayer(Replay replay) {
+        this(replay, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public ReplayPlayer(Replay replay, int snapshotInterval) {
+        this.replay = replay;
+        this.snapshotInterval = snapshotInterval;
+        world = replay.createWorld();
+        world.prewarm();
+    }
+
+    /** Avanza un tick con la entrada grabada. Devuelve false si la grabación ya terminó. */
+    public boolean step() {
+        int tick = world.getTick();
+        if (tick >= replay.getTicks()) return false;
+        if (tick % snapshotInterval == 0 && tick / snapshotInterval == snapshots.size) {
+            snapshots.add(snapshot(world));
+        }
+        replay.getInput(tick, input);
+        world.step(input);
+        return true;
+    }
+
+    /** Simula hasta el final de la grabación. */
+    public void runToEnd() {
+        while (step()) {
+        }
+    }
+
+    /** Deja el mundo en el estado de justo antes del tick dado. */
+    public void seek(int target) {
+        target = Math.max(0, Math.min(target, replay.getTicks()));
+        int index = Math.min(target / snapshotInterval, snapshots.size - 1);
+        if (index >= 0 && (target < world.getTick() || index * snapshotInterval > world.getTick())) {
+            world = restore(snapshots.get(index));
+            world.prewarm();
+        }
+        while (world.getTick() < target) {
+            step();
+        }
+    }
+
+    public World getWorld() { return world; }
+    public Replay getReplay() { return replay; }
+
+    /** Estado completo del mundo en bytes; también sirve para comparar dos simulaciones. */
+    public static byte[] snapshot(World world) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+            DataOutputStream out = new DataOutputStream(bytes);
+            world.write(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo guardar la instantánea", e);
+        }
+    }
+
+    public static World restore(byte[] snapshot) {
+        try {
+            return World.read(new DataInputStream(new ByteArrayInputStream(snapshot)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Instantánea corrupta", e);
+        }
+    }
+}
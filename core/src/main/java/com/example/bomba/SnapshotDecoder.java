@@ -0,0 +1,164 @@
+package com.example.bomba;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntSet;
+
+/**
+ * Lado cliente de las instantáneas de red: aplica lo que escribe {@link SnapshotEncoder} sobre una
+ * réplica del {@link World}, creada con {@link World#read} a partir del estado completo inicial.
+ *
+ * La réplica no se simula: solo se copian posiciones, bombas, power-ups, llamas y celdas del
+ * servidor, lo necesario para dibujarla con {@link WorldRenderer}. Sus estructuras derivadas
+ * (peligro, caminos) no se mantienen y no deben consultarse.
+ */
+public class SnapshotDecoder {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Bomb.OwnerType[] OWNER_TYPES = Bomb.OwnerType.values();
+    private static final PowerUp.PowerUpType[] POWER_UP_TYPES = PowerUp.PowerUpType.values();
+
+    private final World world;
+    private final int cols;
+    private final IntMap<Enemy> enemies = new IntMap<>();
+    // Enemigos que ya se actualizaron en esta instantánea
+    private final IntSet updated = new IntSet();
+
+    public SnapshotDecoder(World mirror) {
+        this.world = mirror;
+        this.cols = mirror.getMap().getCols();
+        for (int i = 0; i < mirror.getEnemies().size; i++) {
+            Enemy e = mirror.getEnemies().get(i);
+            enemies.put(e.getId(), e);
+        }
+    }
+
+    /** Aplica la instantánea del siguiente tick. */
+    public void apply(DataInput in) throws IOException {
+        int tick = in.readInt();
+        world.setTick(tick);
+        // Como en World.step: las llamas de ticks anteriores se consumen antes de encender las nuevas
+        world.getDetonations().updateFlames(World.STEP);
+        readMap(in);
+        readPlayers(in);
+        readEnemies(in);
+        readBombs(in);
+        readPowerUps(in);
+        readFlames(in);
+    }
+
+    private void readMap(DataInput in) throws IOException {
+        GameMap map = world.getMap();
+        if (in.readByte() == 1) {
+            for (int i = 0, tiles = map.getRows() * cols; i < tiles; i++) {
+                map.setCell(i / cols, i % cols, in.readByte());
+            }
+        } else {
+            for (int n = Varints.read(in); n > 0; n--) {
+                int tile = Varints.read(in);
+                map.setCell(tile / cols, tile % cols, in.readByte());
+            }
+        }
+    }
+
+    private void readPlayers(DataInput in) throws IOException {
+        int count = in.readUnsignedByte();
+        for (int i = 0; i < count; i++) {
+            Player p = world.getPlayer(i);
+            int fields = in.readUnsignedByte();
+            float x = p.getX(), y = p.getY();
+            Direction direction = p.getDirection();
+            if ((fields & SnapshotEncoder.PLAYER_POSITION) != 0) {
+                x = in.readFloat();
+                y = in.readFloat();
+            }
+            if ((fields & SnapshotEncoder.PLAYER_DIRECTION) != 0) {
+                direction = DIRECTIONS[in.readByte()];
+            }
+            p.applySnapshot(x, y, direction);
+            if ((fields & SnapshotEncoder.PLAYER_STATUS) != 0) {
+                p.applySnapshotStatus(in.readBoolean(), in.readBoolean(), in.readByte(), in.readFloat());
+            }
+        }
+    }
+
+    private void readEnemies(DataInput in) throws IOException {
+        for (int n = Varints.read(in); n > 0; n--) {
+            Enemy e = enemies.remove(Varints.read(in));
+            if (e != null) world.removeEnemy(e);
+        }
+        updated.clear();
+        for (int n = Varints.read(in); n > 0; n--) {
+            int id = Varints.read(in);
+            float x = in.readFloat();
+            float y = in.readFloat();
+            int direction = in.readByte();
+            Enemy e = enemies.get(id);
+            if (e == null) {
+                e = world.spawnEnemy(id, x, y);
+                enemies.put(id, e);
+            }
+            e.applySnapshot(x, y, direction);
+            updated.add(id);
+        }
+        // Los que no aparecen no se han movido: su posición anterior pasa a ser la actual
+        Array<Enemy> all = world.getEnemies();
+        for (int i = 0; i < all.size; i++) {
+            Enemy e = all.get(i);
+            if (!updated.contains(e.getId())) e.applySnapshot(e.getX(), e.getY(), e.getDirectionIndex());
+        }
+    }
+
+    private void readBombs(DataInput in) throws IOException {
+        Array<Bomb> bombs = world.getBombs();
+        for (int n = Varints.read(in); n > 0; n--) {
+            int id = Varints.read(in);
+            for (int i = 0; i < bombs.size; i++) {
+                if (bombs.get(i).getId() == id) {
+                    world.removeBomb(i);
+                    break;
+                }
+            }
+        }
+        for (int n = Varints.read(in); n > 0; n--) {
+            int id = Varints.read(in);
+            float x = in.readFloat();
+            float y = in.readFloat();
+            int radius = in.readByte();
+            Bomb.OwnerType ownerType = OWNER_TYPES[in.readByte()];
+            int ownerId = Varints.read(in);
+            Bomb bomb = world.obtainBomb().set(x, y, radius, ownerType, ownerId);
+            bomb.id = id;
+            world.insertBomb(bomb);
+        }
+    }
+
+    private void readPowerUps(DataInput in) throws IOException {
+        Array<PowerUp> powerUps = world.getPowerUps();
+        for (int n = Varints.read(in); n > 0; n--) {
+            int tile = Varints.read(in);
+            for (int i = 0; i < powerUps.size; i++) {
+                PowerUp p = powerUps.get(i);
+                if ((int) (p.getY() / GameMap.TILE_SIZE) * cols + (int) (p.getX() / GameMap.TILE_SIZE) == tile) {
+                    world.removePowerUp(i);
+                    break;
+                }
+            }
+        }
+        for (int n = Varints.read(in); n > 0; n--) {
+            int tile = Varints.read(in);
+            PowerUp.PowerUpType type = POWER_UP_TYPES[in.readByte()];
+            world.addPowerUp(type, (tile % cols) * GameMap.TILE_SIZE, (tile / cols) * GameMap.TILE_SIZE);
+        }
+    }
+
+    private void readFlames(DataInput in) throws IOException {
+        DetonationEngine detonations = world.getDetonations();
+        for (int n = Varints.read(in); n > 0; n--) {
+            int tile = Varints.read(in);
+            detonations.lightFlame(tile, in.readByte());
+        }
+    }
+}
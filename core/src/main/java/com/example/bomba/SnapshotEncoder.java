@@ -0,0 +1,253 @@
+package com.example.bomba;
+
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * Lado servidor de las instantáneas de red: escribe, tick a tick, solo lo que ha cambiado en un
+ * {@link World} desde la anterior llamada. {@link SnapshotDecoder} lo aplica sobre la réplica del
+ * cliente. Se crea justo después de enviar el estado completo, que queda como punto de partida.
+ *
+ * <pre>
+ * tick(int)
+ * mapa       0 cambios(varint) { celda(varint) valor(byte) }*  |  1 todas las celdas(byte)*
+ * jugadores  cuántos(byte) { campos(byte) [x y(float)] [dirección(byte)] [vivo escudo radio velocidad] }*
+ * enemigos   quitados(varint) { id(varint) }*  cambiados(varint) { id(varint) x y(float) dirección(byte) }*
+ * bombas     quitadas(varint) { id(varint) }*  nuevas(varint) { id(varint) x y(float) radio(byte) dueño(byte) id dueño(varint) }*
+ * power-ups  quitados(varint) { celda(varint) }*  nuevos(varint) { celda(varint) tipo(byte) }*
+ * llamas     encendidas(varint) { celda(varint) pieza(byte) }*
+ * </pre>
+ *
+ * Los cambios del mapa salen del registro de {@link GameMap} (solo las celdas que cambiaron); si el
+ * registro se ha desbordado se envía entero. Un enemigo que no se movió no ocupa nada.
+ */
+public class SnapshotEncoder {
+    // Campos de un jugador presentes en la instantánea
+    static final int PLAYER_POSITION = 1;
+    static final int PLAYER_DIRECTION = 1 << 1;
+    static final int PLAYER_STATUS = 1 << 2;
+
+    private static final DataOutput DISCARD = new DataOutputStream(new OutputStream() {
+        @Override public void write(int b) {}
+        @Override public void write(byte[] b, int off, int len) {}
+    });
+
+    private final World world;
+    private final int cols;
+    private int mapVersion = -1;
+
+    // Último estado enviado de cada jugador
+    private final float[] playerX = new float[World.MAX_PLAYERS];
+    private final float[] playerY = new float[World.MAX_PLAYERS];
+    private final int[] playerDirection = new int[World.MAX_PLAYERS];
+    private final int[] playerStatus = new int[World.MAX_PLAYERS];
+    private final float[] playerSpeed = new float[World.MAX_PLAYERS];
+
+    // Último estado enviado por id de enemigo; el sello marca los que siguen en el mundo
+    private final IntMap<EnemyState> enemies = new IntMap<>();
+    // Id de bomba / celda de power-up enviados -> sello del último tick en que existían
+    private final IntIntMap bombs = new IntIntMap();
+    private final IntIntMap powerUps = new IntIntMap();
+    private int stamp;
+
+    private final IntArray scratch = new IntArray();
+    private final IntArray removed = new IntArray();
+
+    private static final class EnemyState {
+        float x, y;
+        int direction;
+        int seen;
+    }
+
+    /** Toma el estado actual del mundo como ya enviado (el cliente acaba de recibirlo completo). */
+    public SnapshotEncoder(World world) {
+        this.world = world;
+        this.cols = world.getMap().getCols();
+        try {
+            write(DISCARD);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Escribe los cambios desde la llamada anterior y los da por enviados. */
+    public void write(DataOutput out) throws IOException {
+        stamp++;
+        out.writeInt(world.getTick());
+        writeMap(out);
+        writePlayers(out);
+        writeEnemies(out);
+        writeBombs(out);
+        writePowerUps(out);
+        writeFlames(out);
+    }
+
+    private void writeMap(DataOutput out) throws IOException {
+        GameMap map = world.getMap();
+        if (mapVersion < 0 || !map.hasChangesSince(mapVersion)) {
+            out.writeByte(1);
+            for (int i = 0, tiles = map.getRows() * cols; i < tiles; i++) {
+                out.writeByte(map.getCell(i));
+            }
+        } else {
+            out.writeByte(0);
+            Varints.write(out, map.getVersion() - mapVersion);
+            for (int v = mapVersion + 1; v <= map.getVersion(); v++) {
+                int tile = map.getChangedCell(v);
+                Varints.write(out, tile);
+                out.writeByte(map.getCell(tile));
+            }
+        }
+        mapVersion = map.getVersion();
+    }
+
+    private void writePlayers(DataOutput out) throws IOException {
+        int count = world.getPlayers().size;
+        out.writeByte(count);
+        for (int i = 0; i < count; i++) {
+            Player p = world.getPlayer(i);
+            int direction = p.getDirection().ordinal();
+            int status = (p.isAlive() ? 1 : 0) | (p.hasShield() ? 2 : 0) | (p.getBombRadius() << 2);
+            int fields = 0;
+            if (p.getX() != playerX[i] || p.getY() != playerY[i]) fields |= PLAYER_POSITION;
+            if (direction != playerDirection[i]) fields |= PLAYER_DIRECTION;
+            if (status != playerStatus[i] || p.getSpeed() != playerSpeed[i]) fields |= PLAYER_STATUS;
+            out.writeByte(fields);
+            if ((fields & PLAYER_POSITION) != 0) {
+                out.writeFloat(p.getX());
+                out.writeFloat(p.getY());
+            }
+            if ((fields & PLAYER_DIRECTION) != 0) {
+                out.writeByte(direction);
+            }
+            if ((fields & PLAYER_STATUS) != 0) {
+                out.writeBoolean(p.isAlive());
+                out.writeBoolean(p.hasShield());
+                out.writeByte(p.getBombRadius());
+                out.writeFloat(p.getSpeed());
+            }
+            playerX[i] = p.getX();
+            playerY[i] = p.getY();
+            playerDirection[i] = direction;
+            playerStatus[i] = status;
+            playerSpeed[i] = p.getSpeed();
+        }
+    }
+
+    private void writeEnemies(DataOutput out) throws IOException {
+        // Primero se anotan los cambiados y los que siguen vivos; después salen los que ya no están
+        scratch.clear();
+        for (int i = 0; i < world.getEnemies().size; i++) {
+            Enemy e = world.getEnemies().get(i);
+            EnemyState state = enemies.get(e.getId());
+            if (state == null) {
+                state = new EnemyState();
+                enemies.put(e.getId(), state);
+                scratch.add(i);
+            } else if (state.x != e.getX() || state.y != e.getY() || state.direction != e.getDirectionIndex()) {
+                scratch.add(i);
+            }
+            state.x = e.getX();
+            state.y = e.getY();
+            state.direction = e.getDirectionIndex();
+            state.seen = stamp;
+        }
+        removed.clear();
+        IntMap.Entries<EnemyState> entries = enemies.entries();
+        while (entries.hasNext()) {
+            IntMap.Entry<EnemyState> entry = entries.next();
+            if (entry.value.seen != stamp) {
+                removed.add(entry.key);
+                entries.remove();
+            }
+        }
+        writeIds(out, removed);
+        Varints.write(out, scratch.size);
+        for (int i = 0; i < scratch.size; i++) {
+            Enemy e = world.getEnemies().get(scratch.get(i));
+            Varints.write(out, e.getId());
+            out.writeFloat(e.getX());
+            out.writeFloat(e.getY());
+            out.writeByte(e.getDirectionIndex());
+        }
+    }
+
+    private void writeBombs(DataOutput out) throws IOException {
+        scratch.clear();
+        for (int i = 0; i < world.getBombs().size; i++) {
+            Bomb b = world.getBombs().get(i);
+            if (!bombs.containsKey(b.getId())) scratch.add(i);
+            bombs.put(b.getId(), stamp);
+        }
+        collectStale(bombs);
+        writeIds(out, removed);
+        Varints.write(out, scratch.size);
+        for (int i = 0; i < scratch.size; i++) {
+            Bomb b = world.getBombs().get(scratch.get(i));
+            Varints.write(out, b.getId());
+            out.writeFloat(b.getX());
+            out.writeFloat(b.getY());
+            out.writeByte(b.getRadius());
+            out.writeByte(b.getOwnerType().ordinal());
+            Varints.write(out, b.getOwnerId());
+        }
+    }
+
+    private void writePowerUps(DataOutput out) throws IOException {
+        scratch.clear();
+        for (int i = 0; i < world.getPowerUps().size; i++) {
+            int tile = tileOf(world.getPowerUps().get(i));
+            if (!powerUps.containsKey(tile)) scratch.add(i);
+            powerUps.put(tile, stamp);
+        }
+        collectStale(powerUps);
+        writeIds(out, removed);
+        Varints.write(out, scratch.size);
+        for (int i = 0; i < scratch.size; i++) {
+            PowerUp p = world.getPowerUps().get(scratch.get(i));
+            Varints.write(out, tileOf(p));
+            out.writeByte(p.getType().ordinal());
+        }
+    }
+
+    private void writeFlames(DataOutput out) throws IOException {
+        // Las llamas se apagan solas en el cliente; basta con las encendidas en este tick
+        DetonationEngine detonations = world.getDetonations();
+        Varints.write(out, detonations.getBlastSize());
+        for (int i = 0; i < detonations.getBlastSize(); i++) {
+            int tile = detonations.getBlastTile(i);
+            Varints.write(out, tile);
+            out.writeByte(detonations.getFlamePiece(tile));
+        }
+    }
+
+    /** Deja en {@code removed} (y quita del mapa) las claves que no se vieron en este tick. */
+    private void collectStale(IntIntMap seen) {
+        removed.clear();
+        IntIntMap.Entries entries = seen.entries();
+        while (entries.hasNext()) {
+            IntIntMap.Entry entry = entries.next();
+            if (entry.value != stamp) {
+                removed.add(entry.key);
+                entries.remove();
+            }
+        }
+    }
+
+    private static void writeIds(DataOutput out, IntArray ids) throws IOException {
+        Varints.write(out, ids.size);
+        for (int i = 0; i < ids.size; i++) {
+            Varints.write(out, ids.get(i));
+        }
+    }
+
+    private int tileOf(PowerUp p) {
+        return (int) (p.getY() / GameMap.TILE_SIZE) * cols + (int) (p.getX() / GameMap.TILE_SIZE);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Interpolación de instantáneas para las entidades remotas de una partida en red (enemigos y los
+ * demás jugadores).
+ *
+ * Las instantáneas llegan a ráfagas: la latencia varía y TCP entrega de golpe lo que se retrasó.
+ * Dibujar la réplica tal cual haría que esas entidades avanzaran a saltos. En su lugar se guarda
+ * la posición de cada una en los últimos {@link #HISTORY} ticks recibidos y se dibujan
+ * {@link #DELAY_TICKS} por detrás del último, interpolando entre los dos ticks que rodean el
+ * instante de dibujo. El reloj de dibujo avanza con el tiempo real y se corrige poco a poco hacia
+ * su objetivo, de modo que la fluctuación de la red no se nota mientras el retraso la cubra.
+ */
+public class SnapshotInterpolation {
+    // Ticks por detrás del último recibido a los que se dibuja (100 ms)
+    static final int DELAY_TICKS = 6;
+    // Posiciones guardadas por entidad (potencia de dos)
+    static final int HISTORY = 32;
+    // Fracción de la desviación del reloj que se corrige en cada frame
+    private static final float CLOCK_CORRECTION = 0.05f;
+    // Con más desviación que esto (en ticks) el reloj salta directamente al objetivo
+    private static final float CLOCK_SNAP = 30f;
+
+    /** Posiciones de una entidad en los últimos ticks recibidos. */
+    private static final class Track {
+        final int[] ticks = new int[HISTORY];
+        final float[] xs = new float[HISTORY];
+        final float[] ys = new float[HISTORY];
+        int count;
+        // Último tick en que se vio la entidad; las que desaparecen de la réplica se descartan
+        int seen;
+
+        void add(int tick, float x, float y) {
+            int i = count++ & (HISTORY - 1);
+            ticks[i] = tick;
+            xs[i] = x;
+            ys[i] = y;
+        }
+    }
+
+    private final World world;
+    private final int localSlot;
+    private final IntMap<Track> tracks = new IntMap<>();
+    private final Pool<Track> trackPool = new Pool<Track>() {
+        @Override
+        protected Track newObject() {
+            return new Track();
+        }
+    };
+
+    private int latestTick = -1;
+    private float renderTick;
+    // Frames en que el reloj iba por delante de lo recibido y hubo que mantener la última posición
+    private int frames, starvedFrames;
+
+    public SnapshotInterpolation(World world, int localSlot) {
+        this.world = world;
+        this.localSlot = localSlot;
+        record();
+        renderTick = latestTick;
+    }
+
+    /** Guarda las posiciones de la réplica tras aplicar una instantánea. */
+    public void record() {
+        int tick = world.getTick();
+        latestTick = tick;
+        Array<Player> players = world.getPlayers();
+        for (int i = 0; i < players.size; i++) {
+            if (i == localSlot) continue;
+            Player p = players.get(i);
+            track(playerKey(i), tick).add(tick, p.getX(), p.getY());
+        }
+        Array<Enemy> enemies = world.getEnemies();
+        for (int i = 0; i < enemies.size; i++) {
+            Enemy e = enemies.get(i);
+            track(e.getId(), tick).add(tick, e.getX(), e.getY());
+        }
+        // Enemigos que ya no están en la réplica
+        IntMap.Entries<Track> entries = tracks.entries();
+        while (entries.hasNext()) {
+            IntMap.Entry<Track> entry = entries.next();
+            if (entry.value.seen != tick) {
+                trackPool.free(entry.value);
+                entries.remove();
+            }
+        }
+    }
+
+    private Track track(int key, int tick) {
+        Track track = tracks.get(key);
+        if (track == null) {
+            track = trackPool.obtain();
+            track.count = 0;
+            tracks.put(key, track);
+        }
+        track.seen = tick;
+        return track;
+    }
+
+    /** Avanza el reloj de dibujo; se llama una vez por frame. */
+    public void advance(float delta) {
+        renderTick += delta / World.STEP;
+        float target = latestTick - DELAY_TICKS;
+        float drift = target - renderTick;
+        if (Math.abs(drift) > CLOCK_SNAP) {
+            renderTick = target;
+        } else {
+            renderTick += drift * CLOCK_CORRECTION;
+        }
+        frames++;
+        if (renderTick > latestTick) starvedFrames++;
+    }
+
+    /** Posición a dibujar del jugador {@code id}; false si no hay historial. */
+    public boolean samplePlayer(int id, Vector2 out) {
+        return sample(tracks.get(playerKey(id)), out);
+    }
+
+    /** Posición a dibujar del enemigo; false si no hay historial. */
+    public boolean sampleEnemy(Enemy enemy, Vector2 out) {
+        return sample(tracks.get(enemy.getId()), out);
+    }
+
+    private boolean sample(Track track, Vector2 out) {
+        if (track == null || track.count == 0) return false;
+        int newest = (track.count - 1) & (HISTORY - 1);
+        int oldest = track.count > HISTORY ? track.count - HISTORY : 0;
+        // De la más reciente hacia atrás hasta la primera anterior al instante de dibujo
+        for (int n = track.count - 1; n >= oldest; n--) {
+            int i = n & (HISTORY - 1);
+            if (track.ticks[i] > renderTick) continue;
+            if (i == newest) break;
+            int j = (n + 1) & (HISTORY - 1);
+            float alpha = (renderTick - track.ticks[i]) / (track.ticks[j] - track.ticks[i]);
+            out.set(track.xs[i] + (track.xs[j] - track.xs[i]) * alpha,
+                track.ys[i] + (track.ys[j] - track.ys[i]) * alpha);
+            return true;
+        }
+        // Fuera del historial: la posición más cercana, sin extrapolar
+        int i = track.ticks[newest] <= renderTick ? newest : oldest & (HISTORY - 1);
+        out.set(track.xs[i], track.ys[i]);
+        return true;
+    }
+
+    // Los jugadores comparten mapa con los enemigos, cuyos ids empiezan en 1
+    private static int playerKey(int id) {
+        return -1 - id;
+    }
+
+    /** Ticks por detrás del último recibido a los que se está dibujando. */
+    public float getLag() { return latestTick - renderTick; }
+
+    /** Fracción de frames en que se agotó el historial y las entidades remotas quedaron quietas. */
+    public float getStarvedFraction() { return frames == 0 ? 0f : (float) starvedFrames / frames; }
+}
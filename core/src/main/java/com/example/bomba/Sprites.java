@@ -0,0 +1,98 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Registro central de sprites.
+ *
+ * Todas las imágenes del juego se empaquetan en un único atlas (tarea de Gradle `packTextures`)
+ * que carga el AssetManager. Aquí se resuelven una sola vez las regiones y animaciones, y las
+ * entidades las comparten: crear una bomba o un power-up ya no lee disco ni sube texturas a la GPU,
+ * y como todo vive en la misma textura el SpriteBatch dibuja el frame sin cambios de textura.
+ *
+ * El atlas pertenece al AssetManager, así que esta clase no tiene dispose().
+ */
+public class Sprites {
+    public static final String ATLAS = "sprites.atlas";
+
+    // Movimiento del jugador/enemigo
+    public final Animation<TextureRegion> walkUp, walkDown, walkLeft, walkRight;
+
+    // Bomba y explosión
+    public final TextureRegion bomb;
+    public final TextureRegion flameCenter, flameHorizontal, flameVertical, flameEndUp, flameEndDown, flameEndSide;
+
+    // Power-ups
+    public final TextureRegion powerSpeed, powerBomb, powerShield;
+
+    // Botones táctiles
+    public final TextureRegion btnUp, btnDown, btnLeft, btnRight, btnBomb;
+
+    // Región blanca que se tiñe con el color de cada celda del mapa
+    public final TextureRegion white;
+
+    public Sprites(AssetManager assetManager) {
+        TextureAtlas atlas = assetManager.get(ATLAS, TextureAtlas.class);
+
+        walkUp = walk(atlas, "Movimiento/Atras/player_U");
+        walkDown = walk(atlas, "Movimiento/DeCara/player_D");
+        walkRight = walk(atlas, "Movimiento/Derecha/player_R");
+        walkLeft = walk(atlas, "Movimiento/Izquierda/player_L");
+
+        bomb = region(atlas, "btn_bomb");
+        flameCenter = region(atlas, "bomba/explosion_medio");
+        flameHorizontal = region(atlas, "bomba/explosion_derechaYizquierda_sinFinal");
+        flameVertical = region(atlas, "bomba/explosion_SinFinal_arribaYabajo");
+        flameEndUp = region(atlas, "bomba/explosion_final_arriba");
+        flameEndDown = region(atlas, "bomba/explosion_final_abajo");
+        flameEndSide = region(atlas, "bomba/explosion_derecha_izquierda");
+
+        powerSpeed = region(atlas, "power_speed");
+        powerBomb = region(atlas, "power_bomb");
+        powerShield = region(atlas, "power_shield");
+
+        btnUp = region(atlas, "btn_up");
+        btnDown = region(atlas, "btn_down");
+        btnLeft = region(atlas, "btn_left");
+        btnRight = region(atlas, "btn_right");
+        btnBomb = bomb;
+
+        white = region(atlas, "white");
+    }
+
+    public TextureRegion powerUp(PowerUp.PowerUpType type) {
+        switch (type) {
+            case SPEED: return powerSpeed;
+            case BOMB_RADIUS: return powerBomb;
+            default: return powerShield;
+        }
+    }
+
+    /** Región de una pieza de llama de {@link DetonationEngine}. */
+    public TextureRegion flame(byte piece) {
+        switch (piece) {
+            case DetonationEngine.HORIZONTAL: return flameHorizontal;
+            case DetonationEngine.VERTICAL: return flameVertical;
+            case DetonationEngine.END_UP: return flameEndUp;
+            case DetonationEngine.END_DOWN: return flameEndDown;
+            case DetonationEngine.END_LEFT:
+            case DetonationEngine.END_RIGHT: return flameEndSide;
+            default: return flameCenter;
+        }
+    }
+
+    private static Animation<TextureRegion> walk(TextureAtlas atlas, String prefix) {
+        return new Animation<>(0.15f, region(atlas, prefix + 1), region(atlas, prefix + 2), region(atlas, prefix + 3));
+    }
+
+    private static TextureRegion region(TextureAtlas atlas, String name) {
+        TextureRegion region = atlas.findRegion(name);
+        if (region == null) {
+            throw new IllegalStateException("Falta la región '" + name + "' en " + ATLAS);
+        }
+        return region;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bomba;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Enteros sin signo en grupos de 7 bits, con el bit alto indicando que sigue otro byte: los valores
+ * pequeños (recuentos, ids, celdas) ocupan uno o dos bytes. Los usan {@link Replay} y las
+ * instantáneas de red.
+ */
+final class Varints {
+    private Varints() {}
+
+    static void write(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int read(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Varint demasiado largo");
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Decide qué se envía al batch según lo que ve la cámara, y cuenta lo dibujado y lo descartado.
+ *
+ * Cada frame se fija el área visible a partir de {@link Frustum#planePoints} de la cámara (la caja
+ * que envuelve sus ocho esquinas; con una cámara ortográfica sin rotar es exactamente la vista).
+ * Las entidades se comparan con esa caja con cuatro comparaciones y el mapa se recorta a las filas y
+ * columnas de celdas que la tocan, sin mirar las demás.
+ *
+ * Los contadores se ponen a cero con {@link #reset} al empezar el frame; {@link GameScreen} los pasa
+ * al {@link FrameProfiler} al terminarlo.
+ */
+public class ViewCuller {
+    private float minX, minY, maxX, maxY;
+    private int spritesDrawn, spritesCulled;
+    private int tilesDrawn, tilesCulled;
+
+    /** Área visible de la cámara; su frustum debe estar al día (después de {@code camera.update()}). */
+    public void set(Frustum frustum) {
+        Vector3[] points = frustum.planePoints;
+        minX = maxX = points[0].x;
+        minY = maxY = points[0].y;
+        for (int i = 1; i < points.length; i++) {
+            minX = Math.min(minX, points[i].x);
+            maxX = Math.max(maxX, points[i].x);
+            minY = Math.min(minY, points[i].y);
+            maxY = Math.max(maxY, points[i].y);
+        }
+    }
+
+    /** Área visible dada en píxeles del mundo (benchmarks y pruebas sin cámara). */
+    public void set(float x, float y, float width, float height) {
+        minX = x;
+        minY = y;
+        maxX = x + width;
+        maxY = y + height;
+    }
+
+    public void reset() {
+        spritesDrawn = 0;
+        spritesCulled = 0;
+        tilesDrawn = 0;
+        tilesCulled = 0;
+    }
+
+    /** Si el rectángulo toca el área visible, sin contarlo. */
+    public boolean overlaps(float x, float y, float width, float height) {
+        return x < maxX && x + width > minX && y < maxY && y + height > minY;
+    }
+
+    /** Si el rectángulo toca el área visible; lo cuenta como sprite dibujado o descartado. */
+    public boolean isVisible(float x, float y, float width, float height) {
+        boolean visible = overlaps(x, y, width, height);
+        if (visible) {
+            spritesDrawn++;
+        } else {
+            spritesCulled++;
+        }
+        return visible;
+    }
+
+    /** Si la celda toca el área visible; la cuenta como un sprite dibujado o descartado. */
+    public boolean isTileVisible(int row, int col) {
+        return isVisible(col * GameMap.TILE_SIZE, row * GameMap.TILE_SIZE, GameMap.TILE_SIZE, GameMap.TILE_SIZE);
+    }
+
+    /** Primera fila de celdas visible, sin salir de [0, rows). */
+    public int firstRow(int rows) { return clamp((int) Math.floor(minY / GameMap.TILE_SIZE), rows); }
+    /** Fila siguiente a la última visible, sin salir de [0, rows]. */
+    public int endRow(int rows) { return clamp((int) Math.ceil(maxY / GameMap.TILE_SIZE), rows + 1); }
+    public int firstCol(int cols) { return clamp((int) Math.floor(minX / GameMap.TILE_SIZE), cols); }
+    public int endCol(int cols) { return clamp((int) Math.ceil(maxX / GameMap.TILE_SIZE), cols + 1); }
+
+    private static int clamp(int value, int limit) {
+        return Math.max(0, Math.min(limit - 1, value));
+    }
+
+    /** Anota celdas del mapa dibujadas y descartadas (las dibuja MapCache o MapRenderer). */
+    public void countTiles(int drawn, int culled) {
+        tilesDrawn += drawn;
+        tilesCulled += culled;
+    }
+
+    public int getSpritesDrawn() { return spritesDrawn; }
+    public int getSpritesCulled() { return spritesCulled; }
+    public int getTilesDrawn() { return tilesDrawn; }
+    public int getTilesCulled() { return tilesCulled; }
+}
@@ -0,0 +1,638 @@
+package com.example.bomba;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Estado completo de una partida y su simulación.
+ *
+ * No usa nada gráfico de libGDX ni lee Gdx.input: la entrada llega como {@link PlayerInput}
+ * y cada llamada a {@link #step(PlayerInput)} avanza exactamente {@link #STEP} segundos.
+ * Así una partida puede ejecutarse sin ventana (servidor, CI, entrenamiento de IA) y
+ * {@link GameScreen} queda como una vista sobre este estado.
+ *
+ * Toda la aleatoriedad sale de un generador con la semilla de la partida, así que la misma
+ * semilla y la misma entrada producen exactamente la misma partida; {@link #write} y {@link #read}
+ * guardan y restauran el estado entre dos pasos. En una partida con varios jugadores cada paso
+ * recibe una entrada por jugador con {@link #step(PlayerInput[])}.
+ */
+public class World {
+    public static final float STEP = 1f / 60f;
+    // Una por esquina del mapa clásico
+    public static final int MAX_PLAYERS = 4;
+
+    private final long seed;
+    private final RandomXS128 random;
+    private int tick;
+    private int nextEnemyId = 1;
+    private int nextBombId = 1;
+    private final EnemyConfig enemyConfig;
+
+    // Estadísticas de la partida
+    private int bombsPlaced;
+    private int wallsDestroyed;
+
+    private final GameMap gameMap;
+    // Ordenado: el índice es el id del jugador y su salida del mapa
+    private final Array<Player> players;
+    private final IntArray alivePlayerTiles = new IntArray(MAX_PLAYERS);
+    // Mide las fases de step() si se asigna; no forma parte del estado de la partida
+    private FrameProfiler profiler;
+    // Destino de los sucesos, si se asigna; tampoco forma parte del estado
+    private EventBus events;
+    private boolean endPublished;
+    private final PlayerInput[] singleInput = new PlayerInput[1];
+    // Bloques (por filas) en los que se simula a los enemigos, o null si se simulan todos
+    private boolean[] activeChunks;
+    private int activeRadius;
+    private final EnemyStore enemyStore;
+    // Vistas de enemyStore, en el mismo orden
+    private final Array<Enemy> enemies;
+    private final Array<PowerUp> powerUps;
+    private final Array<Bomb> bombs;
+    private final OccupancyGrid occupancy;
+    private final DetonationEngine detonations;
+    private final DangerMap dangers;
+    private final Pathfinding pathfinding;
+
+    private final BombPool bombPool = new BombPool();
+    private final PowerUpPool powerUpPool = new PowerUpPool();
+
+    public World() {
+        this(new GameMap());
+    }
+
+    public World(GameMap gameMap) {
+        this(gameMap, System.nanoTime());
+    }
+
+    public World(GameMap gameMap, long seed) {
+        this(gameMap, seed, EnemyConfig.DEFAULT);
+    }
+
+    public World(GameMap gameMap, long seed, EnemyConfig enemyConfig) {
+        this(gameMap, seed, enemyConfig, 1);
+    }
+
+    /**
+     * Partida con {@code playerCount} jugadores (1 a {@link #MAX_PLAYERS}) en las primeras salidas
+     * del mapa y un enemigo en cada una de las restantes.
+     */
+    public World(GameMap gameMap, long seed, EnemyConfig enemyConfig, int playerCount) {
+        this(gameMap, seed, enemyConfig, new Array<Player>(true, MAX_PLAYERS));
+        if (playerCount < 1 || playerCount > MAX_PLAYERS || playerCount > gameMap.getSpawnCount()) {
+            throw new IllegalArgumentException("Jugadores fuera de rango: " + playerCount);
+        }
+        // En el mapa clásico las salidas son las 4 esquinas: con un solo jugador los enemigos
+        // ocupan las otras tres.
+        for (int i = 0; i < gameMap.getSpawnCount(); i++) {
+            float x = gameMap.getSpawnCol(i) * GameMap.TILE_SIZE;
+            float y = gameMap.getSpawnRow(i) * GameMap.TILE_SIZE;
+            if (i < playerCount) {
+                addPlayer(new Player(i, x, y));
+            } else {
+                spawnEnemy(x, y);
+            }
+        }
+    }
+
+    /**
+     * Mundo con los jugadores dados y sin enemigos, bombas ni power-ups; base de los constructores
+     * públicos y de {@link #read}.
+     */
+    private World(GameMap gameMap, long seed, EnemyConfig enemyConfig, Array<Player> players) {
+        this.gameMap = gameMap;
+        this.seed = seed;
+        this.enemyConfig = enemyConfig;
+        this.random = new RandomXS128(seed);
+        this.players = players;
+        occupancy = new OccupancyGrid(gameMap.getRows(), gameMap.getCols());
+        for (int i = 0; i < players.size; i++) {
+            occupancy.updatePlayer(players.get(i));
+        }
+        detonations = new DetonationEngine(gameMap, random);
+        dangers = new DangerMap(gameMap, detonations);
+        pathfinding = new Pathfinding(gameMap, dangers);
+
+        enemyStore = new EnemyStore(random, enemyConfig);
+        enemies = enemyStore.getViews();
+        powerUps = new Array<>();
+        bombs = new Array<>();
+    }
+
+    private void addPlayer(Player player) {
+        players.add(player);
+        occupancy.updatePlayer(player);
+    }
+
+    /** Añade un enemigo en la posición dada (en píxeles) y lo registra en la rejilla de ocupación. */
+    public Enemy spawnEnemy(float x, float y) {
+        return spawnEnemy(nextEnemyId++, x, y);
+    }
+
+    /** Añade un enemigo con un id ya asignado (réplicas de red). */
+    Enemy spawnEnemy(int id, float x, float y) {
+        Enemy enemy = enemyStore.add(id, x, y);
+        occupancy.add(enemy);
+        return enemy;
+    }
+
+    /** Añade una bomba ya colocada; queda registrada en su celda para las reacciones en cadena. */
+    public void addBomb(Bomb bomb) {
+        bomb.id = nextBombId++;
+        bombsPlaced++;
+        insertBomb(bomb);
+        emit(GameEvent.BOMB_PLACED, bomb.id, bomb.cell,
+            bomb.getOwnerType() == Bomb.OwnerType.PLAYER ? bomb.getOwnerId() : -bomb.getOwnerId());
+    }
+
+    /** Registra una bomba que ya tiene id (instantáneas y réplicas de red) sin contarla como nueva. */
+    void insertBomb(Bomb bomb) {
+        bombs.add(bomb);
+        detonations.addBomb(bomb);
+        dangers.addBomb(bomb);
+    }
+
+    /** Bomba sin colocar del pool de la partida (réplicas de red). */
+    Bomb obtainBomb() {
+        return bombPool.obtain();
+    }
+
+    /** Quita una bomba sin detonarla y la devuelve al pool (réplicas de red). */
+    void removeBomb(int index) {
+        Bomb bomb = bombs.removeIndex(index);
+        detonations.removeBomb(bomb);
+        bombPool.free(bomb);
+    }
+
+    /** Añade un power-up del pool (réplicas de red). */
+    void addPowerUp(PowerUp.PowerUpType type, float x, float y) {
+        powerUps.add(powerUpPool.obtain().set(type, x, y));
+    }
+
+    /** Quita un power-up y lo devuelve al pool (réplicas de red). */
+    void removePowerUp(int index) {
+        powerUpPool.free(powerUps.removeIndex(index));
+    }
+
+    /** Fija el tick de una réplica al del servidor. */
+    void setTick(int tick) {
+        this.tick = tick;
+    }
+
+    /** Quita un enemigo en O(1): el último del array ocupa su hueco. */
+    void removeEnemy(Enemy enemy) {
+        occupancy.remove(enemy);
+        enemyStore.remove(enemy.slot);
+        enemy.slot = -1;
+    }
+
+    /**
+     * Llena los pools y reserva capacidad en las listas para el peor caso previsible de la partida,
+     * de modo que colocar y detonar bombas no cree objetos ni haga crecer arrays durante el juego.
+     */
+    public void prewarm() {
+        // Un jugador tiene como mucho dos bombas a la vez. Un enemigo pone una por recarga, así que
+        // tiene tantas como recargas caben en una mecha más la que aún no ha explotado; la recarga
+        // se puede cambiar (BatchRunner --cooldown) y no puede bajar de un paso.
+        float cooldown = Math.max(enemyConfig.bombCooldownTime, STEP);
+        int bombsPerEnemy = (int) Math.ceil(Bomb.FUSE_TIME / cooldown) + 1;
+        int maxBombs = 2 * players.size + bombsPerEnemy * enemies.size;
+        int destructibleWalls = 0;
+        for (int r = 0; r < gameMap.getRows(); r++) {
+            for (int c = 0; c < gameMap.getCols(); c++) {
+                if (gameMap.getCell(r, c) == 2) destructibleWalls++;
+            }
+        }
+        int maxPowerUps = (int) Math.ceil(destructibleWalls * Bomb.POWER_UP_CHANCE);
+
+        bombPool.fill(maxBombs - bombPool.getFree());
+        powerUpPool.fill(maxPowerUps - powerUpPool.getFree());
+        bombs.ensureCapacity(Math.max(0, maxBombs - bombs.size));
+        powerUps.ensureCapacity(Math.max(0, maxPowerUps - powerUps.size));
+    }
+
+    /** Avanza la simulación un paso fijo aplicando la entrada del (único) jugador. */
+    public void step(PlayerInput input) {
+        singleInput[0] = input;
+        step(singleInput);
+    }
+
+    /**
+     * Avanza la simulación un paso fijo; {@code inputs[i]} es la entrada del jugador i (null si no
+     * envió ninguna).
+     */
+    public void step(PlayerInput[] inputs) {
+        final float delta = STEP;
+        tick++;
+
+        // Punto de partida de este paso para interpolar el dibujo
+        for (int i = 0; i < players.size; i++) {
+            players.get(i).savePosition();
+        }
+        enemyStore.savePositions();
+
+        // Actualizamos jugadores y las llamas de explosiones anteriores.
+        begin(FrameProfiler.PLAYERS);
+        for (int i = 0; i < players.size; i++) {
+            players.get(i).update(delta);
+        }
+        end(FrameProfiler.PLAYERS);
+        begin(FrameProfiler.BOMBS);
+        detonations.updateFlames(delta);
+        dangers.advance(delta);
+        end(FrameProfiler.BOMBS);
+
+        // Los campos de búsqueda de caminos se actualizan una vez para todos los enemigos,
+        // hacia el jugador vivo más cercano.
+        begin(FrameProfiler.ENEMIES);
+        if (enemies.size > 0) {
+            alivePlayerTiles.clear();
+            for (int i = 0; i < players.size; i++) {
+                if (players.get(i).isAlive()) alivePlayerTiles.add(occupancy.getPlayerTile(i));
+            }
+            pathfinding.update(alivePlayerTiles);
+        }
+
+        // Por índice: los enemigos solo se eliminan al resolver explosiones, más abajo. Cada bomba
+        // entra en el mundo antes de que decida el siguiente enemigo, que ya la tiene en cuenta.
+        if (activeChunks != null) {
+            markActiveChunks();
+            enemyStore.freezeOutside(activeChunks, gameMap.getChunkCols());
+        }
+        enemyStore.tickCooldowns(delta);
+        for (int i = 0; i < enemyStore.size(); i++) {
+            if (enemyStore.isFrozen(i) || !enemyStore.isAtTarget(i)) continue;
+            Bomb enemyBomb = enemyStore.decide(i, gameMap, pathfinding, dangers, bombPool);
+            if (enemyBomb != null) {
+                addBomb(enemyBomb);
+            }
+        }
+        enemyStore.move(delta);
+        for (int i = 0; i < enemies.size; i++) {
+            occupancy.update(enemies.get(i));
+        }
+
+        end(FrameProfiler.ENEMIES);
+
+        // Actualizamos bombas: las que agotan la mecha se encolan y se resuelven todas juntas.
+        begin(FrameProfiler.BOMBS);
+        for (int i = 0; i < bombs.size; i++) {
+            Bomb b = bombs.get(i);
+            b.update(delta);
+            if (b.getFuseTime() <= 0f) {
+                detonations.ignite(b);
+            }
+        }
+        int powerUpsBefore = powerUps.size;
+        if (detonations.resolve(powerUps, powerUpPool) > 0) {
+            wallsDestroyed += detonations.getWallsBroken();
+            if (events != null) emitDetonation(powerUpsBefore);
+            applyBlastDamage();
+            // Quitamos las bombas detonadas en este tick, también las encadenadas, en una pasada
+            // que compacta las pendientes sin cambiar su orden.
+            int kept = 0;
+            for (int i = 0; i < bombs.size; i++) {
+                Bomb b = bombs.get(i);
+                if (b.hasExploded()) {
+                    emit(GameEvent.BOMB_EXPLODED, b.id, b.cell, 0);
+                    detonations.removeBomb(b);
+                    bombPool.free(b);
+                } else {
+                    bombs.set(kept++, b);
+                }
+            }
+            bombs.truncate(kept);
+            dangers.detonated(bombs);
+        }
+        end(FrameProfiler.BOMBS);
+
+        for (int j = 0; j < players.size; j++) {
+            Player player = players.get(j);
+            if (!player.isAlive()) continue;
+
+            // Comprobamos colisiones entre jugador y power-ups.
+            begin(FrameProfiler.POWER_UPS);
+            for (int i = powerUps.size - 1; i >= 0; i--) {
+                PowerUp p = powerUps.get(i);
+                if (checkCollision(player, p)) {
+                    activatePowerUp(player, p);
+                    emit(GameEvent.POWER_UP_PICKED, j, tileOf(p), p.getType().ordinal());
+                    powerUps.removeIndex(i);
+                    powerUpPool.free(p);
+                }
+            }
+            end(FrameProfiler.POWER_UPS);
+
+            // Movimiento y bomba del jugador según la entrada de este tick
+            PlayerInput input = j < inputs.length ? inputs[j] : null;
+            if (input == null) continue;
+            begin(FrameProfiler.PLAYERS);
+            if (input.direction != null) {
+                player.move(input.direction, delta, gameMap);
+                occupancy.updatePlayer(player);
+            } else if (input.bomb) {
+                Bomb newBomb = player.placeBomb(bombPool);
+                if (newBomb != null) {
+                    addBomb(newBomb);
+                }
+            }
+            end(FrameProfiler.PLAYERS);
+        }
+
+        if (events != null && !endPublished && (isLost() || isWon())) {
+            endPublished = true;
+            emit(GameEvent.MATCH_END, getWinner(), -1, isWon() ? 1 : 0);
+        }
+    }
+
+    /**
+     * Limita la simulación de los enemigos a los bloques a {@code radius} bloques o menos (en las dos
+     * direcciones) del de algún jugador vivo; 0 vuelve a simularlos todos. No forma parte del estado
+     * de {@link #write}: quien restaura una instantánea debe volver a fijarlo, como el perfilador.
+     * Depende solo de la simulación, así que con la misma entrada la partida sigue siendo la misma.
+     */
+    public void setActiveRadius(int radius) {
+        activeRadius = Math.max(0, radius);
+        if (activeRadius == 0) {
+            activeChunks = null;
+            enemyStore.thaw();
+        } else if (activeChunks == null) {
+            activeChunks = new boolean[gameMap.getChunkRows() * gameMap.getChunkCols()];
+        }
+    }
+
+    private void markActiveChunks() {
+        int chunkRows = gameMap.getChunkRows();
+        int chunkCols = gameMap.getChunkCols();
+        Arrays.fill(activeChunks, false);
+        for (int p = 0; p < players.size; p++) {
+            Player player = players.get(p);
+            if (!player.isAlive()) continue;
+            int tile = occupancy.getPlayerTile(p);
+            int row = (tile / gameMap.getCols()) >> GameMap.CHUNK_SHIFT;
+            int col = (tile % gameMap.getCols()) >> GameMap.CHUNK_SHIFT;
+            int r1 = Math.min(chunkRows - 1, row + activeRadius);
+            int c1 = Math.min(chunkCols - 1, col + activeRadius);
+            for (int r = Math.max(0, row - activeRadius); r <= r1; r++) {
+                for (int c = Math.max(0, col - activeRadius); c <= c1; c++) {
+                    activeChunks[r * chunkCols + c] = true;
+                }
+            }
+        }
+    }
+
+    public int getActiveRadius() { return activeRadius; }
+
+    /** Asigna (o quita, con null) el perfilador que mide las fases de {@link #step}. */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    private void begin(int phase) {
+        if (profiler != null) profiler.begin(phase);
+    }
+
+    private void end(int phase) {
+        if (profiler != null) profiler.end(phase);
+    }
+
+    /** Asigna (o quita, con null) el bus al que se publican los sucesos de la partida. */
+    public void setEvents(EventBus events) {
+        this.events = events;
+    }
+
+    private void emit(int type, int subject, int tile, int detail) {
+        if (events != null) events.publish(type, tick, subject, tile, detail);
+    }
+
+    /** Muros rotos en este tick y los power-ups que han dejado (añadidos desde {@code firstPowerUp}). */
+    private void emitDetonation(int firstPowerUp) {
+        for (int i = 0; i < detonations.getWallsBroken(); i++) {
+            emit(GameEvent.WALL_DESTROYED, 0, detonations.getBrokenWall(i), 0);
+        }
+        for (int i = firstPowerUp; i < powerUps.size; i++) {
+            PowerUp p = powerUps.get(i);
+            emit(GameEvent.POWER_UP_SPAWNED, p.getType().ordinal(), tileOf(p), 0);
+        }
+    }
+
+    private int tileOf(PowerUp p) {
+        return (int) (p.getY() / GameMap.TILE_SIZE) * gameMap.getCols() + (int) (p.getX() / GameMap.TILE_SIZE);
+    }
+
+    /**
+     * Mata a quien esté en las celdas de la máscara de explosión del tick. Los enemigos muertos se
+     * quitan después, de atrás hacia delante: el orden final del array depende solo de qué enemigos
+     * murieron y no del orden de las listas de celdas, y así una partida restaurada sigue igual.
+     */
+    void applyBlastDamage() {
+        int cols = detonations.getCols();
+        // Bit j: el jugador j está en alguna celda de la máscara
+        int playersHit = 0;
+        for (int i = 0; i < detonations.getBlastSize(); i++) {
+            int tile = detonations.getBlastTile(i);
+            for (int j = 0; j < players.size; j++) {
+                if (tile == occupancy.getPlayerTile(j)) {
+                    playersHit |= 1 << j;
+                }
+            }
+            killEnemiesAt(tile / cols, tile % cols, detonations.getImmuneEnemy(tile));
+        }
+        for (int i = enemies.size - 1; i >= 0; i--) {
+            Enemy enemy = enemies.get(i);
+            if (!enemy.isAlive()) {
+                emit(GameEvent.ENEMY_KILLED, enemy.getId(), enemy.cell, 0);
+                removeEnemy(enemy);
+            }
+        }
+
+        // Verifica si algún jugador ha sido alcanzado por la explosión (una vez por tick, aunque
+        // le alcancen varias bombas de la misma cadena)
+        for (int j = 0; j < players.size; j++) {
+            Player player = players.get(j);
+            if ((playersHit & (1 << j)) != 0 && player.isAlive()) {
+                emit(player.hasShield() ? GameEvent.SHIELD_LOST : GameEvent.PLAYER_KILLED, j, occupancy.getPlayerTile(j), 0);
+                player.kill();
+            }
+        }
+    }
+
+    private void killEnemiesAt(int row, int col, int immuneId) {
+        Enemy enemy = occupancy.firstAt(row, col);
+        for (; enemy != null; enemy = enemy.nextInCell) {
+            // Si la explosión es solo de bombas de este enemigo, no debe afectarlo
+            if (enemy.getId() != immuneId) {
+                enemy.kill();
+            }
+        }
+    }
+
+    private boolean checkCollision(Player player, PowerUp p) {
+        // Utilizamos las dimensiones originales (32x32) para la comprobación; ajusta si es necesario.
+        // Misma prueba que Rectangle.overlaps, sin crear rectángulos en cada tick.
+        final float size = 32;
+        return player.getX() < p.getX() + size && player.getX() + size > p.getX()
+            && player.getY() < p.getY() + size && player.getY() + size > p.getY();
+    }
+
+    private void activatePowerUp(Player player, PowerUp p) {
+        switch(p.getType()){
+            case SPEED: player.increaseSpeed(); break;
+            case BOMB_RADIUS: player.increaseBombRadius(); break;
+            case SHIELD: player.activateShield(); break;
+        }
+    }
+
+    /** La partida está perdida cuando mueren todos los jugadores. */
+    public boolean isLost() {
+        return getAlivePlayers() == 0;
+    }
+
+    /**
+     * La partida está ganada cuando no queda ningún enemigo vivo y, si hay varios jugadores, solo
+     * queda uno en pie ({@link #getWinner()}).
+     */
+    public boolean isWon() {
+        return !enemyStore.anyAlive() && getAlivePlayers() <= 1;
+    }
+
+    /** Índice del jugador que ha ganado, o -1 si la partida sigue o la han perdido todos. */
+    public int getWinner() {
+        if (!isWon()) return -1;
+        for (int i = 0; i < players.size; i++) {
+            if (players.get(i).isAlive()) return i;
+        }
+        return -1;
+    }
+
+    public int getAlivePlayers() {
+        int alive = 0;
+        for (int i = 0; i < players.size; i++) {
+            if (players.get(i).isAlive()) alive++;
+        }
+        return alive;
+    }
+
+    /**
+     * Guarda el estado completo entre dos pasos: mapa, generador, jugador, enemigos, bombas,
+     * power-ups y llamas. Lo derivado (rejilla, peligro, caminos) se reconstruye al leer.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        out.writeLong(random.getState(0));
+        out.writeLong(random.getState(1));
+        out.writeInt(tick);
+        out.writeInt(nextEnemyId);
+        out.writeInt(nextBombId);
+        out.writeFloat(enemyConfig.speed);
+        out.writeFloat(enemyConfig.bombCooldownTime);
+        out.writeInt(enemyConfig.attackDistance);
+        out.writeInt(bombsPlaced);
+        out.writeInt(wallsDestroyed);
+        out.writeFloat(dangers.getTime());
+        gameMap.write(out);
+        out.writeInt(players.size);
+        for (int i = 0; i < players.size; i++) {
+            players.get(i).write(out);
+        }
+        out.writeInt(enemies.size);
+        for (int i = 0; i < enemies.size; i++) {
+            enemies.get(i).write(out);
+        }
+        out.writeInt(bombs.size);
+        for (int i = 0; i < bombs.size; i++) {
+            bombs.get(i).write(out);
+        }
+        out.writeInt(powerUps.size);
+        for (int i = 0; i < powerUps.size; i++) {
+            PowerUp p = powerUps.get(i);
+            out.writeByte(p.getType().ordinal());
+            out.writeFloat(p.getX());
+            out.writeFloat(p.getY());
+        }
+        detonations.writeFlames(out);
+    }
+
+    /** Reconstruye un mundo guardado con {@link #write}; sigue avanzando igual que el original. */
+    public static World read(DataInput in) throws IOException {
+        long seed = in.readLong();
+        long state0 = in.readLong();
+        long state1 = in.readLong();
+        int tick = in.readInt();
+        int nextEnemyId = in.readInt();
+        int nextBombId = in.readInt();
+        EnemyConfig enemyConfig = new EnemyConfig(in.readFloat(), in.readFloat(), in.readInt());
+        int bombsPlaced = in.readInt();
+        int wallsDestroyed = in.readInt();
+        float time = in.readFloat();
+        GameMap map = GameMap.read(in);
+        int playerCount = in.readInt();
+        Array<Player> players = new Array<>(true, MAX_PLAYERS);
+        for (int i = 0; i < playerCount; i++) {
+            Player player = new Player(i, 0f, 0f);
+            player.read(in);
+            players.add(player);
+        }
+
+        World world = new World(map, seed, enemyConfig, players);
+        world.tick = tick;
+        world.dangers.setTime(time);
+        int enemyCount = in.readInt();
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy enemy = world.spawnEnemy(0f, 0f);
+            enemy.read(in);
+            world.occupancy.update(enemy);
+        }
+        // En el mismo orden en que se colocaron: las listas por celda quedan como en el original
+        int bombCount = in.readInt();
+        for (int i = 0; i < bombCount; i++) {
+            world.insertBomb(world.bombPool.obtain().read(in));
+        }
+        int powerUpCount = in.readInt();
+        for (int i = 0; i < powerUpCount; i++) {
+            PowerUp.PowerUpType type = PowerUp.PowerUpType.values()[in.readByte()];
+            world.powerUps.add(world.powerUpPool.obtain().set(type, in.readFloat(), in.readFloat()));
+        }
+        world.detonations.readFlames(in);
+        world.nextEnemyId = nextEnemyId;
+        world.nextBombId = nextBombId;
+        world.bombsPlaced = bombsPlaced;
+        world.wallsDestroyed = wallsDestroyed;
+        // Al final: crear los enemigos ya ha consumido números del generador
+        world.random.setState(state0, state1);
+        return world;
+    }
+
+    /** Pasos simulados desde el inicio de la partida. */
+    public int getTick() { return tick; }
+
+    /** Bombas colocadas en la partida (jugador y enemigos). */
+    public int getBombsPlaced() { return bombsPlaced; }
+
+    /** Muros destructibles rotos en la partida. */
+    public int getWallsDestroyed() { return wallsDestroyed; }
+
+    /** Semilla del generador de la partida; con ella y la misma entrada se reproduce la partida. */
+    public long getSeed() { return seed; }
+
+    public GameMap getMap() { return gameMap; }
+    /** Primer jugador: el único en una partida local. */
+    public Player getPlayer() { return players.first(); }
+    public Player getPlayer(int index) { return players.get(index); }
+    public Array<Player> getPlayers() { return players; }
+    public Array<Enemy> getEnemies() { return enemies; }
+    /** Los mismos enemigos que {@link #getEnemies()}, como arrays paralelos. */
+    public EnemyStore getEnemyStore() { return enemyStore; }
+    public Array<PowerUp> getPowerUps() { return powerUps; }
+    public Array<Bomb> getBombs() { return bombs; }
+    public DetonationEngine getDetonations() { return detonations; }
+    public DangerMap getDangers() { return dangers; }
+    public Pathfinding getPathfinding() { return pathfinding; }
+}
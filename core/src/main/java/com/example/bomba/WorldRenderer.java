@@ -0,0 +1,138 @@
+package com.example.bomba;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Dibuja el estado de un {@link World} con las regiones compartidas de {@link Sprites}.
+ * Las entidades solo guardan estado lógico; aquí se decide qué frame corresponde a cada una.
+ *
+ * La simulación avanza a paso fijo y el frame suele caer entre dos pasos: las posiciones se
+ * interpolan entre la del paso anterior y la actual con {@code alpha} (0 = anterior, 1 = actual),
+ * así el movimiento se ve suave sea cual sea la frecuencia de la pantalla.
+ *
+ * En una partida en red ({@link #renderNetwork}) el jugador local se dibuja donde lo deja
+ * {@link Prediction} y el resto de jugadores y los enemigos donde los pone {@link SnapshotInterpolation}.
+ *
+ * El mapa no se dibuja aquí: es una capa estática que {@link MapCache} dibuja antes del batch.
+ *
+ * Solo se envía al batch lo que toca el área visible del {@link ViewCuller} (en la posición en la
+ * que se dibuja, ya interpolada); lo demás se cuenta como descartado.
+ */
+public class WorldRenderer {
+    private final Sprites sprites;
+    private final Vector2 sample = new Vector2(); // reutilizado en cada entidad remota
+
+    public WorldRenderer(Sprites sprites) {
+        this.sprites = sprites;
+    }
+
+    public void render(Batch batch, World world, float alpha, ViewCuller culler) {
+        Array<Player> players = world.getPlayers();
+        for (int i = 0; i < players.size; i++) {
+            Player player = players.get(i);
+            if (player.isAlive()) {
+                renderPlayer(batch, player, lerp(player.getPrevX(), player.getX(), alpha),
+                    lerp(player.getPrevY(), player.getY(), alpha), culler);
+            }
+        }
+
+        Array<Enemy> enemies = world.getEnemies();
+        for (int i = 0; i < enemies.size; i++) {
+            Enemy enemy = enemies.get(i);
+            renderEnemy(batch, enemy, lerp(enemy.getPrevX(), enemy.getX(), alpha), lerp(enemy.getPrevY(), enemy.getY(), alpha),
+                culler);
+        }
+
+        renderItems(batch, world, culler);
+    }
+
+    /**
+     * Réplica de red: {@code alpha} interpola al jugador predicho entre sus dos últimos pasos
+     * locales; las entidades remotas ya vienen interpoladas.
+     */
+    public void renderNetwork(Batch batch, World world, Prediction prediction,
+                              SnapshotInterpolation interpolation, float alpha, ViewCuller culler) {
+        Player local = prediction.getPlayer();
+        Array<Player> players = world.getPlayers();
+        for (int i = 0; i < players.size; i++) {
+            Player player = players.get(i);
+            if (!player.isAlive()) continue;
+            if (i == local.getId()) {
+                renderPlayer(batch, local, lerp(local.getPrevX(), local.getX(), alpha),
+                    lerp(local.getPrevY(), local.getY(), alpha), culler);
+            } else if (interpolation.samplePlayer(i, sample)) {
+                renderPlayer(batch, player, sample.x, sample.y, culler);
+            }
+        }
+
+        Array<Enemy> enemies = world.getEnemies();
+        for (int i = 0; i < enemies.size; i++) {
+            Enemy enemy = enemies.get(i);
+            if (interpolation.sampleEnemy(enemy, sample)) {
+                renderEnemy(batch, enemy, sample.x, sample.y, culler);
+            }
+        }
+
+        renderItems(batch, world, culler);
+    }
+
+    private void renderItems(Batch batch, World world, ViewCuller culler) {
+        //Renderiza cada power-up ajustándolo al tamaño de una celda (`GameMap.TILE_SIZE`).
+        Array<PowerUp> powerUps = world.getPowerUps();
+        for (int i = 0; i < powerUps.size; i++) {
+            PowerUp p = powerUps.get(i);
+            if (!culler.isVisible(p.getX(), p.getY(), GameMap.TILE_SIZE, GameMap.TILE_SIZE)) continue;
+            batch.draw(sprites.powerUp(p.getType()), p.getX(), p.getY(), GameMap.TILE_SIZE, GameMap.TILE_SIZE);
+        }
+
+        Array<Bomb> bombs = world.getBombs();
+        for (int i = 0; i < bombs.size; i++) {
+            Bomb b = bombs.get(i);
+            if (!culler.isVisible(b.getX(), b.getY(), GameMap.TILE_SIZE, GameMap.TILE_SIZE)) continue;
+            batch.draw(sprites.bomb, b.getX(), b.getY(), GameMap.TILE_SIZE, GameMap.TILE_SIZE);
+        }
+
+        // Llamas: las celdas que dejó encendidas la máscara de explosión de DetonationEngine
+        DetonationEngine detonations = world.getDetonations();
+        int cols = detonations.getCols();
+        for (int i = 0; i < detonations.getFlameCount(); i++) {
+            int tile = detonations.getFlameTile(i);
+            if (!culler.isTileVisible(tile / cols, tile % cols)) continue;
+            batch.draw(sprites.flame(detonations.getFlamePiece(tile)),
+                (tile % cols) * GameMap.TILE_SIZE, (tile / cols) * GameMap.TILE_SIZE,
+                GameMap.TILE_SIZE, GameMap.TILE_SIZE);
+        }
+    }
+
+    private void renderEnemy(Batch batch, Enemy enemy, float x, float y, ViewCuller culler) {
+        if (!culler.isVisible(x, y, Enemy.WIDTH, Enemy.HEIGHT)) return;
+        TextureRegion frame = walkAnimation(enemy.getDirection()).getKeyFrame(enemy.getStateTime(), true);
+        batch.draw(frame, x, y);
+    }
+
+    private void renderPlayer(Batch batch, Player player, float x, float y, ViewCuller culler) {
+        if (!culler.isVisible(x, y, Player.WIDTH, Player.HEIGHT)) return;
+        TextureRegion frame = walkAnimation(player.getDirection()).getKeyFrame(player.getStateTime(), true);
+        batch.draw(frame, x, y);
+        if (player.hasShield()) {
+            batch.draw(sprites.powerShield, x, y, Player.WIDTH, Player.HEIGHT);
+        }
+    }
+
+    private static float lerp(float from, float to, float alpha) {
+        return from + (to - from) * alpha;
+    }
+
+    private Animation<TextureRegion> walkAnimation(Direction direction) {
+        switch (direction) {
+            case UP: return sprites.walkUp;
+            case LEFT: return sprites.walkLeft;
+            case RIGHT: return sprites.walkRight;
+            default: return sprites.walkDown;
+        }
+    }
+}
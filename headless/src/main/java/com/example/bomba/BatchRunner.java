@@ -0,0 +1,204 @@
+package com.example.bomba;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.badlogic.gdx.utils.JsonWriter;
+
+/**
+ * Juega muchas partidas independientes en paralelo, con {@link PlayerBot} en el lugar del jugador,
+ * para ajustar la dificultad de los enemigos ({@link EnemyConfig}) con números en vez de a ojo.
+ *
+ * Cada partida tiene su propio {@link GameMap}, {@link World} (con su semilla y su RNG) y bot, así que
+ * los hilos no comparten nada mutable. La semilla de la partida i es {@code seed + i}: cualquier fila
+ * del informe se puede repetir sola con la misma semilla y parámetros.
+ *
+ * Con {@code --walls} o {@code --blocks} los mapas salen de {@link ProceduralMapGenerator} con la
+ * semilla de la partida, en vez de ser el clásico.
+ *
+ * Escribe {@code <out>.csv} con una fila por partida y {@code <out>.json} con el resumen.
+ */
+public class BatchRunner {
+    private static final String USAGE = "Uso: BatchRunner [--matches N] [--seed S] [--threads T] [--max-seconds S]"
+        + " [--speed V] [--cooldown S] [--attack D] [--map FILASxCOLUMNAS] [--walls F] [--blocks F]"
+        + " [--out ruta/sin/extension]";
+
+    /** Resultado de una partida. */
+    static final class MatchResult {
+        final int match;
+        final long seed;
+        final String result;
+        final int ticks;
+        final int bombsPlaced;
+        final int wallsDestroyed;
+        final int enemiesLeft;
+
+        MatchResult(int match, long seed, World world) {
+            this.match = match;
+            this.seed = seed;
+            this.result = world.isLost() ? "derrota" : world.isWon() ? "victoria" : "tiempo";
+            this.ticks = world.getTick();
+            this.bombsPlaced = world.getBombsPlaced();
+            this.wallsDestroyed = world.getWallsDestroyed();
+            this.enemiesLeft = world.getEnemies().size;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int matches = 1000;
+        long seed = 1L;
+        int threads = Runtime.getRuntime().availableProcessors();
+        float maxSeconds = 300f;
+        float speed = EnemyConfig.DEFAULT.speed;
+        float cooldown = EnemyConfig.DEFAULT.bombCooldownTime;
+        int attack = EnemyConfig.DEFAULT.attackDistance;
+        int rows = 15, cols = 25;
+        float walls = -1f, blocks = 0f;
+        String out = "batch/resultados";
+
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) usage();
+            String value = args[++i];
+            switch (args[i - 1]) {
+                case "--matches": matches = Integer.parseInt(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--threads": threads = Integer.parseInt(value); break;
+                case "--max-seconds": maxSeconds = Float.parseFloat(value); break;
+                case "--speed": speed = Float.parseFloat(value); break;
+                case "--cooldown": cooldown = Float.parseFloat(value); break;
+                case "--attack": attack = Integer.parseInt(value); break;
+                case "--map": {
+                    int x = value.indexOf('x');
+                    rows = Integer.parseInt(value.substring(0, x));
+                    cols = Integer.parseInt(value.substring(x + 1));
+                    break;
+                }
+                case "--walls": walls = Float.parseFloat(value); break;
+                case "--blocks": blocks = Float.parseFloat(value); break;
+                case "--out": out = value; break;
+                default: usage();
+            }
+        }
+
+        EnemyConfig config = new EnemyConfig(speed, cooldown, attack);
+        int maxTicks = (int) (maxSeconds / World.STEP);
+        boolean procedural = walls >= 0f || blocks > 0f;
+        MapGenerator generator = procedural ? new ProceduralMapGenerator() : MapGenerator.CLASSIC;
+        MapSettings mapSettings = new MapSettings(rows, cols, 4, procedural ? Math.max(walls, 0f) : 1f, blocks);
+        List<Callable<MatchResult>> tasks = new ArrayList<>(matches);
+        for (int i = 0; i < matches; i++) {
+            final int match = i;
+            final long matchSeed = seed + i;
+            tasks.add(() -> play(match, matchSeed, generator.generate(mapSettings, matchSeed), config, maxTicks));
+        }
+
+        System.out.printf(Locale.ROOT, "%d partidas de %dx%d (%s) en %d hilos, enemigos: %s%n", matches, rows, cols,
+            procedural ? "muros " + mapSettings.wallDensity + ", bloques " + blocks : "clásico", threads, config);
+        List<MatchResult> results = new ArrayList<>(matches);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            for (Future<MatchResult> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Una partida ha fallado", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        long nanos = System.nanoTime() - start;
+
+        File csv = new File(out + ".csv");
+        File json = new File(out + ".json");
+        if (csv.getAbsoluteFile().getParentFile() != null) csv.getAbsoluteFile().getParentFile().mkdirs();
+        writeCsv(csv, results);
+        writeSummary(json, results, config, rows, cols, maxSeconds, nanos);
+
+        long totalTicks = 0;
+        int wins = 0;
+        for (MatchResult result : results) {
+            totalTicks += result.ticks;
+            if ("victoria".equals(result.result)) wins++;
+        }
+        double seconds = nanos / 1e9;
+        System.out.printf(Locale.ROOT, "Victorias del bot: %.1f %% (%d/%d)%n", 100.0 * wins / matches, wins, matches);
+        System.out.printf(Locale.ROOT, "%.1f s: %.1f partidas/s, %.0f ticks/s%n", seconds, matches / seconds,
+            totalTicks / seconds);
+        System.out.println("Informe: " + csv.getPath() + ", " + json.getPath());
+    }
+
+    /** Juega una partida completa en el hilo actual. */
+    static MatchResult play(int match, long seed, GameMap map, EnemyConfig config, int maxTicks) {
+        World world = new World(map, seed, config);
+        world.prewarm();
+        PlayerBot bot = new PlayerBot(world);
+        PlayerInput input = new PlayerInput();
+        while (!world.isLost() && !world.isWon() && world.getTick() < maxTicks) {
+            bot.think(input);
+            world.step(input);
+        }
+        return new MatchResult(match, seed, world);
+    }
+
+    private static void writeCsv(File file, List<MatchResult> results) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("partida,semilla,resultado,ticks,segundos,bombas,muros,enemigos_vivos");
+            for (MatchResult r : results) {
+                writer.printf(Locale.ROOT, "%d,%d,%s,%d,%.2f,%d,%d,%d%n", r.match, r.seed, r.result, r.ticks,
+                    r.ticks * World.STEP, r.bombsPlaced, r.wallsDestroyed, r.enemiesLeft);
+            }
+        }
+    }
+
+    private static void writeSummary(File file, List<MatchResult> results, EnemyConfig config, int rows, int cols,
+                                     float maxSeconds, long nanos) throws IOException {
+        int wins = 0, losses = 0;
+        long ticks = 0, bombs = 0, walls = 0;
+        for (MatchResult r : results) {
+            if ("victoria".equals(r.result)) wins++;
+            else if ("derrota".equals(r.result)) losses++;
+            ticks += r.ticks;
+            bombs += r.bombsPlaced;
+            walls += r.wallsDestroyed;
+        }
+        int n = Math.max(1, results.size());
+        try (Writer fileWriter = new FileWriter(file)) {
+            JsonWriter json = new JsonWriter(fileWriter);
+            json.setOutputType(JsonWriter.OutputType.json);
+            json.object()
+                .set("partidas", results.size())
+                .set("mapa", rows + "x" + cols)
+                .set("segundosMaximos", maxSeconds)
+                .object("enemigos")
+                    .set("speed", config.speed)
+                    .set("bombCooldownTime", config.bombCooldownTime)
+                    .set("attackDistance", config.attackDistance)
+                .pop()
+                .set("victorias", wins)
+                .set("derrotas", losses)
+                .set("tiempoAgotado", results.size() - wins - losses)
+                .set("tasaVictoria", (double) wins / n)
+                .set("duracionMedia", ticks * World.STEP / n)
+                .set("bombasMedia", (double) bombs / n)
+                .set("murosMedia", (double) walls / n)
+                .set("segundosReales", nanos / 1e9)
+                .pop();
+            json.close();
+        }
+    }
+
+    private static void usage() {
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.bomba;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Servidor autoritativo del modo en red ({@link NetProtocol}).
+ *
+ * El hilo del servidor solo acepta conexiones y forma salas: los clientes se reparten en salas de
+ * {@code --players} jugadores por orden de llegada. Cuando una se llena se entrega entera a uno de
+ * los {@link RoomShard}, un número fijo de hilos que simulan las partidas: cada sala vive siempre en
+ * el mismo hilo, que atiende también las conexiones de sus jugadores, así que no hay cerrojos. En
+ * cada tick una sala consume como mucho una entrada por jugador (la cola absorbe la fluctuación de
+ * la red), avanza su {@link World} y codifica una sola vez el delta ({@link SnapshotEncoder}), que
+ * se envía igual a todos sus clientes.
+ *
+ * Cada sala nueva va al hilo que menos tiene de entre los que no están saturados; si lo están
+ * todos, el servidor responde {@link NetProtocol#BUSY} en lugar de abrir otra. Simular una sala
+ * cuesta unos microsegundos por tick, así que cada hilo aguanta cientos de salas.
+ *
+ * Con {@code --map-pack} las salas juegan por turno los mapas de un {@link MapPack} (la sala n el
+ * mapa n módulo el total) en lugar del clásico.
+ */
+public class GameServer implements Runnable {
+    static final int DEFAULT_ROOM_BUDGET_MICROS = 1000;
+    private static final long STATS_INTERVAL = 5_000_000_000L;
+
+    private final int playersPerRoom;
+    private final int rows, cols;
+    private final int maxTicks;
+    private final EnemyConfig enemyConfig;
+    private final long seed;
+    private final RoomShard[] shards;
+    private final Thread[] shardThreads;
+    // Mapas que se turnan las salas, o null para el clásico de rows x cols
+    private GameMap[] rotation;
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running;
+
+    private ServerRoom waiting;
+    private int nextRoomId;
+    private int lobbyClients;
+    private long refused;
+
+    public GameServer(int playersPerRoom, int rows, int cols, float maxSeconds, EnemyConfig enemyConfig, long seed)
+            throws IOException {
+        this(playersPerRoom, rows, cols, maxSeconds, enemyConfig, seed,
+            Runtime.getRuntime().availableProcessors(), DEFAULT_ROOM_BUDGET_MICROS);
+    }
+
+    /**
+     * @param threads hilos que simulan salas.
+     * @param roomBudgetMicros coste medio por tick a partir del cual una sala baja de ritmo.
+     */
+    public GameServer(int playersPerRoom, int rows, int cols, float maxSeconds, EnemyConfig enemyConfig, long seed,
+                      int threads, int roomBudgetMicros) throws IOException {
+        if (playersPerRoom < 1 || playersPerRoom > World.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Jugadores por sala fuera de rango: " + playersPerRoom);
+        }
+        if (threads < 1) throw new IllegalArgumentException("Hilos fuera de rango: " + threads);
+        this.playersPerRoom = playersPerRoom;
+        this.rows = rows;
+        this.cols = cols;
+        this.maxTicks = (int) (maxSeconds / World.STEP);
+        this.enemyConfig = enemyConfig;
+        this.seed = seed;
+        shards = new RoomShard[threads];
+        shardThreads = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            shards[i] = new RoomShard(i, maxTicks, roomBudgetMicros * 1000L);
+        }
+    }
+
+    /** Mapas que se turnan las salas nuevas; cada una juega sobre su propia copia. */
+    public void setRotation(GameMap[] maps) {
+        for (GameMap map : maps) {
+            if (map.getSpawnCount() < playersPerRoom) {
+                throw new IllegalArgumentException("Mapa con menos salidas que jugadores: " + map.getSpawnCount());
+            }
+        }
+        rotation = maps.length == 0 ? null : maps;
+    }
+
+    /** Abre el puerto (0 = uno libre) y devuelve el que ha quedado escuchando. */
+    public int bind(int port) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress(port), 256);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /** Para el bucle de {@link #run()} desde otro hilo. */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < shards.length; i++) {
+            shardThreads[i] = new Thread(shards[i], "salas-" + i);
+            shardThreads[i].start();
+        }
+        long nextStats = System.nanoTime() + STATS_INTERVAL;
+        try {
+            while (running) {
+                selector.select(Math.max(1L, (nextStats - System.nanoTime()) / 1_000_000L));
+                handleSelected();
+                long now = System.nanoTime();
+                if (now >= nextStats) {
+                    printStats();
+                    nextStats = now + STATS_INTERVAL;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("El servidor se ha detenido", e);
+        } finally {
+            for (RoomShard shard : shards) shard.stop();
+            for (Thread thread : shardThreads) {
+                try {
+                    if (thread != null) thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException ignored) {
+                    // Cerrando al salir: no hay a quién avisar
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Idem
+            }
+        }
+    }
+
+    private void handleSelected() throws IOException {
+        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+        while (it.hasNext()) {
+            SelectionKey key = it.next();
+            it.remove();
+            if (!key.isValid()) continue;
+            if (key.isAcceptable()) {
+                accept();
+                continue;
+            }
+            ServerConnection connection = (ServerConnection) key.attachment();
+            try {
+                if (key.isReadable()) read(connection);
+                if (key.isValid() && key.isWritable()) flush(connection);
+            } catch (IOException e) {
+                // Cliente que se va a mitad de trama o envía basura: solo afecta a su conexión
+                disconnect(connection);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel socket;
+        while ((socket = serverChannel.accept()) != null) {
+            socket.configureBlocking(false);
+            socket.socket().setTcpNoDelay(true);
+            ServerConnection connection = new ServerConnection(socket);
+            connection.key = socket.register(selector, SelectionKey.OP_READ, connection);
+            lobbyClients++;
+        }
+    }
+
+    private void read(ServerConnection connection) throws IOException {
+        boolean open = connection.channel.read();
+        int type;
+        while (connection.key.isValid() && (type = connection.channel.nextFrame()) >= 0) {
+            DataInputStream in = connection.channel.in();
+            if (type != NetProtocol.HELLO) throw new IOException("Mensaje inesperado en espera: " + type);
+            int version = in.readInt();
+            if (version != NetProtocol.VERSION || connection.room != null) {
+                throw new IOException("Saludo inválido");
+            }
+            join(connection);
+        }
+        if (!open && connection.key.isValid()) disconnect(connection);
+    }
+
+    private void join(ServerConnection connection) throws IOException {
+        if (waiting == null) {
+            if (pickShard() == null) {
+                refuse(connection);
+                return;
+            }
+            waiting = new ServerRoom(nextRoomId++, playersPerRoom);
+        }
+        ServerRoom room = waiting;
+        connection.room = room;
+        connection.slot = room.joined;
+        room.slots[room.joined++] = connection;
+        if (room.joined == room.slots.length) {
+            waiting = null;
+            start(room);
+        }
+    }
+
+    /** El hilo con menos salas de entre los que no están saturados, o null si lo están todos. */
+    private RoomShard pickShard() {
+        RoomShard best = null;
+        for (RoomShard shard : shards) {
+            if (shard.isAccepting() && (best == null || shard.getHostedRooms() < best.getHostedRooms())) {
+                best = shard;
+            }
+        }
+        return best;
+    }
+
+    private void start(ServerRoom room) throws IOException {
+        RoomShard shard = pickShard();
+        if (shard == null) {
+            // Se saturaron todos mientras la sala se llenaba
+            for (ServerConnection connection : room.slots) {
+                connection.room = null;
+                refuse(connection);
+            }
+            return;
+        }
+        GameMap map = rotation != null ? rotation[room.id % rotation.length].copy() : new GameMap(rows, cols);
+        room.world = new World(map, seed + room.id, enemyConfig, room.slots.length);
+        room.world.prewarm();
+        for (ServerConnection connection : room.slots) {
+            // A partir de aquí la conexión es del hilo de la sala
+            connection.key.cancel();
+            lobbyClients--;
+        }
+        shard.adopt(room);
+    }
+
+    /** Avisa de que el servidor está lleno y cierra en cuanto se haya enviado. */
+    private void refuse(ServerConnection connection) throws IOException {
+        connection.channel.beginFrame(NetProtocol.BUSY);
+        connection.channel.endFrame();
+        connection.closing = true;
+        refused++;
+        flush(connection);
+    }
+
+    private void flush(ServerConnection connection) throws IOException {
+        if (connection.key.isValid() && !connection.flush()) disconnect(connection);
+    }
+
+    private void disconnect(ServerConnection connection) {
+        connection.key.cancel();
+        connection.channel.close();
+        lobbyClients--;
+        ServerRoom room = connection.room;
+        connection.room = null;
+        if (room == null) return;
+        // La sala aún no ha empezado: los demás se recolocan para no dejar huecos
+        for (int i = connection.slot; i < room.joined - 1; i++) {
+            room.slots[i] = room.slots[i + 1];
+            room.slots[i].slot = i;
+        }
+        room.slots[--room.joined] = null;
+    }
+
+    private void printStats() {
+        int rooms = 0, parked = 0, degraded = 0;
+        long finished = 0;
+        float ticksPerSecond = 0, micros = 0;
+        StringBuilder load = new StringBuilder();
+        for (RoomShard shard : shards) {
+            rooms += shard.getHostedRooms();
+            parked += shard.getParkedRooms();
+            degraded += shard.getDegradedRooms();
+            finished += shard.getMatchesFinished();
+            ticksPerSecond += shard.getRoomTicksPerSecond();
+            micros += shard.getMicrosPerRoomTick() * shard.getRoomTicksPerSecond();
+            load.append(String.format(Locale.ROOT, " %.0f%%%s", shard.getUtilization() * 100,
+                shard.isAccepting() ? "" : "(lleno)"));
+        }
+        System.out.printf(Locale.ROOT, "Salas en juego: %d (%d aparcadas, %d a menos ritmo), en espera: %d clientes,"
+                + " terminadas: %d, rechazados: %d, %.0f ticks de sala/s, %.1f µs por tick | hilos:%s%n",
+            rooms, parked, degraded, lobbyClients, finished, refused, ticksPerSecond,
+            ticksPerSecond == 0 ? 0.0 : micros / ticksPerSecond, load);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = NetProtocol.DEFAULT_PORT;
+        int players = 2;
+        int rows = 15, cols = 25;
+        float maxSeconds = 300f;
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int budget = DEFAULT_ROOM_BUDGET_MICROS;
+        String mapPack = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(value); break;
+                case "--players": players = Integer.parseInt(value); break;
+                case "--max-seconds": maxSeconds = Float.parseFloat(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--threads": threads = Integer.parseInt(value); break;
+                case "--room-budget-us": budget = Integer.parseInt(value); break;
+                case "--map-pack": mapPack = value; break;
+                case "--map": {
+                    int x = value.indexOf('x');
+                    rows = Integer.parseInt(value.substring(0, x));
+                    cols = Integer.parseInt(value.substring(x + 1));
+                    break;
+                }
+                default:
+                    System.err.println("Uso: GameServer [--port P] [--players N] [--map FILASxCOLUMNAS]"
+                        + " [--map-pack fichero] [--max-seconds S] [--seed S] [--threads T] [--room-budget-us U]");
+                    System.exit(2);
+            }
+        }
+        GameServer server = new GameServer(players, rows, cols, maxSeconds, EnemyConfig.DEFAULT, seed, threads, budget);
+        if (mapPack != null) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(mapPack))) {
+                GameMap[] maps = MapPack.read(in);
+                server.setRotation(maps);
+                System.out.println("Rotación de " + maps.length + " mapas de " + mapPack);
+            }
+        }
+        int bound = server.bind(port);
+        System.out.println("Escuchando en el puerto " + bound + ", salas de " + players + " jugadores, "
+            + threads + " hilos");
+        server.run();
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.bomba;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Banco de pruebas de la predicción y la interpolación con latencia simulada.
+ *
+ * Conecta en el mismo proceso una sala del servidor ({@link World} y {@link SnapshotEncoder}) con un
+ * cliente por jugador ({@link SnapshotDecoder}, {@link Prediction} y {@link SnapshotInterpolation})
+ * a través de enlaces simulados en los dos sentidos: cada mensaje llega {@code --delay} ms más
+ * tarde, más un extra aleatorio de hasta {@code --jitter} ms, y sin adelantar nunca al anterior
+ * (como en TCP). El servidor consume las entradas igual que {@link GameServer}: una por tick, con
+ * una cola de {@value ServerConnection#MAX_QUEUED_INPUTS}.
+ *
+ * El reloj es simulado (pasos de 1 ms), así que minutos de partida tardan segundos y el resultado
+ * es repetible con la misma semilla. Para cada retraso de {@code --delay} (lista separada por
+ * comas) informa de la ida y vuelta medida, las entradas sin confirmar, la frecuencia y el tamaño de
+ * las correcciones de la predicción y cuánto se quedó sin datos la interpolación. Al terminar cada
+ * partida comprueba que las réplicas coinciden con el servidor.
+ */
+public class LatencyHarness {
+    private static final double STEP_MS = World.STEP * 1000.0;
+
+    /** Un mensaje en vuelo: una entrada hacia el servidor o un delta hacia el cliente. */
+    private static final class Packet {
+        final double arrival;
+        final int sequence;
+        final byte code;
+        final byte[] delta;
+
+        Packet(double arrival, int sequence, byte code, byte[] delta) {
+            this.arrival = arrival;
+            this.sequence = sequence;
+            this.code = code;
+            this.delta = delta;
+        }
+    }
+
+    /** Enlace en un sentido con retraso y fluctuación, sin reordenar. */
+    private static final class Link {
+        final ArrayDeque<Packet> inFlight = new ArrayDeque<>();
+        final double delay, jitter;
+        final Random random;
+        double lastArrival;
+
+        Link(double delay, double jitter, Random random) {
+            this.delay = delay;
+            this.jitter = jitter;
+            this.random = random;
+        }
+
+        double arrivalFrom(double now) {
+            lastArrival = Math.max(lastArrival, now + delay + random.nextDouble() * jitter);
+            return lastArrival;
+        }
+
+        Packet poll(double now) {
+            Packet first = inFlight.peek();
+            return first != null && first.arrival <= now ? inFlight.poll() : null;
+        }
+    }
+
+    /** Un jugador: su réplica con predicción e interpolación, y la cola de sus entradas en el servidor. */
+    private static final class Client {
+        final int slot;
+        final World mirror;
+        final SnapshotDecoder decoder;
+        final Prediction prediction;
+        final SnapshotInterpolation interpolation;
+        final Link up, down;
+        final ArrayDeque<Packet> serverQueue = new ArrayDeque<>();
+        final PlayerInput input = new PlayerInput();
+        final PlayerInput serverInput = new PlayerInput();
+        final double[] sentAt = new double[Prediction.CAPACITY];
+        double nextFrame;
+        int nextSequence = 1;
+        int lastApplied, lastAcknowledged;
+
+        Client(int slot, byte[] start, Link up, Link down, double phase) throws IOException {
+            this.slot = slot;
+            mirror = World.read(new DataInputStream(new ByteArrayInputStream(start)));
+            mirror.prewarm();
+            decoder = new SnapshotDecoder(mirror);
+            prediction = new Prediction(mirror, slot);
+            interpolation = new SnapshotInterpolation(mirror, slot);
+            this.up = up;
+            this.down = down;
+            nextFrame = phase;
+        }
+    }
+
+    /** Totales de todas las partidas con un mismo retraso. */
+    private static final class Totals {
+        int matches, replicas, mismatched;
+        long frames, checks, corrections, acknowledged;
+        double errorSum, maxError, roundTripSum, pendingSum, lagSum, starvedSum, clientSeconds;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String delays = "0,50,100,200";
+        double jitter = 20;
+        int players = 2;
+        int matches = 10;
+        float maxSeconds = 60f;
+        long seed = 1L;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--delay": delays = value; break;
+                case "--jitter": jitter = Double.parseDouble(value); break;
+                case "--players": players = Integer.parseInt(value); break;
+                case "--matches": matches = Integer.parseInt(value); break;
+                case "--max-seconds": maxSeconds = Float.parseFloat(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                default:
+                    System.err.println("Uso: LatencyHarness [--delay MS[,MS...]] [--jitter MS] [--players N]"
+                        + " [--matches N] [--max-seconds S] [--seed S]");
+                    System.exit(2);
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%d jugadores, %d partidas de hasta %.0f s por retraso, fluctuación %.0f ms%n",
+            players, matches, maxSeconds, jitter);
+        boolean failed = false;
+        for (String delay : delays.split(",")) {
+            double oneWay = Double.parseDouble(delay.trim());
+            Totals totals = new Totals();
+            for (int m = 0; m < matches; m++) {
+                runMatch(players, oneWay, jitter, maxSeconds, seed + m, totals);
+            }
+            failed |= totals.mismatched > 0;
+            report(System.out, oneWay, jitter, totals);
+        }
+        if (failed) System.exit(1);
+    }
+
+    private static void runMatch(int players, double delay, double jitter, float maxSeconds, long seed,
+                                 Totals totals) throws IOException {
+        Random random = new Random(seed);
+        World world = new World(new GameMap(15, 25), seed, EnemyConfig.DEFAULT, players);
+        world.prewarm();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        world.write(new DataOutputStream(bytes));
+        byte[] start = bytes.toByteArray();
+        SnapshotEncoder encoder = new SnapshotEncoder(world);
+
+        Client[] clients = new Client[players];
+        PlayerInput[] inputs = new PlayerInput[players];
+        for (int s = 0; s < players; s++) {
+            // Cada cliente empieza sus frames en un momento distinto del tick del servidor
+            clients[s] = new Client(s, start, new Link(delay, jitter, random), new Link(delay, jitter, random),
+                random.nextDouble() * STEP_MS);
+        }
+
+        int maxTicks = (int) (maxSeconds / World.STEP);
+        double nextTick = STEP_MS;
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        DataOutputStream deltaOut = new DataOutputStream(delta);
+        for (double now = 0; ; now += 1.0) {
+            // Entradas que llegan al servidor
+            for (Client c : clients) {
+                for (Packet p; (p = c.up.poll(now)) != null; ) {
+                    if (c.serverQueue.size() == ServerConnection.MAX_QUEUED_INPUTS) c.serverQueue.poll();
+                    c.serverQueue.add(p);
+                }
+            }
+
+            // Ticks del servidor
+            boolean over = false;
+            while (nextTick <= now) {
+                for (Client c : clients) {
+                    Packet p = c.serverQueue.poll();
+                    if (p == null) {
+                        inputs[c.slot] = null;
+                    } else {
+                        c.serverInput.setCode(p.code);
+                        inputs[c.slot] = c.serverInput;
+                        c.lastApplied = p.sequence;
+                    }
+                }
+                world.step(inputs);
+                delta.reset();
+                encoder.write(deltaOut);
+                byte[] payload = delta.toByteArray();
+                for (Client c : clients) {
+                    c.down.inFlight.add(new Packet(c.down.arrivalFrom(now), c.lastApplied, (byte) 0, payload));
+                }
+                nextTick += STEP_MS;
+                over = world.isLost() || world.isWon() || world.getTick() >= maxTicks;
+                if (over) break;
+            }
+
+            // Instantáneas que llegan a los clientes
+            for (Client c : clients) {
+                for (Packet p; (p = c.down.poll(now)) != null; ) {
+                    c.decoder.apply(new DataInputStream(new ByteArrayInputStream(p.delta)));
+                    if (p.sequence > c.lastAcknowledged) {
+                        // Ida y vuelta de cada entrada recién confirmada
+                        for (int s = c.lastAcknowledged + 1; s <= p.sequence; s++) {
+                            totals.roundTripSum += now - c.sentAt[s & (Prediction.CAPACITY - 1)];
+                            totals.acknowledged++;
+                        }
+                        c.lastAcknowledged = p.sequence;
+                    }
+                    c.prediction.reconcile(p.sequence);
+                    c.interpolation.record();
+                }
+            }
+            if (over) break;
+
+            // Frames de los clientes: una entrada por frame, a la misma frecuencia que el servidor
+            for (Client c : clients) {
+                if (c.nextFrame > now) continue;
+                c.nextFrame += STEP_MS;
+                c.interpolation.advance(World.STEP);
+                // Paseo aleatorio: cambia de dirección de vez en cuando y pone alguna bomba
+                if (random.nextInt(20) == 0) c.input.setCode(random.nextInt(16));
+                int sequence = c.nextSequence++;
+                c.sentAt[sequence & (Prediction.CAPACITY - 1)] = now;
+                c.prediction.predict(sequence, c.input);
+                c.up.inFlight.add(new Packet(c.up.arrivalFrom(now), sequence, (byte) c.input.toCode(), null));
+                totals.frames++;
+                totals.pendingSum += c.prediction.getPending();
+                totals.lagSum += c.interpolation.getLag();
+            }
+        }
+
+        // Lo que quedaba en vuelo llega y cada réplica debe acabar igual que el servidor
+        long expected = NetLoadTest.checksum(world);
+        for (Client c : clients) {
+            for (Packet p; (p = c.down.inFlight.poll()) != null; ) {
+                c.decoder.apply(new DataInputStream(new ByteArrayInputStream(p.delta)));
+                c.prediction.reconcile(p.sequence);
+            }
+            totals.replicas++;
+            if (NetLoadTest.checksum(c.mirror) != expected) totals.mismatched++;
+
+            Prediction prediction = c.prediction;
+            totals.checks += prediction.getChecks();
+            totals.corrections += prediction.getCorrections();
+            totals.errorSum += prediction.getAverageError() * prediction.getCorrections();
+            totals.maxError = Math.max(totals.maxError, prediction.getMaxError());
+            totals.starvedSum += c.interpolation.getStarvedFraction() * world.getTick();
+            totals.clientSeconds += world.getTick() * World.STEP;
+        }
+        totals.matches++;
+    }
+
+    private static void report(PrintStream out, double delay, double jitter, Totals t) {
+        double clientTicks = t.clientSeconds / World.STEP;
+        out.printf(Locale.ROOT,
+            "retraso %3.0f±%.0f ms | ida y vuelta %5.1f ms, %4.1f entradas sin confirmar"
+                + " | correcciones %5.2f%% (%.1f/min), error medio %.2f px, máx %.2f px"
+                + " | interpolación %.1f ticks por detrás, sin datos %.1f%% | réplicas distintas %d/%d%n",
+            delay, jitter,
+            t.acknowledged == 0 ? 0 : t.roundTripSum / t.acknowledged,
+            t.frames == 0 ? 0 : t.pendingSum / t.frames,
+            t.checks == 0 ? 0 : 100.0 * t.corrections / t.checks,
+            t.clientSeconds == 0 ? 0 : t.corrections / (t.clientSeconds / 60.0),
+            t.corrections == 0 ? 0 : t.errorSum / t.corrections,
+            t.maxError,
+            t.frames == 0 ? 0 : t.lagSum / t.frames,
+            clientTicks == 0 ? 0 : 100.0 * t.starvedSum / clientTicks,
+            t.mismatched, t.replicas);
+    }
+}
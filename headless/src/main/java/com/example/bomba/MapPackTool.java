@@ -0,0 +1,125 @@
+package com.example.bomba;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Genera de antemano un {@link MapPack} con miles de mapas de {@link ProceduralMapGenerator}, en
+ * paralelo, para las rotaciones de torneo ({@code GameServer --map-pack}).
+ *
+ * El mapa i usa la semilla {@code seed + i}, así que cualquiera se puede volver a generar solo.
+ * Comprueba que en todos las salidas se comunican y, con {@code --large}, mide cuánto tarda un mapa
+ * grande (512x512 por defecto) una vez caliente la JIT: debe caber en {@value #LARGE_BUDGET_MS} ms
+ * para poder generarlo al empezar una partida. Termina con error si algo de esto falla.
+ */
+public class MapPackTool {
+    private static final float LARGE_BUDGET_MS = 10f;
+    private static final int LARGE_RUNS = 50;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int maps = 1000;
+        int rows = 15, cols = 25;
+        int spawns = 4;
+        float walls = 0.7f, blocks = 0.05f;
+        long seed = 1L;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int large = 512;
+        String out = "maps/rotacion.bmm";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--maps": maps = Integer.parseInt(value); break;
+                case "--map": {
+                    int x = value.indexOf('x');
+                    rows = Integer.parseInt(value.substring(0, x));
+                    cols = Integer.parseInt(value.substring(x + 1));
+                    break;
+                }
+                case "--spawns": spawns = Integer.parseInt(value); break;
+                case "--walls": walls = Float.parseFloat(value); break;
+                case "--blocks": blocks = Float.parseFloat(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--threads": threads = Integer.parseInt(value); break;
+                case "--large": large = Integer.parseInt(value); break;
+                case "--out": out = value; break;
+                default:
+                    System.err.println("Uso: MapPackTool [--maps N] [--map FILASxCOLUMNAS] [--spawns N] [--walls F]"
+                        + " [--blocks F] [--seed S] [--threads T] [--large LADO (0 = no medir)] [--out fichero]");
+                    System.exit(2);
+            }
+        }
+
+        MapGenerator generator = new ProceduralMapGenerator();
+        MapSettings settings = new MapSettings(rows, cols, spawns, walls, blocks);
+        List<Callable<GameMap>> tasks = new ArrayList<>(maps);
+        for (int i = 0; i < maps; i++) {
+            final long mapSeed = seed + i;
+            tasks.add(() -> generator.generate(settings, mapSeed));
+        }
+
+        GameMap[] pack = new GameMap[maps];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            int i = 0;
+            for (Future<GameMap> future : pool.invokeAll(tasks)) {
+                pack[i++] = future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo generar un mapa", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int disconnected = 0;
+        for (GameMap map : pack) {
+            if (!ProceduralMapGenerator.isConnected(map)) disconnected++;
+        }
+
+        File file = new File(out);
+        if (file.getAbsoluteFile().getParentFile() != null) file.getAbsoluteFile().getParentFile().mkdirs();
+        try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(file))) {
+            MapPack.write(stream, pack);
+        }
+        System.out.printf(Locale.ROOT, "%d mapas (%s) en %d hilos: %.2f s, %.0f mapas/s; %s, %d KB;"
+                + " salidas incomunicadas: %d%n", maps, settings, threads, seconds, maps / seconds, file.getPath(),
+            file.length() >> 10, disconnected);
+
+        boolean slow = false;
+        if (large > 0) {
+            MapSettings largeSettings = new MapSettings(large, large, spawns, walls, blocks);
+            float[] millis = new float[LARGE_RUNS];
+            for (int i = -LARGE_RUNS; i < LARGE_RUNS; i++) {
+                long t = System.nanoTime();
+                GameMap map = generator.generate(largeSettings, seed + i);
+                // La primera mitad solo calienta la JIT
+                if (i >= 0) {
+                    millis[i] = (System.nanoTime() - t) / 1e6f;
+                    if (!ProceduralMapGenerator.isConnected(map)) disconnected++;
+                }
+            }
+            Arrays.sort(millis);
+            float median = millis[LARGE_RUNS / 2];
+            slow = median > LARGE_BUDGET_MS;
+            System.out.printf(Locale.ROOT, "Mapa de %dx%d: mediana %.2f ms, máx %.2f ms (presupuesto %.0f ms)%n",
+                large, large, median, millis[LARGE_RUNS - 1], LARGE_BUDGET_MS);
+        }
+        if (disconnected > 0 || slow) {
+            System.err.println(disconnected > 0 ? "Hay mapas con salidas incomunicadas."
+                : "Generar un mapa grande no cabe en el presupuesto.");
+            System.exit(1);
+        }
+    }
+}
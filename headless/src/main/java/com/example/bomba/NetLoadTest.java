@@ -0,0 +1,166 @@
+package com.example.bomba;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Prueba del modo en red por localhost: abre cientos de {@link GameClient} desde un solo hilo, que
+ * juegan con entrada aleatoria, y al terminar cada partida compara la réplica del cliente con el
+ * estado completo que envía el servidor. Si no se indica {@code --port}, arranca un
+ * {@link GameServer} en este mismo proceso en un puerto libre.
+ *
+ * Informa de cuántas réplicas coinciden, del tamaño medio de los deltas y del ancho de banda por
+ * cliente.
+ */
+public class NetLoadTest {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int clients = 200;
+        int players = 2;
+        float maxSeconds = 20f;
+        String host = "localhost";
+        int port = -1;
+        long seed = 1L;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--clients": clients = Integer.parseInt(value); break;
+                case "--players": players = Integer.parseInt(value); break;
+                case "--max-seconds": maxSeconds = Float.parseFloat(value); break;
+                case "--host": host = value; break;
+                case "--port": port = Integer.parseInt(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--threads": threads = Integer.parseInt(value); break;
+                default:
+                    System.err.println("Uso: NetLoadTest [--clients N] [--players N] [--max-seconds S]"
+                        + " [--host H --port P] [--seed S] [--threads T]");
+                    System.exit(2);
+            }
+        }
+
+        Thread serverThread = null;
+        GameServer server = null;
+        if (port < 0) {
+            server = new GameServer(players, 15, 25, maxSeconds, EnemyConfig.DEFAULT, seed,
+                threads, GameServer.DEFAULT_ROOM_BUDGET_MICROS);
+            port = server.bind(0);
+            serverThread = new Thread(server, "servidor");
+            serverThread.start();
+            System.out.println("Servidor en el puerto " + port + ", salas de " + players + " jugadores");
+        }
+
+        Array<GameClient> active = new Array<>(false, clients);
+        for (int i = 0; i < clients; i++) {
+            active.add(GameClient.connect(host, port));
+        }
+        Random random = new Random(seed);
+        PlayerInput input = new PlayerInput();
+        int matching = 0, mismatched = 0, dropped = 0, refused = 0;
+        long deltas = 0, bytes = 0;
+        double clientSeconds = 0;
+        long start = System.nanoTime();
+        long nextTick = start;
+
+        while (active.size > 0) {
+            for (int i = active.size - 1; i >= 0; i--) {
+                GameClient client = active.get(i);
+                boolean open;
+                try {
+                    open = client.poll();
+                    if (open && client.isStarted() && !client.isFinished()) {
+                        // Paseo aleatorio: cambia de dirección de vez en cuando y pone alguna bomba
+                        if (random.nextInt(20) == 0) input.setCode(random.nextInt(16));
+                        client.sendInput(input);
+                    }
+                } catch (IOException e) {
+                    // Conexión cortada: cuenta como desconectado
+                    open = false;
+                }
+                if (client.isFinished()) {
+                    if (checksum(client.getWorld()) == checksum(client.getFinalState())) matching++;
+                    else mismatched++;
+                } else if (open) {
+                    continue;
+                } else if (client.isRefused()) {
+                    refused++;
+                } else {
+                    dropped++;
+                }
+                deltas += client.getDeltaCount();
+                bytes += client.getBytesReceived();
+                clientSeconds += client.getDeltaCount() * World.STEP;
+                client.close();
+                active.removeIndex(i);
+            }
+            nextTick += (long) (World.STEP * 1e9);
+            long sleep = nextTick - System.nanoTime();
+            if (sleep > 0) Thread.sleep(sleep / 1_000_000L, (int) (sleep % 1_000_000L));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        if (server != null) {
+            server.stop();
+            serverThread.join();
+        }
+        System.out.printf(Locale.ROOT, "%d clientes en %.1f s: réplicas iguales %d, distintas %d, desconectados %d,"
+            + " rechazados por saturación %d%n", clients, seconds, matching, mismatched, dropped, refused);
+        if (deltas > 0) {
+            System.out.printf(Locale.ROOT, "Delta medio: %.1f bytes/tick con cabeceras, %.2f KB/s por cliente%n",
+                (double) bytes / deltas, bytes / 1024.0 / clientSeconds);
+        }
+        if (mismatched > 0 || dropped > 0) System.exit(1);
+    }
+
+    /** Huella de lo que se ve de un mundo: lo que una réplica debe tener igual que el servidor. */
+    static long checksum(World world) {
+        CRC32 crc = new CRC32();
+        update(crc, world.getTick());
+        GameMap map = world.getMap();
+        for (int i = 0, tiles = map.getRows() * map.getCols(); i < tiles; i++) {
+            crc.update(map.getCell(i));
+        }
+        for (int i = 0; i < world.getPlayers().size; i++) {
+            Player p = world.getPlayer(i);
+            update(crc, Float.floatToIntBits(p.getX()));
+            update(crc, Float.floatToIntBits(p.getY()));
+            update(crc, p.getDirection().ordinal());
+            update(crc, (p.isAlive() ? 1 : 0) | (p.hasShield() ? 2 : 0) | (p.getBombRadius() << 2));
+        }
+        // Enemigos, bombas y power-ups pueden estar en otro orden: se suman sus huellas
+        long enemies = 0, bombs = 0, powerUps = 0;
+        for (int i = 0; i < world.getEnemies().size; i++) {
+            Enemy e = world.getEnemies().get(i);
+            enemies += hash(e.getId(), Float.floatToIntBits(e.getX()), Float.floatToIntBits(e.getY()));
+        }
+        for (int i = 0; i < world.getBombs().size; i++) {
+            Bomb b = world.getBombs().get(i);
+            bombs += hash(b.getId(), Float.floatToIntBits(b.getX()), Float.floatToIntBits(b.getY()));
+        }
+        for (int i = 0; i < world.getPowerUps().size; i++) {
+            PowerUp p = world.getPowerUps().get(i);
+            powerUps += hash(p.getType().ordinal(), Float.floatToIntBits(p.getX()), Float.floatToIntBits(p.getY()));
+        }
+        update(crc, (int) enemies);
+        update(crc, (int) bombs);
+        update(crc, (int) powerUps);
+        return crc.getValue();
+    }
+
+    private static long hash(int a, int b, int c) {
+        long h = a * 0x9E3779B97F4A7C15L;
+        h = (h ^ b) * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ c) * 0x165667B19E3779F9L;
+        return h ^ (h >>> 31);
+    }
+
+    private static void update(CRC32 crc, int value) {
+        crc.update(value >>> 24);
+        crc.update(value >>> 16);
+        crc.update(value >>> 8);
+        crc.update(value);
+    }
+}
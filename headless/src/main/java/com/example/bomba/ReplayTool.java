@@ -0,0 +1,89 @@
+package com.example.bomba;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Vuelve a simular una partida grabada (.bmr) sin ventana y a máxima velocidad.
+ *
+ * Imprime cuánto tardó, cómo terminó y una huella (CRC32) del estado final. Con {@code --seek TICK}
+ * salta además a ese tick usando las instantáneas y comprueba que el estado coincide con el de
+ * simular linealmente desde el principio. Con {@code --events FICHERO} guarda los sucesos de la
+ * partida ({@link BinaryEventSink}) e imprime su resumen.
+ */
+public class ReplayTool {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: ReplayTool <partida.bmr> [--seek TICK] [--events FICHERO]");
+            System.exit(2);
+        }
+        Replay replay;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(args[0]))) {
+            replay = Replay.read(in);
+        }
+        int seek = -1;
+        String eventsFile = null;
+        for (int i = 1; i < args.length; i++) {
+            if ("--seek".equals(args[i]) && i + 1 < args.length) {
+                seek = Integer.parseInt(args[++i]);
+            } else if ("--events".equals(args[i]) && i + 1 < args.length) {
+                eventsFile = args[++i];
+            }
+        }
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        EventBus events = null;
+        EventStats stats = new EventStats();
+        BinaryEventSink binary = null;
+        if (eventsFile != null) {
+            binary = new BinaryEventSink(new FileOutputStream(eventsFile));
+            events = new EventBus(binary, stats);
+            events.start();
+            player.getWorld().setEvents(events);
+        }
+        long start = System.nanoTime();
+        player.runToEnd();
+        long nanos = System.nanoTime() - start;
+        if (events != null) {
+            player.getWorld().setEvents(null);
+            events.close();
+        }
+
+        World world = player.getWorld();
+        double millis = nanos / 1e6;
+        System.out.printf("Ticks: %d (%.1f s de partida) en %.1f ms, %.0f ticks/s%n", replay.getTicks(),
+            replay.getTicks() * World.STEP, millis, replay.getTicks() / (nanos / 1e9));
+        System.out.println("Resultado: " + (world.isLost() ? "derrota" : world.isWon() ? "victoria" : "sin terminar")
+            + ", enemigos vivos: " + world.getEnemies().size);
+        System.out.printf("Huella del estado final: %08x%n", checksum(world));
+        if (events != null) {
+            System.out.println("Sucesos: " + stats.summary() + ", descartados " + events.getDropped());
+            if (binary.getError() != null) {
+                throw new IOException("No se pudieron guardar los sucesos en " + eventsFile, binary.getError());
+            }
+        }
+
+        if (seek >= 0) {
+            player.seek(seek);
+            long viaSeek = checksum(player.getWorld());
+            ReplayPlayer linear = new ReplayPlayer(replay, Integer.MAX_VALUE);
+            while (linear.getWorld().getTick() < Math.min(seek, replay.getTicks())) {
+                linear.step();
+            }
+            long viaLinear = checksum(linear.getWorld());
+            System.out.printf("Tick %d: salto %08x, lineal %08x -> %s%n", player.getWorld().getTick(), viaSeek,
+                viaLinear, viaSeek == viaLinear ? "coinciden" : "DISTINTOS");
+            if (viaSeek != viaLinear) System.exit(1);
+        }
+    }
+
+    private static long checksum(World world) {
+        CRC32 crc = new CRC32();
+        crc.update(ReplayPlayer.snapshot(world));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,329 @@
+package com.example.bomba;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Un hilo de {@link GameServer} con su parte de las salas en juego.
+ *
+ * Cada sala vive siempre en el mismo hilo, con las conexiones de sus jugadores registradas en el
+ * {@link Selector} de ese hilo: nada se comparte entre hilos salvo la cola por la que el servidor
+ * entrega las salas recién llenas, así que no hace falta ningún cerrojo.
+ *
+ * Los ticks se planifican en una {@link TickWheel} con {@value #SLOTS_PER_TICK} ranuras por tick
+ * del servidor; cada sala nueva entra en la ranura menos cargada para repartir el trabajo. Además:
+ * <ul>
+ *   <li>Presupuesto por sala: se mide el coste de cada tick y, si la media pasa del presupuesto, la
+ *   sala baja de ritmo (un tick cada 2 y luego cada 4 del servidor) en lugar de retrasar a las
+ *   demás; cuando vuelve a costar poco recupera el ritmo.</li>
+ *   <li>Salas aparcadas: si durante {@value #PARK_AFTER_TICKS} ticks no llega ninguna entrada
+ *   (todos los clientes en pausa), la sala sale de la rueda y no gasta nada hasta la siguiente.</li>
+ *   <li>Saturación: si el hilo pasa más de {@value #OVERLOAD} del tiempo ocupado deja de aceptar
+ *   salas nuevas ({@link #isAccepting()}) hasta bajar de {@value #RECOVER}.</li>
+ * </ul>
+ */
+final class RoomShard implements Runnable {
+    static final int SLOTS_PER_TICK = 4;
+    private static final int WHEEL_SIZE = 64;
+    private static final long SLOT_NANOS = (long) (World.STEP * 1e9) / SLOTS_PER_TICK;
+    // Ranuras seguidas que se recuperan tras un retraso; con más, el reloj se reinicia
+    private static final int MAX_CATCH_UP = 5 * SLOTS_PER_TICK;
+    static final int MAX_INTERVAL = 4;
+    // Ticks de una sala entre dos revisiones de su ritmo
+    private static final int ADJUST_EVERY = 60;
+    static final int PARK_AFTER_TICKS = 300;
+    static final float OVERLOAD = 0.8f;
+    static final float RECOVER = 0.6f;
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final int index;
+    private final int maxTicks;
+    private final long roomBudgetNanos;
+    private final Selector selector;
+    private final TickWheel wheel = new TickWheel(WHEEL_SIZE);
+    private final ConcurrentLinkedQueue<ServerRoom> handoff = new ConcurrentLinkedQueue<>();
+    // Salas entregadas y aún no terminadas; lo escribe el servidor al entregar y este hilo al quitar
+    private final AtomicInteger hosted = new AtomicInteger();
+    private volatile boolean running = true;
+    private volatile boolean accepting = true;
+
+    // Solo este hilo
+    private int parked, degraded;
+    private long roomTicks, tickNanos, busyNanos;
+
+    // Estadísticas publicadas al final de cada ventana de un segundo
+    private volatile int parkedRooms, degradedRooms;
+    private volatile float utilization;
+    private volatile float roomTicksPerSecond, microsPerRoomTick;
+    private volatile long matchesFinished;
+
+    RoomShard(int index, int maxTicks, long roomBudgetNanos) throws IOException {
+        this.index = index;
+        this.maxTicks = maxTicks;
+        this.roomBudgetNanos = roomBudgetNanos;
+        this.selector = Selector.open();
+    }
+
+    /** Entrega una sala llena y con su mundo creado; la arranca este hilo. Se llama desde el servidor. */
+    void adopt(ServerRoom room) {
+        hosted.incrementAndGet();
+        handoff.add(room);
+        selector.wakeup();
+    }
+
+    void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        long nextSlot = System.nanoTime();
+        long windowStart = nextSlot;
+        try {
+            while (running) {
+                long wait = nextSlot - System.nanoTime();
+                if (wait > 1_000_000L) {
+                    selector.select(wait / 1_000_000L);
+                } else {
+                    selector.selectNow();
+                }
+                long workStart = System.nanoTime();
+                handleSelected();
+                startHandedOff();
+
+                long now = System.nanoTime();
+                for (int slots = 0; now >= nextSlot && slots < MAX_CATCH_UP; slots++) {
+                    runSlot();
+                    nextSlot += SLOT_NANOS;
+                }
+                if (now - nextSlot > MAX_CATCH_UP * SLOT_NANOS) {
+                    // Sin margen para recuperar: todo el hilo va más lento en lugar de encadenar ticks
+                    nextSlot = now;
+                }
+                busyNanos += System.nanoTime() - workStart;
+                if (now - windowStart >= WINDOW_NANOS) {
+                    publishStats(now - windowStart);
+                    windowStart = now;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("El hilo de salas " + index + " se ha detenido", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException ignored) {
+                    // Cerrando al salir: no hay a quién avisar
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Idem
+            }
+        }
+    }
+
+    private void handleSelected() {
+        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+        while (it.hasNext()) {
+            SelectionKey key = it.next();
+            it.remove();
+            if (!key.isValid()) continue;
+            ServerConnection connection = (ServerConnection) key.attachment();
+            try {
+                if (key.isReadable()) read(connection);
+                if (key.isValid() && key.isWritable()) flush(connection);
+            } catch (IOException e) {
+                // Cliente que se va a mitad de trama o envía basura: solo afecta a su conexión
+                disconnect(connection);
+            }
+        }
+    }
+
+    private void read(ServerConnection connection) throws IOException {
+        boolean open = connection.channel.read();
+        int type;
+        while ((type = connection.channel.nextFrame()) >= 0) {
+            if (type != NetProtocol.INPUT) throw new IOException("Mensaje inesperado en partida: " + type);
+            DataInputStream in = connection.channel.in();
+            connection.enqueueInput(in.readInt(), in.readByte());
+            ServerRoom room = connection.room;
+            if (room != null && room.parked) {
+                room.parked = false;
+                parked--;
+                room.lastInputTick = room.world.getTick();
+                wheel.schedule(room, wheel.leastLoaded(SLOTS_PER_TICK));
+            }
+        }
+        if (!open) disconnect(connection);
+    }
+
+    private void startHandedOff() throws IOException {
+        ServerRoom room;
+        while ((room = handoff.poll()) != null) {
+            for (ServerConnection connection : room.slots) {
+                connection.key = connection.channel.getChannel().register(selector, SelectionKey.OP_READ, connection);
+                DataOutputStream out = connection.channel.beginFrame(NetProtocol.START);
+                out.writeByte(connection.slot);
+                out.writeByte(room.slots.length);
+                room.world.write(out);
+                connection.channel.endFrame();
+                flush(connection);
+            }
+            // El estado completo recién enviado es la base del primer delta
+            room.encoder = new SnapshotEncoder(room.world);
+            room.lastInputTick = room.world.getTick();
+            wheel.schedule(room, wheel.leastLoaded(SLOTS_PER_TICK));
+        }
+    }
+
+    private void runSlot() throws IOException {
+        ServerRoom room = wheel.advance();
+        while (room != null) {
+            ServerRoom next = room.nextInSlot;
+            room.nextInSlot = null;
+            tick(room);
+            room = next;
+        }
+    }
+
+    private void tick(ServerRoom room) throws IOException {
+        if (room.abandoned) {
+            remove(room);
+            return;
+        }
+        long start = System.nanoTime();
+        World world = room.world;
+        boolean anyInput = false;
+        for (int s = 0; s < room.slots.length; s++) {
+            ServerConnection connection = room.slots[s];
+            if (connection != null && connection.pollInput(room.inputStorage[s])) {
+                room.inputs[s] = room.inputStorage[s];
+                anyInput = true;
+            } else {
+                room.inputs[s] = null;
+            }
+        }
+        if (anyInput) {
+            room.lastInputTick = world.getTick();
+        } else if (world.getTick() - room.lastInputTick >= PARK_AFTER_TICKS) {
+            // Nadie juega: fuera de la rueda hasta que llegue una entrada
+            room.parked = true;
+            parked++;
+            return;
+        }
+
+        world.step(room.inputs);
+        room.delta.reset();
+        room.encoder.write(room.deltaOut);
+        for (ServerConnection connection : room.slots) {
+            if (connection == null) continue;
+            DataOutputStream out = connection.channel.beginFrame(NetProtocol.DELTA);
+            out.writeInt(connection.lastApplied);
+            out.write(room.delta.bytes(), 0, room.delta.size());
+            connection.channel.endFrame();
+            flush(connection);
+        }
+        roomTicks++;
+
+        if (world.isLost() || world.isWon() || world.getTick() >= maxTicks) {
+            finish(room);
+            remove(room);
+            return;
+        }
+
+        long cost = System.nanoTime() - start;
+        tickNanos += cost;
+        room.averageNanos += (cost - room.averageNanos) / 16;
+        if (++room.ticksSinceAdjust >= ADJUST_EVERY) {
+            room.ticksSinceAdjust = 0;
+            adjustRate(room);
+        }
+        wheel.schedule(room, room.interval * SLOTS_PER_TICK);
+    }
+
+    /** Una sala cara baja de ritmo para no quitarle tiempo a las demás; al abaratarse lo recupera. */
+    private void adjustRate(ServerRoom room) {
+        int before = room.interval;
+        if (room.averageNanos > roomBudgetNanos && room.interval < MAX_INTERVAL) {
+            room.interval *= 2;
+        } else if (room.averageNanos < roomBudgetNanos / 4 && room.interval > 1) {
+            room.interval /= 2;
+        }
+        if (before == 1 && room.interval > 1) degraded++;
+        else if (before > 1 && room.interval == 1) degraded--;
+    }
+
+    private void finish(ServerRoom room) throws IOException {
+        for (ServerConnection connection : room.slots) {
+            if (connection == null) continue;
+            DataOutputStream out = connection.channel.beginFrame(NetProtocol.END);
+            out.writeByte(room.world.getWinner());
+            room.world.write(out);
+            connection.channel.endFrame();
+            connection.room = null;
+            connection.closing = true;
+            flush(connection);
+        }
+        matchesFinished++;
+    }
+
+    private void remove(ServerRoom room) {
+        if (room.interval > 1) degraded--;
+        if (room.parked) parked--;
+        hosted.decrementAndGet();
+    }
+
+    private void flush(ServerConnection connection) throws IOException {
+        if (connection.key.isValid() && !connection.flush()) disconnect(connection);
+    }
+
+    private void disconnect(ServerConnection connection) {
+        connection.key.cancel();
+        connection.channel.close();
+        ServerRoom room = connection.room;
+        connection.room = null;
+        if (room == null) return;
+        // Su jugador se queda sin entrada; si se han ido todos, la sala se cierra
+        room.slots[connection.slot] = null;
+        for (ServerConnection other : room.slots) {
+            if (other != null) return;
+        }
+        room.abandoned = true;
+        // Aparcada no está en la rueda: se quita ya; si no, al llegar a su ranura
+        if (room.parked) remove(room);
+    }
+
+    private void publishStats(long windowNanos) {
+        float busy = (float) busyNanos / windowNanos;
+        utilization = busy;
+        if (accepting && busy > OVERLOAD) accepting = false;
+        else if (!accepting && busy < RECOVER) accepting = true;
+        parkedRooms = parked;
+        degradedRooms = degraded;
+        roomTicksPerSecond = roomTicks * 1e9f / windowNanos;
+        microsPerRoomTick = roomTicks == 0 ? 0f : tickNanos / 1e3f / roomTicks;
+        busyNanos = 0;
+        roomTicks = 0;
+        tickNanos = 0;
+    }
+
+    /** Si admite salas nuevas: false mientras está saturado. */
+    boolean isAccepting() { return accepting; }
+    int getHostedRooms() { return hosted.get(); }
+    int getParkedRooms() { return parkedRooms; }
+    int getDegradedRooms() { return degradedRooms; }
+    /** Fracción del último segundo que el hilo estuvo trabajando. */
+    float getUtilization() { return utilization; }
+    float getRoomTicksPerSecond() { return roomTicksPerSecond; }
+    float getMicrosPerRoomTick() { return microsPerRoomTick; }
+    long getMatchesFinished() { return matchesFinished; }
+}
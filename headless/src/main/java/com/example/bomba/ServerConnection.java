@@ -0,0 +1,75 @@
+package com.example.bomba;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Conexión de un cliente en {@link GameServer}: sus tramas, su hueco en la sala y su cola de entradas.
+ *
+ * Mientras espera en la sala de espera la atiende el hilo del servidor; cuando la partida empieza
+ * pasa entera, con su sala, al {@link RoomShard} que la aloja, y a partir de ahí solo la toca ese hilo.
+ */
+final class ServerConnection {
+    // Entradas en espera; si el cliente envía más rápido se descartan las más antiguas
+    static final int MAX_QUEUED_INPUTS = 32;
+    // Un cliente que deja de leer se desconecta antes de que su buffer crezca sin límite
+    private static final int MAX_PENDING_OUTPUT = 4 << 20;
+
+    final FrameChannel channel;
+    // Clave en el selector del hilo que la atiende; cambia al pasar a un RoomShard
+    SelectionKey key;
+    ServerRoom room;
+    int slot = -1;
+    boolean closing;
+    private boolean outputShut;
+
+    private final int[] queuedSequence = new int[MAX_QUEUED_INPUTS];
+    private final byte[] queuedCode = new byte[MAX_QUEUED_INPUTS];
+    private int queueHead, queueSize;
+    int lastApplied;
+
+    ServerConnection(SocketChannel socket) {
+        this.channel = new FrameChannel(socket);
+    }
+
+    /**
+     * Envía lo pendiente; si el socket no lo acepta todo, se espera a que admita escritura.
+     * Devuelve false si hay que desconectarla porque no lee lo que recibe.
+     *
+     * Con {@link #closing}, una vez enviado todo se cierra solo la salida y se sigue leyendo hasta
+     * que cierre el cliente: cerrar el socket con entradas suyas sin leer lo cortaría con un RST y
+     * el cliente podría perder el último mensaje.
+     */
+    boolean flush() throws IOException {
+        boolean empty = channel.flush();
+        if (channel.getPendingOutput() > MAX_PENDING_OUTPUT) return false;
+        if (empty && closing && !outputShut) {
+            channel.getChannel().shutdownOutput();
+            outputShut = true;
+        }
+        key.interestOps(empty ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        return true;
+    }
+
+    void enqueueInput(int sequence, byte code) {
+        if (queueSize == MAX_QUEUED_INPUTS) {
+            queueHead = (queueHead + 1) % MAX_QUEUED_INPUTS;
+            queueSize--;
+        }
+        int index = (queueHead + queueSize) % MAX_QUEUED_INPUTS;
+        queuedSequence[index] = sequence;
+        queuedCode[index] = code;
+        queueSize++;
+    }
+
+    /** Pasa la entrada más antigua a {@code input}; false si la cola está vacía. */
+    boolean pollInput(PlayerInput input) {
+        if (queueSize == 0) return false;
+        input.setCode(queuedCode[queueHead]);
+        lastApplied = queuedSequence[queueHead];
+        queueHead = (queueHead + 1) % MAX_QUEUED_INPUTS;
+        queueSize--;
+        return true;
+    }
+}
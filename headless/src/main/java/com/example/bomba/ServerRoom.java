@@ -0,0 +1,47 @@
+package com.example.bomba;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+
+/**
+ * Una partida de {@link GameServer}: sus conexiones, su {@link World} y lo que necesita
+ * {@link RoomShard} para planificarla (intervalo entre ticks, coste medido, si está aparcada).
+ */
+final class ServerRoom {
+    /** Delta de la sala, escrito una vez por tick y copiado a cada cliente. */
+    static final class DeltaBuffer extends ByteArrayOutputStream {
+        byte[] bytes() { return buf; }
+    }
+
+    final int id;
+    final ServerConnection[] slots;
+    int joined;
+    // En juego pero sin ningún cliente: se descarta en cuanto se vea
+    boolean abandoned;
+    World world;
+    SnapshotEncoder encoder;
+    final PlayerInput[] inputs;
+    final PlayerInput[] inputStorage;
+    final DeltaBuffer delta = new DeltaBuffer();
+    final DataOutputStream deltaOut = new DataOutputStream(delta);
+
+    // Planificación en el RoomShard
+    // Ticks del reloj del servidor entre dos ticks de la sala: 1 normal, más si se pasa de presupuesto
+    int interval = 1;
+    // Coste medio de un tick (media móvil exponencial), en nanosegundos
+    long averageNanos;
+    int ticksSinceAdjust;
+    // Último tick del mundo en que llegó alguna entrada; sin entradas durante un rato se aparca
+    int lastInputTick;
+    boolean parked;
+    // Siguiente en la misma ranura de TickWheel
+    ServerRoom nextInSlot;
+
+    ServerRoom(int id, int capacity) {
+        this.id = id;
+        slots = new ServerConnection[capacity];
+        inputs = new PlayerInput[capacity];
+        inputStorage = new PlayerInput[capacity];
+        for (int i = 0; i < capacity; i++) inputStorage[i] = new PlayerInput();
+    }
+}
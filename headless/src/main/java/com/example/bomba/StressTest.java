@@ -0,0 +1,133 @@
+package com.example.bomba;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Modo de estrés: una arena grande con miles de enemigos y bombas, para comprobar que la simulación
+ * sigue cabiendo en un frame a 60 fps.
+ *
+ * Los enemigos se reparten en celdas al azar (que se vacían) y {@link PlayerBot} juega con el
+ * jugador para que la IA tenga a quién perseguir. Cada tick se mide como un frame de
+ * {@link FrameProfiler}; al final se imprimen los percentiles, el reparto por fases y cuánto del
+ * presupuesto de {@value #BUDGET_MS} ms se ha gastado. Termina con error si el percentil 99 no cabe.
+ *
+ * Con {@code --active-radius} solo se simula a los enemigos a esa distancia en bloques del jugador
+ * ({@link World#setActiveRadius}), como en las arenas grandes del juego.
+ */
+public class StressTest {
+    private static final float BUDGET_MS = 1000f / 60f;
+
+    public static void main(String[] args) {
+        int enemies = 10_000;
+        int rows = 255, cols = 255;
+        float bombDensity = 0.01f;
+        float seconds = 30f;
+        long seed = 1L;
+        int activeRadius = 0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--enemies": enemies = Integer.parseInt(value); break;
+                case "--map": {
+                    int x = value.indexOf('x');
+                    rows = Integer.parseInt(value.substring(0, x));
+                    cols = Integer.parseInt(value.substring(x + 1));
+                    break;
+                }
+                case "--bomb-density": bombDensity = Float.parseFloat(value); break;
+                case "--seconds": seconds = Float.parseFloat(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--active-radius": activeRadius = Integer.parseInt(value); break;
+                default:
+                    System.err.println("Uso: StressTest [--enemies N] [--map FILASxCOLUMNAS] [--bomb-density F]"
+                        + " [--seconds S] [--seed S] [--active-radius BLOQUES]");
+                    System.exit(2);
+            }
+        }
+
+        long start = System.nanoTime();
+        World world = arena(rows, cols, enemies, bombDensity, seed);
+        world.setActiveRadius(activeRadius);
+        System.out.printf(Locale.ROOT, "Arena %dx%d con %d enemigos y %d bombas, creada en %.0f ms%n", rows, cols,
+            world.getEnemies().size, world.getBombs().size, (System.nanoTime() - start) / 1e6);
+
+        FrameProfiler profiler = new FrameProfiler();
+        world.setProfiler(profiler);
+        PlayerBot bot = new PlayerBot(world);
+        PlayerInput input = new PlayerInput();
+        int ticks = (int) (seconds / World.STEP);
+        long maxBombs = 0;
+        for (int t = 0; t < ticks; t++) {
+            profiler.beginFrame();
+            bot.think(input);
+            world.step(input);
+            profiler.endFrame(0, 0, 0);
+            maxBombs = Math.max(maxBombs, world.getBombs().size);
+            // La ventana del histograma es de diez segundos: se informa al llenarla
+            if ((t + 1) % FrameProfiler.WINDOW == 0) report(profiler, world, t + 1);
+        }
+        // El último tick medido como frame necesita un beginFrame más
+        profiler.beginFrame();
+
+        float p99 = profiler.percentile(99);
+        System.out.printf(Locale.ROOT, "Últimos %d ticks: p50 %.2f ms, p99 %.2f ms, máx %.2f ms (presupuesto %.2f ms,"
+                + " %.0f%% usado en el p99); bombas a la vez: hasta %d; recolecciones: %d%n",
+            Math.min(ticks, FrameProfiler.WINDOW), profiler.percentile(50), p99, profiler.percentile(100), BUDGET_MS,
+            100f * p99 / BUDGET_MS, maxBombs, profiler.getGcCount());
+        if (p99 > BUDGET_MS) {
+            System.err.println("La simulación no cabe en un frame a 60 fps.");
+            System.exit(1);
+        }
+    }
+
+    private static void report(FrameProfiler profiler, World world, int tick) {
+        StringBuilder line = new StringBuilder();
+        line.append(String.format(Locale.ROOT, "%5.0f s: p50 %.2f ms, p99 %.2f ms |", tick * World.STEP,
+            profiler.percentile(50), profiler.percentile(99)));
+        // Solo las fases de la simulación; las de dibujo no se usan aquí
+        for (int i = FrameProfiler.PLAYERS; i <= FrameProfiler.POWER_UPS; i++) {
+            line.append(String.format(Locale.ROOT, " %s %.2f", FrameProfiler.PHASE_NAMES[i],
+                profiler.getAveragePhaseTime(i)));
+        }
+        line.append(String.format(Locale.ROOT, " | enemigos %d (%d congelados), bombas %d", world.getEnemies().size,
+            world.getEnemyStore().getFrozenCount(), world.getBombs().size));
+        System.out.println(line);
+        profiler.reset();
+    }
+
+    /**
+     * Mapa clásico de {@code rows}x{@code cols} con el jugador en su esquina, {@code enemies} enemigos
+     * y bombas en la fracción {@code bombDensity} de las celdas interiores, en celdas al azar.
+     */
+    static World arena(int rows, int cols, int enemies, float bombDensity, long seed) {
+        GameMap map = new GameMap(rows, cols);
+        World world = new World(map, seed);
+        Random random = new Random(seed);
+        world.getEnemyStore().ensureCapacity(enemies);
+        for (int i = world.getEnemies().size; i < enemies; i++) {
+            int tile = freeInteriorTile(map, random);
+            world.spawnEnemy((tile % cols) * GameMap.TILE_SIZE, (tile / cols) * GameMap.TILE_SIZE);
+        }
+        int bombs = (int) ((rows - 2) * (cols - 2) * bombDensity);
+        for (int i = 0; i < bombs; i++) {
+            int tile = freeInteriorTile(map, random);
+            world.addBomb(new Bomb((tile % cols) * GameMap.TILE_SIZE, (tile / cols) * GameMap.TILE_SIZE,
+                1 + random.nextInt(3), Bomb.OwnerType.ENEMY, -1));
+        }
+        world.prewarm();
+        return world;
+    }
+
+    /** Celda interior que no es muro fijo, lejos de la salida del jugador; se deja como suelo. */
+    private static int freeInteriorTile(GameMap map, Random random) {
+        while (true) {
+            int r = 1 + random.nextInt(map.getRows() - 2);
+            int c = 1 + random.nextInt(map.getCols() - 2);
+            if (map.getCell(r, c) != 1 && r + c > 6) {
+                map.setCell(r, c, 0);
+                return r * map.getCols() + c;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.bomba;
+
+/**
+ * Rueda de tiempos de un {@link RoomShard}: un array circular de ranuras, cada una con la lista
+ * enlazada (por {@link ServerRoom#nextInSlot}) de las salas a las que les toca tick en ella.
+ *
+ * Planificar y sacar una sala es O(1), sin colas de prioridad ni memoria nueva, y las salas se
+ * reparten entre las ranuras de un mismo tick del servidor para que el trabajo no llegue a golpes.
+ * Los intervalos deben ser menores que el tamaño de la rueda.
+ */
+final class TickWheel {
+    private final ServerRoom[] heads;
+    private final int[] counts;
+    private final int mask;
+    private int current;
+
+    /** @param size número de ranuras, potencia de dos. */
+    TickWheel(int size) {
+        if (Integer.bitCount(size) != 1) throw new IllegalArgumentException("Tamaño no potencia de dos: " + size);
+        heads = new ServerRoom[size];
+        counts = new int[size];
+        mask = size - 1;
+    }
+
+    /** Planifica la sala {@code slots} ranuras después de la actual (1 = la siguiente). */
+    void schedule(ServerRoom room, int slots) {
+        if (slots < 1 || slots > mask) throw new IllegalArgumentException("Fuera de la rueda: " + slots);
+        int index = (current + slots) & mask;
+        room.nextInSlot = heads[index];
+        heads[index] = room;
+        counts[index]++;
+    }
+
+    /** De las {@code span} ranuras siguientes, la que tiene menos salas (en distancia desde la actual). */
+    int leastLoaded(int span) {
+        int best = 1;
+        for (int i = 2; i <= span; i++) {
+            if (counts[(current + i) & mask] < counts[(current + best) & mask]) best = i;
+        }
+        return best;
+    }
+
+    /** Avanza a la siguiente ranura y devuelve su lista, que queda vacía. */
+    ServerRoom advance() {
+        current = (current + 1) & mask;
+        ServerRoom head = heads[current];
+        heads[current] = null;
+        counts[current] = 0;
+        return head;
+    }
+}